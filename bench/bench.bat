@@ -0,0 +1,79 @@
+@echo off
+
+REM Compile le framework et les benchmarks JMH, puis les lance avec le profileur GC
+REM (ou, avec "load" en premier argument, le harnais de charge LoadHarness)
+REM
+REM Jars attendus dans bench\lib (Maven Central):
+REM   jmh-core-1.37.jar, jmh-generator-annprocess-1.37.jar,
+REM   jopt-simple-5.0.4.jar, commons-math3-3.6.1.jar
+REM
+REM Exemples:
+REM   bench.bat                          tous les benchmarks
+REM   bench.bat RoutingBenchmark         une classe
+REM   bench.bat Json -p size=1000        options JMH transmises telles quelles
+REM   bench.bat load --threads 8 --duration 20 --max-p99 5000
+
+cd /d "%~dp0"
+set SERVLET_API_JAR=..\..\test-framework\lib
+set FRAMEWORK_SRC=..\src
+set BENCH_SRC=src
+set LIB_DIR=lib
+set BUILD_DIR=build
+set CP=%SERVLET_API_JAR%\servlet-api.jar;%LIB_DIR%\*
+
+REM Nettoyage
+if exist "%BUILD_DIR%" rmdir /s /q "%BUILD_DIR%"
+mkdir "%BUILD_DIR%\classes"
+mkdir "%BUILD_DIR%\bench"
+mkdir "%BUILD_DIR%\generated"
+
+if not exist "%LIB_DIR%\jmh-core-1.37.jar" (
+    echo Jars JMH manquants dans %LIB_DIR%
+    pause
+    exit /b 1
+)
+
+setlocal enabledelayedexpansion
+
+REM Compilation du framework
+echo Compilation du framework...
+set FILES=
+for /r "%FRAMEWORK_SRC%" %%f in (*.java) do (
+    set FILES=!FILES! "%%f"
+)
+javac -proc:none -encoding UTF-8 -parameters -cp "%CP%" -d "%BUILD_DIR%\classes" %FILES%
+if errorlevel 1 (
+    echo Erreur lors de la compilation du framework
+    pause
+    exit /b 1
+)
+
+REM Compilation des benchmarks: seul le processeur JMH tourne (pas RouteIndexProcessor)
+echo Compilation des benchmarks...
+set FILES=
+for /r "%BENCH_SRC%" %%f in (*.java) do (
+    set FILES=!FILES! "%%f"
+)
+javac -encoding UTF-8 -parameters -processor org.openjdk.jmh.generators.BenchmarkProcessor ^
+    -cp "%BUILD_DIR%\classes;%CP%" -s "%BUILD_DIR%\generated" -d "%BUILD_DIR%\bench" %FILES%
+if errorlevel 1 (
+    echo Erreur lors de la compilation des benchmarks
+    pause
+    exit /b 1
+)
+
+set RUN_CP=%BUILD_DIR%\bench;%BUILD_DIR%\classes;%CP%
+
+if /i "%~1"=="load" (
+    REM Service complet du FrontServlet sous charge; code de sortie 1 si un seuil est dépassé
+    for /f "tokens=1,* delims= " %%a in ("%*") do set LOAD_ARGS=%%b
+    java -cp "%RUN_CP%" bench.LoadHarness !LOAD_ARGS!
+    set RESULT=!errorlevel!
+    pause
+    exit /b !RESULT!
+)
+
+REM Débit (ops/s) et taux d'allocation (gc.alloc.rate.norm = octets par opération)
+java -cp "%RUN_CP%" org.openjdk.jmh.Main -prof gc %*
+
+pause
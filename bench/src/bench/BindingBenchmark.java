@@ -0,0 +1,107 @@
+package bench;
+
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import upload.MultipartParser;
+import url.BindingPlan;
+import url.RouteMatch;
+import url.ScannerFramework;
+
+/**
+ * Liaison des arguments d'un handler pour chaque type de paramètre: valeurs simples, variable
+ * de chemin, POJO imbriqué, Map, FileUpload.
+ *
+ * bind: BindingPlan.bind, chemin du FrontServlet. Les deux autres cas mesurent les points d'entrée
+ * publics encore exposés par ScannerFramework: mapFormParametersToMethodArgs par réflexion à chaque
+ * appel, et sa surcharge multipart qui compile son plan une fois par (méthode, pattern).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BindingBenchmark {
+
+    @Param({"scalar", "path", "pojo", "map", "file"})
+    public String kind;
+
+    private Method method;
+    private String pattern;
+    private String path;
+    private BindingPlan plan;
+    private StubRequest request;
+    private RouteMatch match;
+    private MultipartParser multipart;
+
+    @Setup
+    public void setup() throws Exception {
+        request = new StubRequest().method("POST");
+        switch (kind) {
+            case "scalar":
+                request.param("name", "Rakoto").param("age", "42").param("active", "true");
+                break;
+            case "path":
+                pattern = "/users/{id}";
+                path = "/users/1234";
+                match = Fixtures.trie(Collections.singletonList(pattern)).match(path);
+                break;
+            case "pojo":
+                request.param("name", "Rakoto").param("age", "42").param("email", "rakoto@example.com")
+                    .param("active", "true").param("score", "17.5")
+                    .param("address.street", "12 rue de la Paix").param("address.city", "Antananarivo")
+                    .param("address.zip", "101");
+                break;
+            case "map":
+                for (int i = 0; i < 10; i++) {
+                    request.param("field" + i, "valeur " + i);
+                }
+                break;
+            case "file":
+                request.body(Fixtures.multipartContentType(), Fixtures.multipartBody(1024));
+                multipart = new MultipartParser();
+                multipart.parse(request);
+                break;
+            default:
+                throw new IllegalArgumentException(kind);
+        }
+        method = Fixtures.method(kind);
+        plan = BindingPlan.compile(method, pattern);
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (multipart != null) multipart.cleanup();
+    }
+
+    @Benchmark
+    public Object[] bind() {
+        return plan.bind(request, match, multipart);
+    }
+
+    @Benchmark
+    public Object[] mapFormParameters() {
+        // Sans variable de chemin, équivaut à mapFormParametersToMethodArgs(method, request)
+        return ScannerFramework.mapFormParametersToMethodArgs(method, request, pattern, path);
+    }
+
+    @Benchmark
+    public Object[] mapFormParametersMultipart() {
+        return ScannerFramework.mapFormParametersToMethodArgs(method, request, pattern, path, multipart);
+    }
+}
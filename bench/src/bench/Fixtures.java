@@ -0,0 +1,155 @@
+package bench;
+
+import java.io.ByteArrayOutputStream;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import framework.annotation.Param;
+import upload.FileUpload;
+import url.HandlerDescriptor;
+import url.RouteTrie;
+
+/**
+ * Données communes des benchmarks: contrôleur, POJOs, tables de routes, corps multipart.
+ */
+public final class Fixtures {
+
+    public static final String BOUNDARY = "----BenchBoundary7MA4YWxkTrZu0gW";
+
+    private Fixtures() {
+    }
+
+    /**
+     * Contrôleur couvrant chaque chemin de liaison du BindingPlan
+     */
+    public static class Controller {
+        public String scalar(@Param("name") String name, @Param("age") int age, @Param("active") boolean active) {
+            return name;
+        }
+
+        public String path(long id) {
+            return "user";
+        }
+
+        public String pojo(Person person) {
+            return person.name;
+        }
+
+        public String map(Map<String, Object> values) {
+            return "map";
+        }
+
+        public String file(@Param("document") FileUpload document, @Param("title") String title) {
+            return title;
+        }
+
+        public int add(int a, int b) {
+            return a + b;
+        }
+    }
+
+    public static class Address {
+        public String street;
+        public String city;
+        public int zip;
+    }
+
+    public static class Person {
+        public String name;
+        public int age;
+        public String email;
+        public boolean active;
+        public double score;
+        public Address address;
+    }
+
+    public static Method method(String name) {
+        for (Method method : Controller.class.getMethods()) {
+            if (method.getName().equals(name)) return method;
+        }
+        throw new IllegalArgumentException(name);
+    }
+
+    /**
+     * Patterns de routes: une moitié statique (/api/rN/list), une moitié avec variable (/api/rN/{id})
+     */
+    public static List<String> patterns(int count) {
+        List<String> patterns = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            patterns.add((i % 2 == 0) ? "/api/r" + i + "/{id}/items" : "/api/r" + i + "/list");
+        }
+        return patterns;
+    }
+
+    /**
+     * Chemin réel correspondant au pattern (variables remplacées par un identifiant)
+     */
+    public static String pathFor(String pattern, int id) {
+        return pattern.replace("{id}", String.valueOf(id));
+    }
+
+    public static RouteTrie trie(List<String> patterns) throws Exception {
+        Controller controller = new Controller();
+        Method method = method("path");
+        Map<String, Map<String, HandlerDescriptor>> mappings = new LinkedHashMap<>();
+        for (String pattern : patterns) {
+            Map<String, HandlerDescriptor> byMethod = new LinkedHashMap<>();
+            byMethod.put("GET", new HandlerDescriptor(pattern, "GET", method, controller));
+            mappings.put(pattern, byMethod);
+        }
+        return RouteTrie.build(mappings);
+    }
+
+    public static List<Person> people(int count) {
+        List<Person> people = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Person person = new Person();
+            person.name = "Personne " + i;
+            person.age = 20 + (i % 50);
+            person.email = "personne" + i + "@example.com";
+            person.active = (i % 3) != 0;
+            person.score = i * 1.5;
+            person.address = new Address();
+            person.address.street = i + " rue de la Paix";
+            person.address.city = "Antananarivo";
+            person.address.zip = 101;
+            people.add(person);
+        }
+        return people;
+    }
+
+    /**
+     * Corps multipart/form-data: un champ texte et un fichier de la taille donnée
+     */
+    public static byte[] multipartBody(int fileSize) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(fileSize + 512);
+        write(out, "--" + BOUNDARY + "\r\n"
+            + "Content-Disposition: form-data; name=\"title\"\r\n\r\n"
+            + "Rapport annuel\r\n"
+            + "--" + BOUNDARY + "\r\n"
+            + "Content-Disposition: form-data; name=\"document\"; filename=\"rapport.bin\"\r\n"
+            + "Content-Type: application/octet-stream\r\n\r\n");
+        byte[] chunk = new byte[8192];
+        for (int i = 0; i < chunk.length; i++) {
+            chunk[i] = (byte) ('a' + (i % 26));   // Sans CR/LF: pas de faux début de délimiteur
+        }
+        for (int written = 0; written < fileSize; written += chunk.length) {
+            out.write(chunk, 0, Math.min(chunk.length, fileSize - written));
+        }
+        write(out, "\r\n--" + BOUNDARY + "--\r\n");
+        return out.toByteArray();
+    }
+
+    public static String multipartContentType() {
+        return "multipart/form-data; boundary=" + BOUNDARY;
+    }
+
+    private static void write(ByteArrayOutputStream out, String text) {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        out.write(bytes, 0, bytes.length);
+    }
+}
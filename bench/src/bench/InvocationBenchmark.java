@@ -0,0 +1,62 @@
+package bench;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import url.HandlerDescriptor;
+
+/**
+ * Appel du handler avec des arguments déjà liés: Method.invoke (réflexion, ancien chemin),
+ * HandlerDescriptor.invoke (MethodHandle préparé au scan) et appel direct comme référence.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class InvocationBenchmark {
+
+    private Fixtures.Controller controller;
+    private Method method;
+    private HandlerDescriptor handler;
+    private Object[] args;
+    private int a;
+    private int b;
+
+    @Setup
+    public void setup() throws Exception {
+        controller = new Fixtures.Controller();
+        method = Fixtures.method("add");
+        handler = new HandlerDescriptor("/add", "GET", method, controller);
+        a = 20;
+        b = 22;
+        args = new Object[] {a, b};
+    }
+
+    @Benchmark
+    public Object reflection() throws Exception {
+        return method.invoke(controller, args);
+    }
+
+    @Benchmark
+    public Object methodHandle() throws Exception {
+        return handler.invoke(args);
+    }
+
+    @Benchmark
+    public int direct() {
+        return controller.add(a, b);
+    }
+}
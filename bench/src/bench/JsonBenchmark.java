@@ -0,0 +1,73 @@
+package bench;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import json.JsonSerializer;
+
+/**
+ * Réponse @Json (JsonSerializer.writeEnvelope, ex-toJsonResponse) sur une liste de 10 à 100 000 POJOs.
+ * Le corps est compté puis jeté: seule la sérialisation est mesurée.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class JsonBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    public int size;
+
+    private List<Fixtures.Person> people;
+    private final Counting out = new Counting();
+
+    static final class Counting extends OutputStream {
+        long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+
+    @Setup
+    public void setup() {
+        people = Fixtures.people(size);
+    }
+
+    @Benchmark
+    public long envelope() throws IOException {
+        out.count = 0;
+        JsonSerializer.writeEnvelope(people, out);
+        return out.count;
+    }
+
+    @Benchmark
+    public long streamed() throws IOException {
+        // Même liste passée en Stream: chemin séquentiel avec vidages périodiques
+        out.count = 0;
+        JsonSerializer.writeEnvelope(people.stream(), out, 100, 64 * 1024);
+        return out.count;
+    }
+}
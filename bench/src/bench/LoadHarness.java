@@ -0,0 +1,344 @@
+package bench;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Method;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import jakarta.servlet.ServletContext;
+
+import bench.sample.SampleController;
+import front.FrontServlet;
+import metrics.LatencyHistogram;
+
+/**
+ * Harnais de charge en processus: démarre le FrontServlet sur un ServletContext factice
+ * et rejoue un journal d'accès (ou un mélange synthétique de routes) depuis N threads.
+ *
+ * Rapport: débit, percentiles de latence, collections GC et octets alloués par requête.
+ * Les seuils --min-rps et --max-p99 font échouer le processus (code 1): porte de non-régression.
+ *
+ * Exemples:
+ *   bench.bat load --threads 8 --duration 20
+ *   bench.bat load --virtual --threads 2000 --log access.log --max-p99 5000
+ */
+public final class LoadHarness {
+
+    // "GET /users/42?x=1 HTTP/1.1" dans un journal au format Common/Combined Log
+    private static final Pattern LOG_LINE = Pattern.compile("\"(GET|POST|PUT|DELETE|PATCH|HEAD) (\\S+) HTTP/[0-9.]+\"");
+
+    /**
+     * Requête à rejouer (méthode, chemin, paramètres)
+     */
+    static final class Template {
+        final String method;
+        final String path;
+        final Map<String, String> parameters;
+
+        Template(String method, String uri) {
+            this.method = method;
+            int query = uri.indexOf('?');
+            this.path = (query < 0) ? uri : uri.substring(0, query);
+            this.parameters = (query < 0) ? Map.of() : parseQuery(uri.substring(query + 1));
+        }
+
+        StubRequest toRequest(String contextPath) {
+            StubRequest request = new StubRequest().method(method).contextPath(contextPath).uri(path);
+            for (Map.Entry<String, String> entry : parameters.entrySet()) {
+                request.param(entry.getKey(), entry.getValue());
+            }
+            return request;
+        }
+    }
+
+    private int threads = Runtime.getRuntime().availableProcessors() * 2;
+    private boolean virtual;
+    private int warmupSeconds = 5;
+    private int durationSeconds = 10;
+    private String contextPath = "";
+    private File classesDir;
+    private Path accessLog;
+    private long minRps = -1;
+    private long maxP99 = -1;
+    private final Map<String, String> initParameters = new LinkedHashMap<>();
+
+    public static void main(String[] args) throws Exception {
+        LoadHarness harness = new LoadHarness();
+        harness.parseArguments(args);
+        System.exit(harness.run() ? 0 : 1);
+    }
+
+    private void parseArguments(String[] args) throws Exception {
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--threads": threads = Integer.parseInt(args[++i]); break;
+                case "--virtual": virtual = true; break;
+                case "--warmup": warmupSeconds = Integer.parseInt(args[++i]); break;
+                case "--duration": durationSeconds = Integer.parseInt(args[++i]); break;
+                case "--context": contextPath = args[++i]; break;
+                case "--classes": classesDir = new File(args[++i]); break;
+                case "--log": accessLog = Path.of(args[++i]); break;
+                case "--min-rps": minRps = Long.parseLong(args[++i]); break;
+                case "--max-p99": maxP99 = Long.parseLong(args[++i]); break;
+                case "--param": {
+                    String[] pair = args[++i].split("=", 2);
+                    initParameters.put(pair[0], pair.length > 1 ? pair[1] : "");
+                    break;
+                }
+                default:
+                    throw new IllegalArgumentException("Option inconnue: " + args[i]
+                        + " (--threads N --virtual --warmup s --duration s --context /app --classes dir"
+                        + " --log fichier --param cle=valeur --min-rps N --max-p99 µs)");
+            }
+        }
+        if (classesDir == null) {
+            // Dossier (ou jar) d'où vient le contrôleur d'exemple
+            classesDir = new File(SampleController.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+        }
+    }
+
+    private boolean run() throws Exception {
+        List<Template> templates = (accessLog != null) ? readAccessLog(accessLog) : syntheticMix();
+        if (templates.isEmpty()) {
+            throw new IllegalStateException("Aucune requête à rejouer");
+        }
+
+        FrontServlet servlet = new FrontServlet();
+        ServletContext context = StubServletContext.create(contextPath, classesDir, null, Map.of());
+        servlet.init(StubServletContext.config("FrontServlet", context, initParameters));
+
+        System.out.printf(Locale.ROOT, "%n%d requêtes modèles, %d threads %s, %d s de chauffe, %d s de mesure%n",
+            templates.size(), threads, virtual ? "virtuels" : "plateforme", warmupSeconds, durationSeconds);
+
+        Run warmup = new Run(servlet, templates);
+        warmup.execute(warmupSeconds);
+
+        long gcCount = gcCount();
+        long gcTime = gcTime();
+        Run measured = new Run(servlet, templates);
+        long elapsed = measured.execute(durationSeconds);
+        gcCount = gcCount() - gcCount;
+        gcTime = gcTime() - gcTime;
+        servlet.destroy();
+
+        return report(measured, elapsed, gcCount, gcTime);
+    }
+
+    /**
+     * Une phase de charge: N workers qui parcourent les requêtes modèles jusqu'à l'échéance
+     */
+    private final class Run {
+        final FrontServlet servlet;
+        final List<Template> templates;
+        final LatencyHistogram latency = new LatencyHistogram();
+        final LongAdder allocated = new LongAdder();
+        final LongAdder allocationSamples = new LongAdder();
+        final long[] statuses = new long[600];
+
+        Run(FrontServlet servlet, List<Template> templates) {
+            this.servlet = servlet;
+            this.templates = templates;
+        }
+
+        long execute(int seconds) throws InterruptedException {
+            ExecutorService executor = newExecutor();
+            long start = System.nanoTime();
+            long deadline = start + TimeUnit.SECONDS.toNanos(seconds);
+            for (int worker = 0; worker < threads; worker++) {
+                int offset = worker;
+                executor.execute(() -> work(offset, deadline));
+            }
+            executor.shutdown();
+            executor.awaitTermination(seconds + 60L, TimeUnit.SECONDS);
+            return System.nanoTime() - start;
+        }
+
+        private void work(int offset, long deadline) {
+            com.sun.management.ThreadMXBean threadBean = allocationBean();
+            long allocatedBefore = (threadBean != null) ? threadBean.getCurrentThreadAllocatedBytes() : -1;
+            long[] localStatuses = new long[statuses.length];
+            int size = templates.size();
+            // Chaque worker part d'un point différent du journal: pas de compteur partagé
+            for (long i = offset; System.nanoTime() < deadline; i++) {
+                Template template = templates.get((int) (i % size));
+                StubRequest request = template.toRequest(contextPath);
+                StubResponse response = new StubResponse();
+                long begin = System.nanoTime();
+                try {
+                    servlet.service(request, response);
+                } catch (Exception e) {
+                    response.setStatus(599);
+                }
+                latency.record((System.nanoTime() - begin) / 1000);
+                int status = response.getStatus();
+                localStatuses[(status >= 0 && status < localStatuses.length) ? status : 599]++;
+            }
+            if (allocatedBefore >= 0) {
+                long allocatedAfter = threadBean.getCurrentThreadAllocatedBytes();
+                if (allocatedAfter >= 0) {
+                    allocated.add(allocatedAfter - allocatedBefore);
+                    allocationSamples.increment();
+                }
+            }
+            synchronized (statuses) {
+                for (int s = 0; s < statuses.length; s++) {
+                    statuses[s] += localStatuses[s];
+                }
+            }
+        }
+    }
+
+    private boolean report(Run run, long elapsedNanos, long gcCount, long gcTime) {
+        long requests = run.latency.getCount();
+        double seconds = elapsedNanos / 1e9;
+        long rps = Math.round(requests / seconds);
+        long p99 = run.latency.getPercentile(99);
+
+        Map<Integer, Long> statuses = new TreeMap<>();
+        long errors = 0;
+        for (int s = 0; s < run.statuses.length; s++) {
+            if (run.statuses[s] == 0) continue;
+            statuses.put(s, run.statuses[s]);
+            if (s >= 400) errors += run.statuses[s];
+        }
+
+        System.out.printf(Locale.ROOT, "%nRequêtes     %d en %.1f s: %d req/s%n", requests, seconds, rps);
+        System.out.printf(Locale.ROOT, "Statuts      %s (erreurs: %d)%n", statuses, errors);
+        System.out.printf(Locale.ROOT, "Latence µs   moy=%.0f p50=%d p90=%d p99=%d p999=%d max=%d%n",
+            run.latency.getMean(), run.latency.getPercentile(50), run.latency.getPercentile(90), p99,
+            run.latency.getPercentile(99.9), run.latency.getMax());
+        System.out.printf(Locale.ROOT, "GC           %d collections, %d ms (%.1f%% du temps)%n",
+            gcCount, gcTime, 100.0 * gcTime / (elapsedNanos / 1e6));
+        if (run.allocationSamples.sum() == threads && requests > 0) {
+            System.out.printf(Locale.ROOT, "Allocation   %d octets/requête, %.0f Mo/s%n",
+                run.allocated.sum() / requests, run.allocated.sum() / seconds / (1024 * 1024));
+        } else {
+            System.out.println("Allocation   indisponible (compteurs par thread non supportés)");
+        }
+
+        boolean passed = true;
+        if (minRps >= 0 && rps < minRps) {
+            System.out.printf("ÉCHEC: %d req/s < seuil %d%n", rps, minRps);
+            passed = false;
+        }
+        if (maxP99 >= 0 && p99 > maxP99) {
+            System.out.printf("ÉCHEC: p99 %d µs > seuil %d µs%n", p99, maxP99);
+            passed = false;
+        }
+        return passed;
+    }
+
+    private ExecutorService newExecutor() {
+        if (virtual) {
+            try {
+                Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+                return (ExecutorService) factory.invoke(null);
+            } catch (ReflectiveOperationException e) {
+                System.out.println("Threads virtuels indisponibles (JDK 21+): threads plateforme");
+                virtual = false;
+            }
+        }
+        AtomicInteger counter = new AtomicInteger();
+        return Executors.newFixedThreadPool(threads, task -> new Thread(task, "load-" + counter.incrementAndGet()));
+    }
+
+    private static com.sun.management.ThreadMXBean allocationBean() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+            if (bean.isThreadAllocatedMemorySupported() && bean.isThreadAllocatedMemoryEnabled()) {
+                return bean;
+            }
+        }
+        return null;
+    }
+
+    private static long gcCount() {
+        long total = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            total += Math.max(0, gc.getCollectionCount());
+        }
+        return total;
+    }
+
+    private static long gcTime() {
+        long total = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            total += Math.max(0, gc.getCollectionTime());
+        }
+        return total;
+    }
+
+    /**
+     * Requêtes d'un journal d'accès (Common/Combined Log Format), dans l'ordre du fichier
+     */
+    static List<Template> readAccessLog(Path file) throws IOException {
+        List<Template> templates = new ArrayList<>();
+        for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            Matcher matcher = LOG_LINE.matcher(line);
+            if (matcher.find()) {
+                templates.add(new Template(matcher.group(1), matcher.group(2)));
+            }
+        }
+        return templates;
+    }
+
+    /**
+     * Mélange pondéré sur les routes du SampleController (graine fixe: reproductible)
+     */
+    static List<Template> syntheticMix() {
+        Random random = new Random(42);
+        List<Template> templates = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            int pick = random.nextInt(100);
+            if (pick < 20) {
+                templates.add(new Template("GET", "/hello"));
+            } else if (pick < 50) {
+                templates.add(new Template("GET", "/users/" + random.nextInt(10_000)));
+            } else if (pick < 60) {
+                templates.add(new Template("GET", "/users"));
+            } else if (pick < 75) {
+                templates.add(new Template("GET", "/search?q=terme" + random.nextInt(100)
+                    + "&page=" + random.nextInt(10) + "&size=20"));
+            } else if (pick < 85) {
+                templates.add(new Template("POST", "/users?name=Rakoto" + i + "&email=r" + i
+                    + "%40example.com&age=" + (18 + random.nextInt(60)) + "&active=true"));
+            } else if (pick < 95) {
+                templates.add(new Template("GET", "/orders/" + random.nextInt(1000) + "/items/" + random.nextInt(50)));
+            } else {
+                templates.add(new Template("GET", "/page"));
+            }
+        }
+        return templates;
+    }
+
+    static Map<String, String> parseQuery(String query) {
+        Map<String, String> parameters = new LinkedHashMap<>();
+        for (String pair : query.split("&")) {
+            if (pair.isEmpty()) continue;
+            int eq = pair.indexOf('=');
+            String name = URLDecoder.decode(eq < 0 ? pair : pair.substring(0, eq), StandardCharsets.UTF_8);
+            String value = (eq < 0) ? "" : URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8);
+            parameters.putIfAbsent(name, value);
+        }
+        return parameters;
+    }
+}
@@ -0,0 +1,56 @@
+package bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import upload.MultipartParser;
+import upload.UploadBudget;
+
+/**
+ * MultipartParser.parse sur un corps de 1 Ko à 50 Mo (un champ texte + un fichier).
+ * Au-delà du seuil mémoire (1 Mo par défaut) la part est écrite sur disque: cleanup inclus dans la mesure.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx1g")
+@State(Scope.Thread)
+public class MultipartBenchmark {
+
+    private static final long MAX_SIZE = 64L * 1024 * 1024;
+
+    @Param({"1024", "65536", "1048576", "10485760", "52428800"})
+    public int bodySize;
+
+    private StubRequest request;
+
+    @Setup
+    public void setup() {
+        request = new StubRequest().method("POST")
+            .body(Fixtures.multipartContentType(), Fixtures.multipartBody(bodySize));
+    }
+
+    @Benchmark
+    public long parse() throws Exception {
+        MultipartParser parser = new MultipartParser(MultipartParser.DEFAULT_MEMORY_THRESHOLD, MAX_SIZE, MAX_SIZE,
+            null, UploadBudget.UNLIMITED);
+        try {
+            parser.parse(request);
+            return parser.getFile("document").getSize();
+        } finally {
+            parser.cleanup();
+        }
+    }
+}
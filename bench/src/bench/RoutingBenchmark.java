@@ -0,0 +1,94 @@
+package bench;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import url.RouteMatch;
+import url.RouteTrie;
+import url.Router;
+import url.UrlPatternMatcher;
+
+/**
+ * Résolution d'un chemin parmi 10, 100 ou 1000 routes.
+ *
+ * matchesScan reproduit l'ancien parcours linéaire (UrlPatternMatcher.matches sur chaque pattern),
+ * à comparer au RouteTrie seul et au Router complet (table exacte + cache).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RoutingBenchmark {
+
+    private static final int PATHS = 1024;   // Puissance de 2: index par masque
+
+    @Param({"10", "100", "1000"})
+    public int routes;
+
+    private String[] patterns;
+    private String[] paths;
+    private String[] pathPatterns;   // Pattern attendu pour chaque chemin
+    private RouteTrie trie;
+    private Router router;
+    private int next;
+
+    @Setup
+    public void setup() throws Exception {
+        List<String> all = Fixtures.patterns(routes);
+        patterns = all.toArray(new String[0]);
+        paths = new String[PATHS];
+        pathPatterns = new String[PATHS];
+        for (int i = 0; i < PATHS; i++) {
+            // Répartition uniforme sur toutes les routes, identifiants variés pour les routes dynamiques
+            String pattern = patterns[(int) ((i * 2654435761L) % patterns.length)];
+            pathPatterns[i] = pattern;
+            paths[i] = Fixtures.pathFor(pattern, i);
+        }
+        trie = Fixtures.trie(all);
+        router = new Router(trie, 1024);
+    }
+
+    private int nextIndex() {
+        return next++ & (PATHS - 1);
+    }
+
+    @Benchmark
+    public String matchesScan() {
+        String path = paths[nextIndex()];
+        for (String pattern : patterns) {
+            if (UrlPatternMatcher.matches(pattern, path)) return pattern;
+        }
+        return null;
+    }
+
+    @Benchmark
+    public Map<String, String> extractVariables() {
+        int i = nextIndex();
+        return UrlPatternMatcher.extractVariables(pathPatterns[i], paths[i]);
+    }
+
+    @Benchmark
+    public RouteMatch trieMatch() {
+        return trie.match(paths[nextIndex()]);
+    }
+
+    @Benchmark
+    public RouteMatch routerResolve() {
+        return router.resolve(paths[nextIndex()]);
+    }
+}
@@ -0,0 +1,267 @@
+package bench;
+
+import java.io.ByteArrayInputStream;
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletContext;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+
+/**
+ * Requête HTTP en mémoire pour les benchmarks (pas de conteneur).
+ *
+ * Seules les méthodes utilisées par le framework sont implémentées, en appel direct;
+ * les autres lèvent UnsupportedOperationException.
+ */
+public class StubRequest extends HttpServletRequestWrapper {
+
+    private static final HttpServletRequest UNSUPPORTED = (HttpServletRequest) Proxy.newProxyInstance(
+        StubRequest.class.getClassLoader(), new Class<?>[] {HttpServletRequest.class},
+        (proxy, method, args) -> {
+            throw new UnsupportedOperationException("StubRequest: " + method.getName());
+        });
+
+    private String method = "GET";
+    private String contextPath = "";
+    private String requestUri = "/";
+    private String contentType;
+    private byte[] body = new byte[0];
+    private ServletContext servletContext;
+    private final Map<String, String[]> parameters = new LinkedHashMap<>();
+    private final Map<String, String> headers = new HashMap<>();
+    private final Map<String, Object> attributes = new HashMap<>();
+
+    public StubRequest() {
+        super(UNSUPPORTED);
+    }
+
+    public StubRequest method(String method) {
+        this.method = method;
+        return this;
+    }
+
+    public StubRequest uri(String requestUri) {
+        this.requestUri = requestUri;
+        return this;
+    }
+
+    public StubRequest contextPath(String contextPath) {
+        this.contextPath = contextPath;
+        return this;
+    }
+
+    public StubRequest param(String name, String value) {
+        parameters.put(name, new String[] {value});
+        return this;
+    }
+
+    public StubRequest header(String name, String value) {
+        headers.put(name.toLowerCase(), value);
+        return this;
+    }
+
+    public StubRequest body(String contentType, byte[] body) {
+        this.contentType = contentType;
+        this.body = body;
+        return this;
+    }
+
+    public StubRequest servletContext(ServletContext servletContext) {
+        this.servletContext = servletContext;
+        return this;
+    }
+
+    /**
+     * Remet les attributs à zéro pour réutiliser la requête d'une itération à l'autre
+     */
+    public StubRequest recycle() {
+        attributes.clear();
+        return this;
+    }
+
+    @Override
+    public String getMethod() {
+        return method;
+    }
+
+    @Override
+    public String getRequestURI() {
+        return contextPath + requestUri;
+    }
+
+    @Override
+    public String getContextPath() {
+        return contextPath;
+    }
+
+    @Override
+    public String getServletPath() {
+        return requestUri;
+    }
+
+    @Override
+    public String getPathInfo() {
+        return null;
+    }
+
+    @Override
+    public String getQueryString() {
+        return null;
+    }
+
+    @Override
+    public String getParameter(String name) {
+        String[] values = parameters.get(name);
+        return (values != null && values.length > 0) ? values[0] : null;
+    }
+
+    @Override
+    public String[] getParameterValues(String name) {
+        return parameters.get(name);
+    }
+
+    @Override
+    public Map<String, String[]> getParameterMap() {
+        return Collections.unmodifiableMap(parameters);
+    }
+
+    @Override
+    public Enumeration<String> getParameterNames() {
+        return Collections.enumeration(parameters.keySet());
+    }
+
+    @Override
+    public String getHeader(String name) {
+        return headers.get(name.toLowerCase());
+    }
+
+    @Override
+    public Enumeration<String> getHeaders(String name) {
+        String value = getHeader(name);
+        return value != null ? Collections.enumeration(Collections.singletonList(value)) : Collections.emptyEnumeration();
+    }
+
+    @Override
+    public Enumeration<String> getHeaderNames() {
+        return Collections.enumeration(headers.keySet());
+    }
+
+    @Override
+    public long getDateHeader(String name) {
+        return -1;
+    }
+
+    @Override
+    public String getContentType() {
+        return contentType;
+    }
+
+    @Override
+    public int getContentLength() {
+        return body.length;
+    }
+
+    @Override
+    public long getContentLengthLong() {
+        return body.length;
+    }
+
+    @Override
+    public String getCharacterEncoding() {
+        return "UTF-8";
+    }
+
+    @Override
+    public ServletInputStream getInputStream() {
+        ByteArrayInputStream in = new ByteArrayInputStream(body);
+        return new ServletInputStream() {
+            @Override
+            public int read() {
+                return in.read();
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) {
+                return in.read(b, off, len);
+            }
+
+            @Override
+            public boolean isFinished() {
+                return in.available() == 0;
+            }
+
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setReadListener(ReadListener listener) {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+
+    @Override
+    public Object getAttribute(String name) {
+        return attributes.get(name);
+    }
+
+    @Override
+    public void setAttribute(String name, Object value) {
+        attributes.put(name, value);
+    }
+
+    @Override
+    public void removeAttribute(String name) {
+        attributes.remove(name);
+    }
+
+    @Override
+    public Enumeration<String> getAttributeNames() {
+        return Collections.enumeration(attributes.keySet());
+    }
+
+    @Override
+    public boolean isAsyncSupported() {
+        return false;
+    }
+
+    @Override
+    public boolean isAsyncStarted() {
+        return false;
+    }
+
+    @Override
+    public ServletContext getServletContext() {
+        if (servletContext == null) throw new UnsupportedOperationException("StubRequest: getServletContext");
+        return servletContext;
+    }
+
+    @Override
+    public String getProtocol() {
+        return "HTTP/1.1";
+    }
+
+    @Override
+    public String getScheme() {
+        return "http";
+    }
+
+    @Override
+    public boolean isSecure() {
+        return false;
+    }
+
+    @Override
+    public void setCharacterEncoding(String encoding) {
+        // Toujours UTF-8
+    }
+}
@@ -0,0 +1,247 @@
+package bench;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+/**
+ * Réponse HTTP en mémoire pour les benchmarks.
+ *
+ * Le corps est compté et, si demandé, conservé (capture); sinon il est jeté
+ * pour ne mesurer que le framework.
+ */
+public class StubResponse extends HttpServletResponseWrapper {
+
+    private static final HttpServletResponse UNSUPPORTED = (HttpServletResponse) Proxy.newProxyInstance(
+        StubResponse.class.getClassLoader(), new Class<?>[] {HttpServletResponse.class},
+        (proxy, method, args) -> {
+            throw new UnsupportedOperationException("StubResponse: " + method.getName());
+        });
+
+    private final boolean capture;
+    private final ByteArrayOutputStream captured = new ByteArrayOutputStream();
+    private final Map<String, String> headers = new LinkedHashMap<>();
+    private final Body body = new Body();
+    private PrintWriter writer;
+    private int status = SC_OK;
+    private String contentType;
+    private long bytesWritten;
+    private boolean committed;
+
+    public StubResponse() {
+        this(false);
+    }
+
+    public StubResponse(boolean capture) {
+        super(UNSUPPORTED);
+        this.capture = capture;
+    }
+
+    /**
+     * Remet la réponse à zéro pour la réutiliser d'une itération à l'autre
+     */
+    public StubResponse recycle() {
+        resetBuffer();
+        headers.clear();
+        status = SC_OK;
+        contentType = null;
+        committed = false;
+        return this;
+    }
+
+    private final class Body extends ServletOutputStream {
+        @Override
+        public void write(int b) {
+            bytesWritten++;
+            committed = true;
+            if (capture) captured.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            bytesWritten += len;
+            committed = true;
+            if (capture) captured.write(b, off, len);
+        }
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        @Override
+        public void setWriteListener(WriteListener listener) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() {
+        return body;
+    }
+
+    @Override
+    public PrintWriter getWriter() {
+        if (writer == null) {
+            writer = new PrintWriter(new OutputStreamWriter(body, StandardCharsets.UTF_8), false);
+        }
+        return writer;
+    }
+
+    @Override
+    public void flushBuffer() {
+        if (writer != null) writer.flush();
+        committed = true;
+    }
+
+    @Override
+    public void resetBuffer() {
+        if (writer != null) writer.flush();
+        captured.reset();
+        bytesWritten = 0;
+    }
+
+    @Override
+    public void reset() {
+        recycle();
+        writer = null;
+    }
+
+    @Override
+    public boolean isCommitted() {
+        return committed;
+    }
+
+    @Override
+    public void setStatus(int status) {
+        this.status = status;
+    }
+
+    @Override
+    public int getStatus() {
+        return status;
+    }
+
+    @Override
+    public void sendError(int status, String message) {
+        this.status = status;
+        committed = true;
+    }
+
+    @Override
+    public void sendError(int status) {
+        sendError(status, null);
+    }
+
+    @Override
+    public void sendRedirect(String location) {
+        status = SC_FOUND;
+        headers.put("Location", location);
+        committed = true;
+    }
+
+    @Override
+    public void setContentType(String contentType) {
+        this.contentType = contentType;
+    }
+
+    @Override
+    public String getContentType() {
+        return contentType;
+    }
+
+    @Override
+    public void setCharacterEncoding(String encoding) {
+        // Toujours UTF-8
+    }
+
+    @Override
+    public String getCharacterEncoding() {
+        return "UTF-8";
+    }
+
+    @Override
+    public void setContentLength(int length) {
+        headers.put("Content-Length", String.valueOf(length));
+    }
+
+    @Override
+    public void setContentLengthLong(long length) {
+        headers.put("Content-Length", String.valueOf(length));
+    }
+
+    @Override
+    public void setBufferSize(int size) {
+    }
+
+    @Override
+    public int getBufferSize() {
+        return 8192;
+    }
+
+    @Override
+    public void setHeader(String name, String value) {
+        headers.put(name, value);
+    }
+
+    @Override
+    public void addHeader(String name, String value) {
+        headers.merge(name, value, (a, b) -> a + ", " + b);
+    }
+
+    @Override
+    public void setDateHeader(String name, long date) {
+        headers.put(name, String.valueOf(date));
+    }
+
+    @Override
+    public void setIntHeader(String name, int value) {
+        headers.put(name, String.valueOf(value));
+    }
+
+    @Override
+    public boolean containsHeader(String name) {
+        return headers.containsKey(name);
+    }
+
+    @Override
+    public String getHeader(String name) {
+        return headers.get(name);
+    }
+
+    @Override
+    public Collection<String> getHeaderNames() {
+        return Collections.unmodifiableSet(headers.keySet());
+    }
+
+    /**
+     * Octets écrits dans le corps (writer vidé compris)
+     */
+    public long getBytesWritten() {
+        if (writer != null) writer.flush();
+        return bytesWritten;
+    }
+
+    /**
+     * Corps reçu, si la réponse a été créée avec capture
+     */
+    public byte[] getBody() {
+        if (writer != null) writer.flush();
+        return captured.toByteArray();
+    }
+
+    public String getBodyAsString() {
+        return new String(getBody(), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,168 @@
+package bench;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.net.URL;
+import java.net.URLConnection;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import jakarta.servlet.RequestDispatcher;
+import jakarta.servlet.ServletConfig;
+import jakarta.servlet.ServletContext;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+
+/**
+ * ServletContext minimal pour démarrer le FrontServlet hors conteneur.
+ *
+ * /WEB-INF/classes pointe vers le dossier des contrôleurs, les ressources statiques
+ * sont cherchées sous webRoot (null = aucune), et un forward vers une vue écrit
+ * simplement son nom dans la réponse.
+ */
+public final class StubServletContext implements InvocationHandler {
+
+    private final String contextPath;
+    private final File classesDir;
+    private final File webRoot;
+    private final Map<String, String> initParameters;
+    private final Map<String, Object> attributes = new ConcurrentHashMap<>();
+
+    private StubServletContext(String contextPath, File classesDir, File webRoot, Map<String, String> initParameters) {
+        this.contextPath = contextPath;
+        this.classesDir = classesDir;
+        this.webRoot = webRoot;
+        this.initParameters = initParameters;
+    }
+
+    public static ServletContext create(String contextPath, File classesDir, File webRoot,
+                                        Map<String, String> initParameters) {
+        return (ServletContext) Proxy.newProxyInstance(StubServletContext.class.getClassLoader(),
+            new Class<?>[] {ServletContext.class},
+            new StubServletContext(contextPath, classesDir, webRoot, new HashMap<>(initParameters)));
+    }
+
+    /**
+     * Configuration du servlet (paramètres d'init) rattachée au contexte
+     */
+    public static ServletConfig config(String servletName, ServletContext context, Map<String, String> initParameters) {
+        Map<String, String> parameters = new HashMap<>(initParameters);
+        return new ServletConfig() {
+            @Override
+            public String getServletName() {
+                return servletName;
+            }
+
+            @Override
+            public ServletContext getServletContext() {
+                return context;
+            }
+
+            @Override
+            public String getInitParameter(String name) {
+                return parameters.get(name);
+            }
+
+            @Override
+            public Enumeration<String> getInitParameterNames() {
+                return Collections.enumeration(parameters.keySet());
+            }
+        };
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        switch (method.getName()) {
+            case "getContextPath":
+                return contextPath;
+            case "getServletContextName":
+                return "bench";
+            case "getRealPath":
+                return realPath((String) args[0]);
+            case "getResource":
+                return resource((String) args[0]);
+            case "getNamedDispatcher":
+                return null;
+            case "getRequestDispatcher":
+                return viewDispatcher((String) args[0]);
+            case "getAttribute":
+                return attributes.get((String) args[0]);
+            case "setAttribute":
+                if (args[1] == null) attributes.remove((String) args[0]);
+                else attributes.put((String) args[0], args[1]);
+                return null;
+            case "removeAttribute":
+                attributes.remove((String) args[0]);
+                return null;
+            case "getAttributeNames":
+                return Collections.enumeration(attributes.keySet());
+            case "getInitParameter":
+                return initParameters.get((String) args[0]);
+            case "getInitParameterNames":
+                return Collections.enumeration(initParameters.keySet());
+            case "getMimeType":
+                return URLConnection.guessContentTypeFromName((String) args[0]);
+            case "log":
+                System.err.println("[context] " + args[0]);
+                return null;
+            case "getMajorVersion":
+                return 6;
+            case "getMinorVersion":
+                return 0;
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            case "equals":
+                return proxy == args[0];
+            case "toString":
+                return "StubServletContext(" + contextPath + ")";
+            default:
+                throw new UnsupportedOperationException("StubServletContext: " + method.getName());
+        }
+    }
+
+    private String realPath(String path) {
+        if ("/WEB-INF/classes".equals(path)) {
+            return classesDir.getAbsolutePath();
+        }
+        if (webRoot == null) {
+            return null;
+        }
+        File file = new File(webRoot, path);
+        return file.exists() ? file.getAbsolutePath() : null;
+    }
+
+    private URL resource(String path) throws IOException {
+        if (webRoot == null || path.isEmpty() || "/".equals(path)) {
+            return null;
+        }
+        File file = new File(webRoot, path);
+        return file.isFile() ? file.toURI().toURL() : null;
+    }
+
+    private RequestDispatcher viewDispatcher(String view) {
+        return new RequestDispatcher() {
+            @Override
+            public void forward(ServletRequest request, ServletResponse response)
+                    throws IOException {
+                response.setContentType("text/html; charset=UTF-8");
+                PrintWriter writer = response.getWriter();
+                writer.print("<html><body>");
+                writer.print(view);
+                writer.print("</body></html>");
+            }
+
+            @Override
+            public void include(ServletRequest request, ServletResponse response)
+                    throws IOException {
+                forward(request, response);
+            }
+        };
+    }
+}
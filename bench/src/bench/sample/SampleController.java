@@ -0,0 +1,85 @@
+package bench.sample;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import annotation.Json;
+import annotation.UrlGet;
+import annotation.UrlPost;
+import framework.annotation.Param;
+import sprint2bis.Controller;
+import view.ModelView;
+
+/**
+ * Contrôleur de référence du harnais de charge: un handler par chemin de rendu
+ * (texte, JSON objet et liste, POJO lié, vue) et des routes statiques et dynamiques.
+ */
+@Controller
+public class SampleController {
+
+    public static class User {
+        public long id;
+        public String name;
+        public String email;
+        public int age;
+        public boolean active;
+    }
+
+    private static final List<User> USERS = new ArrayList<>();
+
+    static {
+        for (int i = 0; i < 100; i++) {
+            USERS.add(user(i));
+        }
+    }
+
+    private static User user(long id) {
+        User user = new User();
+        user.id = id;
+        user.name = "Utilisateur " + id;
+        user.email = "user" + id + "@example.com";
+        user.age = 20 + (int) (id % 50);
+        user.active = id % 3 != 0;
+        return user;
+    }
+
+    @UrlGet("/hello")
+    public String hello() {
+        return "bonjour";
+    }
+
+    @UrlGet("/users/{id}")
+    @Json
+    public User show(long id) {
+        return user(id);
+    }
+
+    @UrlGet("/users")
+    @Json
+    public List<User> list() {
+        return USERS;
+    }
+
+    @UrlGet("/search")
+    public String search(@Param("q") String q, @Param("page") int page, @Param("size") int size) {
+        return q + ":" + page + ":" + size;
+    }
+
+    @UrlPost("/users")
+    public String create(User user) {
+        return "créé " + user.name;
+    }
+
+    @UrlGet("/orders/{orderId}/items/{itemId}")
+    @Json
+    public long[] item(long orderId, long itemId) {
+        return new long[] {orderId, itemId};
+    }
+
+    @UrlGet("/page")
+    public ModelView page() {
+        ModelView view = new ModelView("page.jsp");
+        view.addObject("title", "Accueil");
+        return view;
+    }
+}
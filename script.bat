@@ -20,7 +20,8 @@ for /r "%SRC_DIR%" %%f in (*.java) do (
     set FILES=!FILES! "%%f"
 )
 
-javac -cp "%SERVLET_API_JAR%\servlet-api.jar;%SRC_DIR%" -d "%BUILD_DIR%" %FILES%
+REM -proc:none: le processeur RouteIndexProcessor ne doit pas tourner sur le framework lui-même
+javac -proc:none -cp "%SERVLET_API_JAR%\servlet-api.jar;%SRC_DIR%" -d "%BUILD_DIR%" %FILES%
 
 if errorlevel 1 (
     echo Erreur lors de la compilation des sources
@@ -37,6 +38,9 @@ if errorlevel 1 (
     exit /b 1
 )
 
+REM Ressources (enregistrement du processeur d'annotations)
+if exist "%SRC_DIR%\META-INF" xcopy /E /I /Y /Q "%SRC_DIR%\META-INF" "%BUILD_DIR%\META-INF" >nul
+
 REM Création du JAR
 jar cf "%JAR_FILE%" -C "%BUILD_DIR%" .
 
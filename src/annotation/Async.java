@@ -0,0 +1,21 @@
+package annotation;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.lang.annotation.ElementType;
+
+/**
+ * Handler exécuté hors du thread du conteneur (thread virtuel si disponible),
+ * en mode asynchrone du FrontServlet (framework.async.enabled=true).
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface Async {
+
+    /** Délai maximal en millisecondes (0 = framework.async.timeout) */
+    long timeout() default 0;
+
+    /** Nombre maximal d'exécutions simultanées de ce handler (0 = illimité) */
+    int maxConcurrency() default 0;
+}
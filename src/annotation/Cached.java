@@ -0,0 +1,27 @@
+package annotation;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.lang.annotation.ElementType;
+
+/**
+ * Réponse du handler mise en cache (octets finaux et en-têtes), pour les requêtes GET.
+ * Un succès évite la liaison, l'appel et la sérialisation (framework.cache.enabled=true).
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface Cached {
+
+    /** Durée de vie d'une entrée en millisecondes */
+    long ttl() default 60_000;
+
+    /** Variables de chemin ou paramètres formant la clé (vide = chemin et query string complets) */
+    String[] key() default {};
+
+    /** Nombre maximal d'entrées */
+    int maxSize() default 1000;
+
+    /** Taille cumulée maximale des réponses en octets */
+    long maxBytes() default 4L * 1024 * 1024;
+}
@@ -0,0 +1,108 @@
+package cache;
+
+import java.io.IOException;
+
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Réponse figée: statut, type, en-têtes et corps déjà encodé, rejouée telle quelle
+ */
+public final class CachedResponse {
+
+    private final int status;
+    private final String contentType;
+    private final String[] headers;   // nom, valeur, nom, valeur...
+    private final byte[] body;
+    private final byte[] gzipBody;    // Forme gzip précalculée, null si absente
+    private final long expiresAt;     // ms (System.currentTimeMillis)
+
+    public CachedResponse(int status, String contentType, String[] headers, byte[] body, long expiresAt) {
+        this(status, contentType, headers, body, null, expiresAt);
+    }
+
+    private CachedResponse(int status, String contentType, String[] headers, byte[] body, byte[] gzipBody,
+                           long expiresAt) {
+        this.status = status;
+        this.contentType = contentType;
+        this.headers = headers;
+        this.body = body;
+        this.gzipBody = gzipBody;
+        this.expiresAt = expiresAt;
+    }
+
+    /**
+     * Même réponse avec sa forme gzip, compressée une fois pour tous les succès suivants
+     */
+    public CachedResponse withGzip(byte[] gzipBody) {
+        return new CachedResponse(status, contentType, headers, body, gzipBody, expiresAt);
+    }
+
+    public boolean isExpired(long now) {
+        return now >= expiresAt;
+    }
+
+    /**
+     * Place occupée en mémoire (corps et en-têtes, approximation)
+     */
+    public long weight() {
+        long weight = 64 + body.length + (gzipBody != null ? gzipBody.length : 0);
+        for (String header : headers) {
+            weight += 40 + 2L * header.length();
+        }
+        if (contentType != null) {
+            weight += 2L * contentType.length();
+        }
+        return weight;
+    }
+
+    public void writeTo(HttpServletResponse res) throws IOException {
+        writeHeadersTo(res);
+        res.setContentLength(body.length);
+        res.getOutputStream().write(body);
+    }
+
+    /**
+     * Statut, type et en-têtes seulement (corps écrit par l'appelant, ex: forme compressée)
+     */
+    public void writeHeadersTo(HttpServletResponse res) {
+        res.setStatus(status);
+        if (contentType != null) {
+            res.setContentType(contentType);
+        }
+        for (int i = 0; i < headers.length; i += 2) {
+            res.addHeader(headers[i], headers[i + 1]);
+        }
+    }
+
+    /**
+     * Première valeur de l'en-tête, null si absent
+     */
+    public String getHeader(String name) {
+        for (int i = 0; i < headers.length; i += 2) {
+            if (headers[i].equalsIgnoreCase(name)) {
+                return headers[i + 1];
+            }
+        }
+        return null;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public byte[] getBody() {
+        return body;
+    }
+
+    public byte[] getGzipBody() {
+        return gzipBody;
+    }
+
+    public long getExpiresAt() {
+        return expiresAt;
+    }
+}
@@ -0,0 +1,230 @@
+package cache;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.Charset;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+/**
+ * Réponse qui écrit normalement vers le client tout en gardant une copie des octets
+ * et des en-têtes pour le cache. La copie est abandonnée au-delà de limit octets,
+ * ou si le rendu passe par sendError/sendRedirect.
+ */
+public class CapturingResponse extends HttpServletResponseWrapper {
+
+    private static final DateTimeFormatter HTTP_DATE = DateTimeFormatter.RFC_1123_DATE_TIME.withZone(ZoneOffset.UTC);
+
+    private final long limit;
+    private final ByteArrayOutputStream copy = new ByteArrayOutputStream(1024);
+    private final List<String> headers = new ArrayList<>();   // nom, valeur, nom, valeur...
+    private int status = SC_OK;
+    private String contentType;
+    private boolean cacheable = true;
+    private ServletOutputStream outputStream;
+    private PrintWriter writer;
+
+    public CapturingResponse(HttpServletResponse response, long limit) {
+        super(response);
+        this.limit = limit;
+    }
+
+    /**
+     * Vide le writer et retourne la réponse figée, null si elle ne peut pas être mise en cache
+     */
+    public CachedResponse finish(long expiresAt) {
+        if (writer != null) {
+            writer.flush();
+        }
+        if (!cacheable || status != SC_OK) {
+            return null;
+        }
+        return new CachedResponse(status, contentType, headers.toArray(new String[0]), copy.toByteArray(), expiresAt);
+    }
+
+    private void capture(byte[] b, int off, int len) {
+        if (!cacheable) return;
+        if (copy.size() + len > limit) {
+            cacheable = false;
+            copy.reset();
+            return;
+        }
+        copy.write(b, off, len);
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+        if (outputStream == null) {
+            ServletOutputStream target = super.getOutputStream();
+            outputStream = new ServletOutputStream() {
+                private final byte[] single = new byte[1];
+
+                @Override
+                public void write(int b) throws IOException {
+                    target.write(b);
+                    single[0] = (byte) b;
+                    capture(single, 0, 1);
+                }
+
+                @Override
+                public void write(byte[] b, int off, int len) throws IOException {
+                    target.write(b, off, len);
+                    capture(b, off, len);
+                }
+
+                @Override
+                public void flush() throws IOException {
+                    target.flush();
+                }
+
+                @Override
+                public boolean isReady() {
+                    return target.isReady();
+                }
+
+                @Override
+                public void setWriteListener(WriteListener listener) {
+                    target.setWriteListener(listener);
+                }
+            };
+        }
+        return outputStream;
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+        if (writer == null) {
+            // Même encodage que le writer du conteneur
+            Charset charset = Charset.forName(getCharacterEncoding());
+            writer = new PrintWriter(new OutputStreamWriter(getOutputStream(), charset));
+        }
+        return writer;
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+        if (writer != null) {
+            writer.flush();
+        }
+        super.flushBuffer();
+    }
+
+    @Override
+    public void resetBuffer() {
+        super.resetBuffer();
+        copy.reset();
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        copy.reset();
+        headers.clear();
+        status = SC_OK;
+        contentType = null;
+    }
+
+    @Override
+    public void setStatus(int sc) {
+        super.setStatus(sc);
+        status = sc;
+    }
+
+    @Override
+    public void sendError(int sc, String msg) throws IOException {
+        cacheable = false;
+        super.sendError(sc, msg);
+    }
+
+    @Override
+    public void sendError(int sc) throws IOException {
+        cacheable = false;
+        super.sendError(sc);
+    }
+
+    @Override
+    public void sendRedirect(String location) throws IOException {
+        cacheable = false;
+        super.sendRedirect(location);
+    }
+
+    @Override
+    public void addCookie(Cookie cookie) {
+        cacheable = false;
+        super.addCookie(cookie);
+    }
+
+    @Override
+    public void setContentType(String type) {
+        super.setContentType(type);
+        contentType = type;
+    }
+
+    @Override
+    public void setHeader(String name, String value) {
+        super.setHeader(name, value);
+        if (!record(name)) return;
+        removeHeader(name);
+        if (value != null) {
+            headers.add(name);
+            headers.add(value);
+        }
+    }
+
+    @Override
+    public void addHeader(String name, String value) {
+        super.addHeader(name, value);
+        if (!record(name)) return;
+        headers.add(name);
+        headers.add(value);
+    }
+
+    @Override
+    public void setDateHeader(String name, long date) {
+        setHeader(name, HTTP_DATE.format(Instant.ofEpochMilli(date)));
+    }
+
+    @Override
+    public void addDateHeader(String name, long date) {
+        addHeader(name, HTTP_DATE.format(Instant.ofEpochMilli(date)));
+    }
+
+    @Override
+    public void setIntHeader(String name, int value) {
+        setHeader(name, String.valueOf(value));
+    }
+
+    @Override
+    public void addIntHeader(String name, int value) {
+        addHeader(name, String.valueOf(value));
+    }
+
+    // Content-Length est recalculé au rejeu; un cookie n'est jamais partagé entre clients
+    private boolean record(String name) {
+        if ("Set-Cookie".equalsIgnoreCase(name)) {
+            cacheable = false;
+            return false;
+        }
+        return !"Content-Length".equalsIgnoreCase(name);
+    }
+
+    private void removeHeader(String name) {
+        for (int i = headers.size() - 2; i >= 0; i -= 2) {
+            if (headers.get(i).equalsIgnoreCase(name)) {
+                headers.remove(i + 1);
+                headers.remove(i);
+            }
+        }
+    }
+}
@@ -0,0 +1,305 @@
+package cache;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+import url.RouteMatch;
+
+/**
+ * Cache des réponses d'un handler @Cached: LRU segmenté, borné en entrées et en octets.
+ *
+ * Une nouvelle entrée arrive en période d'essai; un second accès la promeut dans le segment
+ * protégé (80% de la capacité), dont l'entrée la plus ancienne redescend en essai.
+ * Les évictions prennent d'abord en essai: un balayage de clés vues une seule fois
+ * n'évince pas les réponses réellement réutilisées.
+ *
+ * La lecture passe par la ConcurrentHashMap; le réordonnancement des listes se fait sous
+ * verrou, abandonné si le verrou est pris (approximation, comme le bit de RouteCache).
+ */
+public final class ResponseCache {
+
+    private static final double PROTECTED_RATIO = 0.8;
+
+    private final long ttlMillis;
+    private final String[] keyNames;
+    private final int maxEntries;
+    private final long maxBytes;
+    private final int maxProtectedEntries;
+    private final long maxProtectedBytes;
+
+    private final ConcurrentHashMap<String, Node> nodes = new ConcurrentHashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    // Listes circulaires à sentinelle, tête = plus récent (protégées par lock)
+    private final Node probation = Node.sentinel();
+    private final Node protectedSegment = Node.sentinel();
+    private int count;
+    private int protectedCount;
+    private long protectedBytes;
+    private volatile long bytes;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    /**
+     * @param ttlMillis durée de vie d'une entrée
+     * @param keyNames variables de chemin ou paramètres de la clé (vide = chemin et query string)
+     */
+    public ResponseCache(long ttlMillis, String[] keyNames, int maxEntries, long maxBytes) {
+        this.ttlMillis = ttlMillis;
+        this.keyNames = keyNames.clone();
+        this.maxEntries = Math.max(1, maxEntries);
+        this.maxBytes = Math.max(1, maxBytes);
+        this.maxProtectedEntries = (int) (this.maxEntries * PROTECTED_RATIO);
+        this.maxProtectedBytes = (long) (this.maxBytes * PROTECTED_RATIO);
+    }
+
+    /**
+     * Clé de la requête: valeurs des noms déclarés (variable de chemin, sinon paramètre),
+     * suivies de la variante de rendu (ex: ndjson) si elle existe
+     */
+    public String keyFor(HttpServletRequest req, RouteMatch match, String variant) {
+        StringBuilder key = new StringBuilder(64);
+        if (keyNames.length == 0) {
+            key.append(match.getPath());
+            String query = req.getQueryString();
+            if (query != null) {
+                key.append('?').append(query);
+            }
+        } else {
+            for (String name : keyNames) {
+                String value = match.getVariable(name);
+                if (value == null) {
+                    value = req.getParameter(name);
+                }
+                // Absent et vide restent distincts
+                key.append(value == null ? "\u0000" : value).append('\u001f');
+            }
+        }
+        if (variant != null) {
+            key.append('\u001e').append(variant);
+        }
+        return key.toString();
+    }
+
+    /**
+     * Réponse encore valide pour la clé, null sinon
+     */
+    public CachedResponse get(String key) {
+        Node node = nodes.get(key);
+        if (node == null) {
+            misses.increment();
+            return null;
+        }
+        if (node.response.isExpired(System.currentTimeMillis())) {
+            misses.increment();
+            expirations.increment();
+            lock.lock();
+            try {
+                remove(node);
+            } finally {
+                lock.unlock();
+            }
+            return null;
+        }
+        hits.increment();
+        if (lock.tryLock()) {
+            try {
+                promote(node);
+            } finally {
+                lock.unlock();
+            }
+        }
+        return node.response;
+    }
+
+    /**
+     * Nouvelle réponse pour la clé; ignorée si elle dépasse getMaxEntryBytes()
+     */
+    public void put(String key, CachedResponse response) {
+        long weight = response.weight();
+        if (weight > getMaxEntryBytes()) {
+            rejected.increment();
+            return;
+        }
+        Node node = new Node(key, response, weight);
+        lock.lock();
+        try {
+            Node previous = nodes.get(key);
+            if (previous != null) {
+                remove(previous);
+            }
+            nodes.put(key, node);
+            linkFirst(probation, node);
+            count++;
+            bytes += weight;
+            while (count > maxEntries || bytes > maxBytes) {
+                Node victim = (probation.prev != probation) ? probation.prev : protectedSegment.prev;
+                if (victim == protectedSegment) break;
+                remove(victim);
+                evictions.increment();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Expiration d'une réponse précise (donnée modifiée)
+     */
+    public void invalidate(String key) {
+        lock.lock();
+        try {
+            Node node = nodes.get(key);
+            if (node != null) {
+                remove(node);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void clear() {
+        lock.lock();
+        try {
+            for (Node node : nodes.values()) {
+                remove(node);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void promote(Node node) {
+        if (node.removed) return;
+        if (node.isProtected) {
+            unlink(node);
+            linkFirst(protectedSegment, node);
+            return;
+        }
+        unlink(node);
+        node.isProtected = true;
+        linkFirst(protectedSegment, node);
+        protectedCount++;
+        protectedBytes += node.weight;
+        // Segment protégé plein: ses plus anciennes entrées retournent en essai
+        while ((protectedCount > maxProtectedEntries || protectedBytes > maxProtectedBytes)
+                && protectedSegment.prev != node) {
+            Node demoted = protectedSegment.prev;
+            unlink(demoted);
+            demoted.isProtected = false;
+            linkFirst(probation, demoted);
+            protectedCount--;
+            protectedBytes -= demoted.weight;
+        }
+    }
+
+    private void remove(Node node) {
+        if (node.removed) return;
+        node.removed = true;
+        unlink(node);
+        if (node.isProtected) {
+            protectedCount--;
+            protectedBytes -= node.weight;
+        }
+        nodes.remove(node.key, node);
+        count--;
+        bytes -= node.weight;
+    }
+
+    private static void linkFirst(Node head, Node node) {
+        node.prev = head;
+        node.next = head.next;
+        head.next.prev = node;
+        head.next = node;
+    }
+
+    private static void unlink(Node node) {
+        if (node.prev != null) {
+            node.prev.next = node.next;
+            node.next.prev = node.prev;
+            node.prev = null;
+            node.next = null;
+        }
+    }
+
+    public long getTtlMillis() {
+        return ttlMillis;
+    }
+
+    /**
+     * Taille maximale d'une réponse (au-delà, elle n'est pas mise en cache)
+     */
+    public long getMaxEntryBytes() {
+        return maxBytes / 4;
+    }
+
+    // Statistiques
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    public long getExpirations() {
+        return expirations.sum();
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    public int size() {
+        return nodes.size();
+    }
+
+    public long getBytes() {
+        return bytes;
+    }
+
+    public double getHitRatio() {
+        long hit = hits.sum();
+        long total = hit + misses.sum();
+        return (total == 0) ? 0 : (double) hit / total;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ResponseCache[%d entrées, %d octets, %d succès, %d échecs, %d évictions]",
+            size(), bytes, getHits(), getMisses(), getEvictions());
+    }
+
+    private static final class Node {
+        final String key;
+        final CachedResponse response;
+        final long weight;
+        boolean isProtected;
+        boolean removed;
+        Node prev;
+        Node next;
+
+        Node(String key, CachedResponse response, long weight) {
+            this.key = key;
+            this.response = response;
+            this.weight = weight;
+        }
+
+        static Node sentinel() {
+            Node node = new Node(null, null, 0);
+            node.prev = node;
+            node.next = node;
+            return node;
+        }
+    }
+}
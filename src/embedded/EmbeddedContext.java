@@ -0,0 +1,241 @@
+package embedded;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import jakarta.servlet.RequestDispatcher;
+import jakarta.servlet.ServletConfig;
+import jakarta.servlet.ServletContext;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import log.Logger;
+
+/**
+ * ServletContext du mode embarqué.
+ *
+ * /WEB-INF/classes pointe vers le dossier des contrôleurs, les ressources sont cherchées sous
+ * webRoot, et le dispatcher "default" sert les fichiers statiques (Last-Modified, 304) comme le
+ * servlet par défaut d'un conteneur. Les vues JSP ne sont pas compilées: seul un forward vers
+ * un fichier statique (HTML) fonctionne.
+ */
+final class EmbeddedContext implements InvocationHandler {
+
+    private static final Logger LOG = Logger.getLogger(EmbeddedContext.class);
+
+    private final String contextPath;
+    private final File classesDir;
+    private final File webRoot;
+    private final Map<String, String> initParameters;
+    private final Map<String, Object> attributes = new ConcurrentHashMap<>();
+
+    private EmbeddedContext(String contextPath, File classesDir, File webRoot, Map<String, String> initParameters) {
+        this.contextPath = contextPath;
+        this.classesDir = classesDir;
+        this.webRoot = webRoot;
+        this.initParameters = initParameters;
+
+        // Dossier temporaire stable: l'instantané des routes survit au redémarrage (scan incrémental)
+        File tempDir = new File(System.getProperty("java.io.tmpdir"),
+            "framework-embedded-" + Integer.toHexString(classesDir.getAbsolutePath().hashCode()));
+        if (tempDir.isDirectory() || tempDir.mkdirs()) {
+            attributes.put(ServletContext.TEMPDIR, tempDir);
+        }
+    }
+
+    static ServletContext create(String contextPath, File classesDir, File webRoot, Map<String, String> initParameters) {
+        return (ServletContext) Proxy.newProxyInstance(EmbeddedContext.class.getClassLoader(),
+            new Class<?>[] {ServletContext.class},
+            new EmbeddedContext(contextPath, classesDir, webRoot, new HashMap<>(initParameters)));
+    }
+
+    /**
+     * Configuration du FrontServlet: les paramètres d'init sont ceux passés au serveur
+     */
+    static ServletConfig config(ServletContext context, Map<String, String> initParameters) {
+        Map<String, String> parameters = new HashMap<>(initParameters);
+        return new ServletConfig() {
+            @Override
+            public String getServletName() {
+                return "FrontServlet";
+            }
+
+            @Override
+            public ServletContext getServletContext() {
+                return context;
+            }
+
+            @Override
+            public String getInitParameter(String name) {
+                return parameters.get(name);
+            }
+
+            @Override
+            public Enumeration<String> getInitParameterNames() {
+                return Collections.enumeration(parameters.keySet());
+            }
+        };
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        switch (method.getName()) {
+            case "getContextPath":
+                return contextPath;
+            case "getServletContextName":
+                return "embedded";
+            case "getServerInfo":
+                return "framework-embedded";
+            case "getRealPath":
+                return realPath((String) args[0]);
+            case "getResource":
+                File file = file((String) args[0]);
+                return (file != null) ? file.toURI().toURL() : null;
+            case "getResourceAsStream":
+                File stream = file((String) args[0]);
+                return (stream != null) ? Files.newInputStream(stream.toPath()) : null;
+            case "getNamedDispatcher":
+                return "default".equals(args[0]) ? fileDispatcher(null) : null;
+            case "getRequestDispatcher":
+                return fileDispatcher((String) args[0]);
+            case "getAttribute":
+                return attributes.get((String) args[0]);
+            case "setAttribute":
+                if (args[1] == null) attributes.remove((String) args[0]);
+                else attributes.put((String) args[0], args[1]);
+                return null;
+            case "removeAttribute":
+                attributes.remove((String) args[0]);
+                return null;
+            case "getAttributeNames":
+                return Collections.enumeration(attributes.keySet());
+            case "getInitParameter":
+                return initParameters.get((String) args[0]);
+            case "getInitParameterNames":
+                return Collections.enumeration(initParameters.keySet());
+            case "getMimeType":
+                return mimeType((String) args[0]);
+            case "log":
+                if (args.length > 1 && args[1] instanceof Throwable) {
+                    LOG.error("[Embedded] {}", args[0], (Throwable) args[1]);
+                } else {
+                    LOG.info("[Embedded] {}", args[0]);
+                }
+                return null;
+            case "getMajorVersion":
+            case "getEffectiveMajorVersion":
+                return 6;
+            case "getMinorVersion":
+            case "getEffectiveMinorVersion":
+                return 0;
+            case "getClassLoader":
+                return Thread.currentThread().getContextClassLoader();
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            case "equals":
+                return proxy == args[0];
+            case "toString":
+                return "EmbeddedContext(" + contextPath + ")";
+            default:
+                throw new UnsupportedOperationException("Non supporté en mode embarqué: " + method.getName());
+        }
+    }
+
+    private String realPath(String path) {
+        if ("/WEB-INF/classes".equals(path)) {
+            return classesDir.getAbsolutePath();
+        }
+        if (webRoot == null) {
+            return null;
+        }
+        File file = new File(webRoot, path);
+        return file.exists() ? file.getAbsolutePath() : null;
+    }
+
+    // Fichier du webRoot, jamais en dehors ni sous WEB-INF
+    private File file(String path) throws IOException {
+        if (webRoot == null || path == null || path.isEmpty() || "/".equals(path)) {
+            return null;
+        }
+        File file = new File(webRoot, path).getCanonicalFile();
+        String root = webRoot.getCanonicalPath() + File.separator;
+        if (!file.getPath().startsWith(root) || file.getPath().startsWith(root + "WEB-INF")) {
+            return null;
+        }
+        return file.isFile() ? file : null;
+    }
+
+    private static String mimeType(String name) {
+        String type = URLConnection.guessContentTypeFromName(name);
+        if (type == null) {
+            if (name.endsWith(".css")) return "text/css";
+            if (name.endsWith(".js")) return "application/javascript";
+            if (name.endsWith(".json")) return "application/json";
+            if (name.endsWith(".svg")) return "image/svg+xml";
+        }
+        return type;
+    }
+
+    /**
+     * Sert un fichier du webRoot: view = null pour le chemin de la requête (servlet par défaut),
+     * sinon la vue d'un forward. Une vue JSP ne peut pas être rendue sans conteneur.
+     */
+    private RequestDispatcher fileDispatcher(String view) {
+        return new RequestDispatcher() {
+            @Override
+            public void forward(ServletRequest request, ServletResponse response) throws IOException {
+                HttpServletRequest req = (HttpServletRequest) request;
+                HttpServletResponse res = (HttpServletResponse) response;
+                String path = (view != null) ? view : req.getRequestURI().substring(req.getContextPath().length());
+                if (path.endsWith(".jsp")) {
+                    res.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR, "Vue JSP non supportée en mode embarqué: " + path);
+                    return;
+                }
+                File file = file(path);
+                if (file == null) {
+                    res.sendError(HttpServletResponse.SC_NOT_FOUND);
+                    return;
+                }
+                long lastModified = file.lastModified() / 1000 * 1000;
+                if (view == null) {
+                    long since = req.getDateHeader("If-Modified-Since");
+                    if (since >= lastModified) {
+                        res.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+                        return;
+                    }
+                    res.setDateHeader("Last-Modified", lastModified);
+                }
+                String type = mimeType(file.getName());
+                res.setContentType(type != null ? type : "application/octet-stream");
+                res.setContentLengthLong(file.length());
+                if ("HEAD".equals(req.getMethod())) {
+                    return;
+                }
+                try (InputStream in = Files.newInputStream(file.toPath())) {
+                    OutputStream out = res.getOutputStream();
+                    in.transferTo(out);
+                }
+            }
+
+            @Override
+            public void include(ServletRequest request, ServletResponse response) throws IOException {
+                forward(request, response);
+            }
+        };
+    }
+}
@@ -0,0 +1,261 @@
+package embedded;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.net.InetSocketAddress;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import jakarta.servlet.ServletContext;
+
+import front.FrontServlet;
+import log.Logger;
+
+/**
+ * Serveur HTTP embarqué: les routes du FrontServlet servies par le serveur HTTP du JDK
+ * (com.sun.net.httpserver), sans conteneur de servlets.
+ *
+ * Chaque requête s'exécute sur son propre thread virtuel (JDK 21+, pool de threads sinon)
+ * et passe par FrontServlet.service: routage, liaison des paramètres, cache, ETag et compression
+ * sont ceux du déploiement en conteneur. Démarrage en quelques centaines de millisecondes,
+ * utilisable depuis un main, un test ou un benchmark:
+ *
+ *   EmbeddedServer server = new EmbeddedServer(0, "", classesDir, webRoot, Map.of());
+ *   server.start();
+ *   ... http://localhost:server.getPort()/...
+ *   server.stop();
+ */
+public final class EmbeddedServer {
+
+    private static final Logger LOG = Logger.getLogger(EmbeddedServer.class);
+
+    private final int port;
+    private final String contextPath;
+    private final File classesDir;
+    private final File webRoot;
+    private final Map<String, String> initParameters;
+    private int backlog = 0;             // 0 = valeur par défaut du système
+    private int bufferSize = 8192;
+
+    private HttpServer server;
+    private ExecutorService executor;
+    private FrontServlet servlet;
+    private ServletContext context;
+
+    /**
+     * @param port port d'écoute (0 = port libre, voir getPort())
+     * @param contextPath "" ou "/app"
+     * @param classesDir dossier des classes des contrôleurs (équivalent de /WEB-INF/classes)
+     * @param webRoot dossier des ressources statiques (null = aucune)
+     * @param initParameters paramètres d'init du FrontServlet (framework.*)
+     */
+    public EmbeddedServer(int port, String contextPath, File classesDir, File webRoot, Map<String, String> initParameters) {
+        this.port = port;
+        this.contextPath = normalizeContextPath(contextPath);
+        this.classesDir = classesDir;
+        this.webRoot = webRoot;
+        this.initParameters = new LinkedHashMap<>(initParameters);
+    }
+
+    public EmbeddedServer setBacklog(int backlog) {
+        this.backlog = backlog;
+        return this;
+    }
+
+    /**
+     * Taille du tampon de réponse: une réponse plus petite part avec son Content-Length
+     */
+    public EmbeddedServer setBufferSize(int bufferSize) {
+        this.bufferSize = bufferSize;
+        return this;
+    }
+
+    public synchronized void start() throws IOException {
+        if (server != null) {
+            throw new IllegalStateException("Serveur déjà démarré");
+        }
+        long start = System.nanoTime();
+
+        context = EmbeddedContext.create(contextPath, classesDir, webRoot, initParameters);
+        servlet = new FrontServlet();
+        try {
+            servlet.init(EmbeddedContext.config(context, initParameters));
+        } catch (Exception e) {
+            throw new IOException("Initialisation du FrontServlet impossible", e);
+        }
+
+        server = HttpServer.create(new InetSocketAddress(port), backlog);
+        server.createContext(contextPath.isEmpty() ? "/" : contextPath, this::handle);
+        executor = newExecutor();
+        server.setExecutor(executor);
+        server.start();
+
+        LOG.info("[Embedded] http://localhost:{}{}/ démarré en {} ms ({})", getPort(), contextPath,
+            (System.nanoTime() - start) / 1_000_000, usesVirtualThreads() ? "threads virtuels" : "pool de threads");
+    }
+
+    /**
+     * Arrêt: les requêtes en cours ont jusqu'à delaySeconds pour se terminer
+     */
+    public synchronized void stop(int delaySeconds) {
+        if (server == null) {
+            return;
+        }
+        server.stop(delaySeconds);
+        executor.shutdown();
+        try {
+            executor.awaitTermination(Math.max(1, delaySeconds), TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        servlet.destroy();
+        server = null;
+        LOG.info("[Embedded] Serveur arrêté");
+    }
+
+    public void stop() {
+        stop(1);
+    }
+
+    /**
+     * Port réellement ouvert (utile avec le port 0)
+     */
+    public int getPort() {
+        return (server != null) ? server.getAddress().getPort() : port;
+    }
+
+    public String getContextPath() {
+        return contextPath;
+    }
+
+    public ServletContext getServletContext() {
+        return context;
+    }
+
+    private void handle(HttpExchange exchange) {
+        ExchangeResponse res = new ExchangeResponse(exchange, bufferSize);
+        try {
+            servlet.service(new ExchangeRequest(exchange, context, contextPath), res);
+            res.finish();
+        } catch (Throwable e) {
+            LOG.error("[Embedded] Erreur sur {} {}", exchange.getRequestMethod(), exchange.getRequestURI(), e);
+            if (!res.isCommitted()) {
+                try {
+                    res.reset();
+                    res.sendError(500, e.getClass().getSimpleName());
+                    res.finish();
+                } catch (IOException | RuntimeException ignored) {
+                    // Client parti: rien à envoyer
+                }
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * Un thread virtuel par requête si le JDK le permet (appel par réflexion: le framework compile en 17)
+     */
+    private static ExecutorService newExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            AtomicInteger counter = new AtomicInteger();
+            return Executors.newCachedThreadPool(task -> {
+                Thread thread = new Thread(task, "framework-http-" + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    private boolean usesVirtualThreads() {
+        return !executor.getClass().getName().startsWith("java.util.concurrent.ThreadPoolExecutor");
+    }
+
+    private static String normalizeContextPath(String contextPath) {
+        if (contextPath == null || contextPath.isEmpty() || "/".equals(contextPath)) {
+            return "";
+        }
+        String path = contextPath.startsWith("/") ? contextPath : "/" + contextPath;
+        return path.endsWith("/") ? path.substring(0, path.length() - 1) : path;
+    }
+
+    /**
+     * java -cp Framework.jar;servlet-api.jar;classes embedded.EmbeddedServer
+     *      [--port 8080] [--context /app] [--classes dossier] [--webroot dossier] [--param nom=valeur]...
+     *
+     * Sans --classes, le premier dossier du classpath est scanné.
+     */
+    public static void main(String[] args) throws IOException {
+        int port = 8080;
+        String contextPath = "";
+        File classesDir = null;
+        File webRoot = null;
+        Map<String, String> parameters = new LinkedHashMap<>();
+
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            String value = (i + 1 < args.length) ? args[i + 1] : null;
+            if (value == null && arg.startsWith("--")) {
+                usage("Valeur manquante pour " + arg);
+            }
+            switch (arg) {
+                case "--port":
+                    port = Integer.parseInt(value);
+                    break;
+                case "--context":
+                    contextPath = value;
+                    break;
+                case "--classes":
+                    classesDir = new File(value);
+                    break;
+                case "--webroot":
+                    webRoot = new File(value);
+                    break;
+                case "--param":
+                    int equals = value.indexOf('=');
+                    if (equals <= 0) usage("Paramètre invalide: " + value);
+                    parameters.put(value.substring(0, equals), value.substring(equals + 1));
+                    break;
+                default:
+                    usage("Option inconnue: " + arg);
+            }
+            i++;
+        }
+        if (classesDir == null) {
+            classesDir = firstClasspathDirectory();
+            if (classesDir == null) usage("Aucun dossier de classes dans le classpath: utiliser --classes");
+        }
+
+        EmbeddedServer server = new EmbeddedServer(port, contextPath, classesDir, webRoot, parameters);
+        Runtime.getRuntime().addShutdownHook(new Thread(server::stop, "framework-http-shutdown"));
+        server.start();
+    }
+
+    private static File firstClasspathDirectory() {
+        for (String entry : System.getProperty("java.class.path", "").split(File.pathSeparator)) {
+            File file = new File(entry);
+            if (file.isDirectory()) {
+                return file;
+            }
+        }
+        return null;
+    }
+
+    private static void usage(String error) {
+        System.err.println(error);
+        System.err.println("Usage: embedded.EmbeddedServer [--port 8080] [--context /app] [--classes dossier]"
+            + " [--webroot dossier] [--param nom=valeur]...");
+        System.exit(2);
+    }
+}
@@ -0,0 +1,426 @@
+package embedded;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.lang.reflect.Proxy;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import com.sun.net.httpserver.HttpExchange;
+
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletContext;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+
+/**
+ * HttpServletRequest au-dessus d'un HttpExchange du serveur HTTP du JDK.
+ *
+ * Seul ce dont le framework et les contrôleurs ont besoin est implémenté (chemin, paramètres
+ * de la query string et des formulaires urlencoded, en-têtes, corps, attributs);
+ * le reste (sessions, asynchrone...) lève UnsupportedOperationException.
+ */
+class ExchangeRequest extends HttpServletRequestWrapper {
+
+    private static final HttpServletRequest UNSUPPORTED = (HttpServletRequest) Proxy.newProxyInstance(
+        ExchangeRequest.class.getClassLoader(), new Class<?>[] {HttpServletRequest.class},
+        (proxy, method, args) -> {
+            throw new UnsupportedOperationException("Non supporté en mode embarqué: " + method.getName());
+        });
+
+    private final HttpExchange exchange;
+    private final ServletContext servletContext;
+    private final String contextPath;
+    private final Map<String, Object> attributes = new HashMap<>();
+    private Map<String, String[]> parameters;
+    private String characterEncoding;
+    private ServletInputStream inputStream;
+    private BufferedReader reader;
+
+    ExchangeRequest(HttpExchange exchange, ServletContext servletContext, String contextPath) {
+        super(UNSUPPORTED);
+        this.exchange = exchange;
+        this.servletContext = servletContext;
+        this.contextPath = contextPath;
+        this.characterEncoding = charsetOf(getContentType());
+    }
+
+    @Override
+    public String getMethod() {
+        return exchange.getRequestMethod();
+    }
+
+    @Override
+    public String getRequestURI() {
+        return exchange.getRequestURI().getRawPath();
+    }
+
+    @Override
+    public StringBuffer getRequestURL() {
+        return new StringBuffer(getScheme()).append("://").append(getHeader("Host")).append(getRequestURI());
+    }
+
+    @Override
+    public String getContextPath() {
+        return contextPath;
+    }
+
+    @Override
+    public String getServletPath() {
+        return getRequestURI().substring(contextPath.length());
+    }
+
+    @Override
+    public String getPathInfo() {
+        return null;
+    }
+
+    @Override
+    public String getQueryString() {
+        return exchange.getRequestURI().getRawQuery();
+    }
+
+    @Override
+    public DispatcherType getDispatcherType() {
+        return DispatcherType.REQUEST;
+    }
+
+    @Override
+    public ServletContext getServletContext() {
+        return servletContext;
+    }
+
+    // Paramètres
+
+    @Override
+    public String getParameter(String name) {
+        String[] values = parameters().get(name);
+        return (values != null && values.length > 0) ? values[0] : null;
+    }
+
+    @Override
+    public String[] getParameterValues(String name) {
+        return parameters().get(name);
+    }
+
+    @Override
+    public Map<String, String[]> getParameterMap() {
+        return Collections.unmodifiableMap(parameters());
+    }
+
+    @Override
+    public Enumeration<String> getParameterNames() {
+        return Collections.enumeration(parameters().keySet());
+    }
+
+    // Query string, puis corps d'un formulaire urlencoded (lu au premier accès, comme un conteneur)
+    private Map<String, String[]> parameters() {
+        if (parameters == null) {
+            Map<String, List<String>> values = new LinkedHashMap<>();
+            Charset charset = charset();
+            parse(exchange.getRequestURI().getRawQuery(), charset, values);
+            String contentType = getContentType();
+            if (contentType != null && contentType.toLowerCase(Locale.ROOT).startsWith("application/x-www-form-urlencoded")
+                    && inputStream == null && reader == null) {
+                try {
+                    parse(new String(exchange.getRequestBody().readAllBytes(), charset), charset, values);
+                } catch (IOException e) {
+                    throw new IllegalStateException("Lecture du formulaire impossible", e);
+                }
+            }
+            parameters = new LinkedHashMap<>();
+            values.forEach((name, list) -> parameters.put(name, list.toArray(new String[0])));
+        }
+        return parameters;
+    }
+
+    private static void parse(String encoded, Charset charset, Map<String, List<String>> values) {
+        if (encoded == null || encoded.isEmpty()) {
+            return;
+        }
+        for (String pair : encoded.split("&")) {
+            if (pair.isEmpty()) continue;
+            int equals = pair.indexOf('=');
+            String name = URLDecoder.decode(equals < 0 ? pair : pair.substring(0, equals), charset);
+            String value = (equals < 0) ? "" : URLDecoder.decode(pair.substring(equals + 1), charset);
+            values.computeIfAbsent(name, key -> new ArrayList<>(1)).add(value);
+        }
+    }
+
+    // En-têtes
+
+    @Override
+    public String getHeader(String name) {
+        return exchange.getRequestHeaders().getFirst(name);
+    }
+
+    @Override
+    public Enumeration<String> getHeaders(String name) {
+        List<String> values = exchange.getRequestHeaders().get(name);
+        return Collections.enumeration(values != null ? values : Collections.emptyList());
+    }
+
+    @Override
+    public Enumeration<String> getHeaderNames() {
+        return Collections.enumeration(exchange.getRequestHeaders().keySet());
+    }
+
+    @Override
+    public long getDateHeader(String name) {
+        String value = getHeader(name);
+        if (value == null) {
+            return -1;
+        }
+        try {
+            return ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli();
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Date invalide dans " + name + ": " + value);
+        }
+    }
+
+    @Override
+    public int getIntHeader(String name) {
+        String value = getHeader(name);
+        return (value != null) ? Integer.parseInt(value.trim()) : -1;
+    }
+
+    @Override
+    public Cookie[] getCookies() {
+        List<String> headers = exchange.getRequestHeaders().get("Cookie");
+        if (headers == null) {
+            return null;
+        }
+        List<Cookie> cookies = new ArrayList<>();
+        for (String header : headers) {
+            for (String pair : header.split(";")) {
+                int equals = pair.indexOf('=');
+                if (equals > 0) {
+                    cookies.add(new Cookie(pair.substring(0, equals).trim(), pair.substring(equals + 1).trim()));
+                }
+            }
+        }
+        return cookies.toArray(new Cookie[0]);
+    }
+
+    // Corps
+
+    @Override
+    public String getContentType() {
+        return getHeader("Content-Type");
+    }
+
+    @Override
+    public int getContentLength() {
+        long length = getContentLengthLong();
+        return (length > Integer.MAX_VALUE) ? -1 : (int) length;
+    }
+
+    @Override
+    public long getContentLengthLong() {
+        String value = getHeader("Content-Length");
+        return (value != null) ? Long.parseLong(value.trim()) : -1;
+    }
+
+    @Override
+    public String getCharacterEncoding() {
+        return characterEncoding;
+    }
+
+    @Override
+    public void setCharacterEncoding(String encoding) {
+        if (parameters == null && reader == null) {
+            this.characterEncoding = encoding;
+        }
+    }
+
+    private Charset charset() {
+        return (characterEncoding != null) ? Charset.forName(characterEncoding) : StandardCharsets.UTF_8;
+    }
+
+    @Override
+    public ServletInputStream getInputStream() {
+        if (reader != null) {
+            throw new IllegalStateException("getReader() déjà appelé");
+        }
+        if (inputStream == null) {
+            InputStream body = exchange.getRequestBody();
+            inputStream = new ServletInputStream() {
+                private boolean finished;
+
+                @Override
+                public int read() throws IOException {
+                    int b = body.read();
+                    finished = b < 0;
+                    return b;
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) throws IOException {
+                    int n = body.read(b, off, len);
+                    finished = n < 0;
+                    return n;
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return finished;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    throw new IllegalStateException("Lecture non bloquante non supportée");
+                }
+            };
+        }
+        return inputStream;
+    }
+
+    @Override
+    public BufferedReader getReader() {
+        if (inputStream != null) {
+            throw new IllegalStateException("getInputStream() déjà appelé");
+        }
+        if (reader == null) {
+            reader = new BufferedReader(new InputStreamReader(exchange.getRequestBody(), charset()));
+        }
+        return reader;
+    }
+
+    // Attributs
+
+    @Override
+    public Object getAttribute(String name) {
+        return attributes.get(name);
+    }
+
+    @Override
+    public Enumeration<String> getAttributeNames() {
+        return Collections.enumeration(attributes.keySet());
+    }
+
+    @Override
+    public void setAttribute(String name, Object value) {
+        if (value == null) {
+            attributes.remove(name);
+        } else {
+            attributes.put(name, value);
+        }
+    }
+
+    @Override
+    public void removeAttribute(String name) {
+        attributes.remove(name);
+    }
+
+    // Connexion
+
+    @Override
+    public boolean isAsyncSupported() {
+        // Chaque requête a déjà son thread (virtuel si possible): les handlers @Async sont attendus sur place
+        return false;
+    }
+
+    @Override
+    public boolean isAsyncStarted() {
+        return false;
+    }
+
+    @Override
+    public String getProtocol() {
+        return exchange.getProtocol();
+    }
+
+    @Override
+    public String getScheme() {
+        return "http";
+    }
+
+    @Override
+    public boolean isSecure() {
+        return false;
+    }
+
+    @Override
+    public String getServerName() {
+        String host = getHeader("Host");
+        if (host == null) {
+            return exchange.getLocalAddress().getHostString();
+        }
+        int colon = host.lastIndexOf(':');
+        return (colon > 0 && host.indexOf(']') < colon) ? host.substring(0, colon) : host;
+    }
+
+    @Override
+    public int getServerPort() {
+        return exchange.getLocalAddress().getPort();
+    }
+
+    @Override
+    public int getLocalPort() {
+        return exchange.getLocalAddress().getPort();
+    }
+
+    @Override
+    public String getRemoteAddr() {
+        InetSocketAddress remote = exchange.getRemoteAddress();
+        return (remote.getAddress() != null) ? remote.getAddress().getHostAddress() : remote.getHostString();
+    }
+
+    @Override
+    public String getRemoteHost() {
+        return getRemoteAddr();
+    }
+
+    @Override
+    public int getRemotePort() {
+        return exchange.getRemoteAddress().getPort();
+    }
+
+    @Override
+    public Locale getLocale() {
+        String language = getHeader("Accept-Language");
+        if (language == null || language.isEmpty()) {
+            return Locale.getDefault();
+        }
+        int end = language.indexOf(',');
+        String first = (end < 0) ? language : language.substring(0, end);
+        int semicolon = first.indexOf(';');
+        return Locale.forLanguageTag((semicolon < 0 ? first : first.substring(0, semicolon)).trim());
+    }
+
+    static String charsetOf(String contentType) {
+        if (contentType == null) {
+            return null;
+        }
+        for (String parameter : contentType.split(";")) {
+            String value = parameter.trim();
+            if (value.regionMatches(true, 0, "charset=", 0, 8)) {
+                return value.substring(8).replace("\"", "").trim();
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,430 @@
+package embedded;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.lang.reflect.Proxy;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+/**
+ * HttpServletResponse au-dessus d'un HttpExchange.
+ *
+ * Le corps passe par un tampon (bufferSize): une réponse qui y tient part avec son
+ * Content-Length, une plus grande est envoyée en chunked dès que le tampon déborde
+ * ou au premier flush, comme dans un conteneur.
+ */
+class ExchangeResponse extends HttpServletResponseWrapper {
+
+    private static final HttpServletResponse UNSUPPORTED = (HttpServletResponse) Proxy.newProxyInstance(
+        ExchangeResponse.class.getClassLoader(), new Class<?>[] {HttpServletResponse.class},
+        (proxy, method, args) -> {
+            throw new UnsupportedOperationException("Non supporté en mode embarqué: " + method.getName());
+        });
+
+    private static final DateTimeFormatter HTTP_DATE = DateTimeFormatter.RFC_1123_DATE_TIME.withZone(ZoneOffset.UTC);
+
+    private final HttpExchange exchange;
+    private final Headers headers;
+    private final boolean head;
+    private int status = SC_OK;
+    private String contentType;
+    private String characterEncoding;
+    private long contentLength = -1;
+    private byte[] buffer;
+    private int count;
+    private OutputStream body;            // Non null une fois les en-têtes envoyés
+    private boolean bodyless;             // En-têtes envoyés sans corps: rien ne doit être écrit
+    private ServletOutputStream outputStream;
+    private PrintWriter writer;
+    private Locale locale = Locale.getDefault();
+
+    ExchangeResponse(HttpExchange exchange, int bufferSize) {
+        super(UNSUPPORTED);
+        this.exchange = exchange;
+        this.headers = exchange.getResponseHeaders();
+        this.head = "HEAD".equals(exchange.getRequestMethod());
+        this.buffer = new byte[bufferSize];
+    }
+
+    /**
+     * Fin de la requête: envoi de ce qui reste en tampon et fermeture du corps
+     */
+    void finish() throws IOException {
+        if (writer != null) {
+            writer.flush();
+        }
+        if (body == null) {
+            commit(count);
+            if (count > 0 && !bodyless) {
+                body.write(buffer, 0, count);
+            }
+        }
+        if (!bodyless) {
+            body.close();
+        }
+        // Sans corps (HEAD, 204, 304), le serveur n'a pas de flux à fermer: exchange.close() termine l'échange
+    }
+
+    private void commit(long length) throws IOException {
+        // Longueur pour sendResponseHeaders: -1 = pas de corps, 0 = chunked
+        long wireLength;
+        if (head || status == SC_NO_CONTENT || status == SC_NOT_MODIFIED || status < 200) {
+            wireLength = -1;
+        } else if (length >= 0) {
+            wireLength = (length == 0) ? -1 : length;
+        } else {
+            wireLength = 0;
+        }
+        if (head && length > 0) {
+            headers.set("Content-Length", String.valueOf(length));
+        }
+        exchange.sendResponseHeaders(status, wireLength);
+        bodyless = wireLength < 0;
+        body = exchange.getResponseBody();
+    }
+
+    private void write(byte[] b, int off, int len) throws IOException {
+        if (body == null) {
+            if (count + len <= buffer.length) {
+                System.arraycopy(b, off, buffer, count, len);
+                count += len;
+                return;
+            }
+            // Tampon plein: longueur annoncée par le rendu si connue, sinon chunked
+            commit(contentLength);
+            if (!bodyless) {
+                body.write(buffer, 0, count);
+            }
+            count = 0;
+        }
+        if (!bodyless) {
+            body.write(b, off, len);
+        }
+    }
+
+    private void flushBody() throws IOException {
+        if (body == null) {
+            commit(contentLength);
+            if (count > 0 && !bodyless) {
+                body.write(buffer, 0, count);
+            }
+            count = 0;
+        }
+        if (!bodyless) {
+            body.flush();
+        }
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() {
+        if (writer != null) {
+            throw new IllegalStateException("getWriter() déjà appelé");
+        }
+        return stream();
+    }
+
+    private ServletOutputStream stream() {
+        if (outputStream == null) {
+            outputStream = new ServletOutputStream() {
+                private final byte[] single = new byte[1];
+
+                @Override
+                public void write(int b) throws IOException {
+                    single[0] = (byte) b;
+                    ExchangeResponse.this.write(single, 0, 1);
+                }
+
+                @Override
+                public void write(byte[] b, int off, int len) throws IOException {
+                    ExchangeResponse.this.write(b, off, len);
+                }
+
+                @Override
+                public void flush() throws IOException {
+                    flushBody();
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setWriteListener(WriteListener listener) {
+                    throw new IllegalStateException("Écriture non bloquante non supportée");
+                }
+            };
+        }
+        return outputStream;
+    }
+
+    @Override
+    public PrintWriter getWriter() {
+        if (writer == null) {
+            if (outputStream != null) {
+                throw new IllegalStateException("getOutputStream() déjà appelé");
+            }
+            writer = new PrintWriter(new OutputStreamWriter(stream(), Charset.forName(getCharacterEncoding())));
+        }
+        return writer;
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+        if (writer != null) {
+            writer.flush();
+        }
+        flushBody();
+    }
+
+    @Override
+    public boolean isCommitted() {
+        return body != null;
+    }
+
+    @Override
+    public void resetBuffer() {
+        if (body != null) {
+            throw new IllegalStateException("Réponse déjà envoyée");
+        }
+        count = 0;
+    }
+
+    @Override
+    public void reset() {
+        resetBuffer();
+        // Comme un conteneur: le writer abandonné (et ses caractères en attente) n'est plus utilisé
+        writer = null;
+        outputStream = null;
+        headers.clear();
+        status = SC_OK;
+        contentType = null;
+        characterEncoding = null;
+        contentLength = -1;
+    }
+
+    @Override
+    public void setBufferSize(int size) {
+        if (body != null || count > 0) {
+            throw new IllegalStateException("Corps déjà écrit");
+        }
+        buffer = new byte[Math.max(0, size)];
+    }
+
+    @Override
+    public int getBufferSize() {
+        return buffer.length;
+    }
+
+    // Statut
+
+    @Override
+    public void setStatus(int sc) {
+        if (body == null) {
+            status = sc;
+        }
+    }
+
+    @Override
+    public int getStatus() {
+        return status;
+    }
+
+    @Override
+    public void sendError(int sc) throws IOException {
+        sendError(sc, null);
+    }
+
+    @Override
+    public void sendError(int sc, String message) throws IOException {
+        resetBuffer();
+        status = sc;
+        setContentType("text/html; charset=UTF-8");
+        contentLength = -1;
+        getWriterOrStream().write(("<h1>" + sc + (message != null ? " " + message : "") + "</h1>")
+            .getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public void sendRedirect(String location) {
+        resetBuffer();
+        status = SC_FOUND;
+        headers.set("Location", location);
+    }
+
+    // Le corps d'erreur s'écrit sur le flux, que le rendu ait pris le writer ou non
+    private OutputStream getWriterOrStream() {
+        if (writer != null) {
+            writer.flush();
+        }
+        return stream();
+    }
+
+    // Type et longueur
+
+    @Override
+    public void setContentType(String type) {
+        if (body != null) return;
+        contentType = type;
+        String charset = ExchangeRequest.charsetOf(type);
+        if (charset != null) {
+            characterEncoding = charset;
+        }
+        updateContentType();
+    }
+
+    @Override
+    public String getContentType() {
+        return headers.getFirst("Content-Type");
+    }
+
+    @Override
+    public void setCharacterEncoding(String charset) {
+        if (body != null || writer != null) return;
+        characterEncoding = charset;
+        updateContentType();
+    }
+
+    @Override
+    public String getCharacterEncoding() {
+        return (characterEncoding != null) ? characterEncoding : "ISO-8859-1";
+    }
+
+    private void updateContentType() {
+        if (contentType == null) {
+            headers.remove("Content-Type");
+            return;
+        }
+        int semicolon = contentType.indexOf(';');
+        String type = (semicolon < 0) ? contentType : contentType.substring(0, semicolon).trim();
+        headers.set("Content-Type", (characterEncoding != null) ? type + ";charset=" + characterEncoding : type);
+    }
+
+    @Override
+    public void setContentLength(int len) {
+        setContentLengthLong(len);
+    }
+
+    @Override
+    public void setContentLengthLong(long len) {
+        if (body == null) {
+            contentLength = len;
+        }
+    }
+
+    @Override
+    public void setLocale(Locale locale) {
+        this.locale = locale;
+    }
+
+    @Override
+    public Locale getLocale() {
+        return locale;
+    }
+
+    // En-têtes
+
+    @Override
+    public void setHeader(String name, String value) {
+        if (body != null) return;
+        if ("Content-Type".equalsIgnoreCase(name)) {
+            setContentType(value);
+        } else if ("Content-Length".equalsIgnoreCase(name)) {
+            setContentLengthLong(value != null ? Long.parseLong(value) : -1);
+        } else if (value == null) {
+            headers.remove(name);
+        } else {
+            headers.set(name, value);
+        }
+    }
+
+    @Override
+    public void addHeader(String name, String value) {
+        if (body != null) return;
+        if ("Content-Type".equalsIgnoreCase(name) || "Content-Length".equalsIgnoreCase(name)) {
+            setHeader(name, value);
+        } else {
+            headers.add(name, value);
+        }
+    }
+
+    @Override
+    public void setDateHeader(String name, long date) {
+        setHeader(name, HTTP_DATE.format(Instant.ofEpochMilli(date)));
+    }
+
+    @Override
+    public void addDateHeader(String name, long date) {
+        addHeader(name, HTTP_DATE.format(Instant.ofEpochMilli(date)));
+    }
+
+    @Override
+    public void setIntHeader(String name, int value) {
+        setHeader(name, String.valueOf(value));
+    }
+
+    @Override
+    public void addIntHeader(String name, int value) {
+        addHeader(name, String.valueOf(value));
+    }
+
+    @Override
+    public boolean containsHeader(String name) {
+        return headers.containsKey(name);
+    }
+
+    @Override
+    public String getHeader(String name) {
+        return headers.getFirst(name);
+    }
+
+    @Override
+    public Collection<String> getHeaders(String name) {
+        List<String> values = headers.get(name);
+        return (values != null) ? values : Collections.emptyList();
+    }
+
+    @Override
+    public Collection<String> getHeaderNames() {
+        return headers.keySet();
+    }
+
+    @Override
+    public void addCookie(Cookie cookie) {
+        StringBuilder value = new StringBuilder(cookie.getName()).append('=').append(cookie.getValue());
+        if (cookie.getPath() != null) value.append("; Path=").append(cookie.getPath());
+        if (cookie.getDomain() != null) value.append("; Domain=").append(cookie.getDomain());
+        if (cookie.getMaxAge() >= 0) value.append("; Max-Age=").append(cookie.getMaxAge());
+        if (cookie.getSecure()) value.append("; Secure");
+        if (cookie.isHttpOnly()) value.append("; HttpOnly");
+        addHeader("Set-Cookie", value.toString());
+    }
+
+    @Override
+    public String encodeURL(String url) {
+        return url;
+    }
+
+    @Override
+    public String encodeRedirectURL(String url) {
+        return url;
+    }
+}
@@ -0,0 +1,254 @@
+package front;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import log.Logger;
+import upload.UploadRejectedException;
+import url.HandlerDescriptor;
+
+/**
+ * Exécution asynchrone des handlers (mode framework.async.enabled).
+ *
+ * La requête passe en mode asynchrone (startAsync) et le thread du conteneur est rendu:
+ * un handler @Async s'exécute sur un thread virtuel (JDK 21+, sinon pool de threads
+ * démons), un CompletionStage est rendu à sa complétion. Le rendu final passe par
+ * le même handleResult que le mode bloquant.
+ */
+class AsyncDispatcher {
+
+    private static final Logger LOG = Logger.getLogger(AsyncDispatcher.class);
+
+    /**
+     * Appel du handler (parsing, liaison, invocation)
+     */
+    interface Invocation {
+        Object call() throws Exception;
+    }
+
+    /**
+     * Rendu du résultat final (handleResult du FrontServlet)
+     */
+    interface Renderer {
+        void render(Object result) throws Exception;
+    }
+
+    /**
+     * Rendu d'une erreur (réponse encore modifiable)
+     */
+    interface ErrorRenderer {
+        void render(int status, String message) throws IOException;
+    }
+
+    private final ExecutorService executor;
+    private final long defaultTimeout;
+
+    AsyncDispatcher(long defaultTimeout) {
+        this.executor = newExecutor();
+        this.defaultTimeout = defaultTimeout;
+    }
+
+    /**
+     * Un thread virtuel par tâche si le JDK le permet (appel par réflexion: le framework compile en 17)
+     */
+    static ExecutorService newExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            AtomicInteger counter = new AtomicInteger();
+            return Executors.newCachedThreadPool(task -> {
+                Thread thread = new Thread(task, "framework-async-" + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    boolean usesVirtualThreads() {
+        return !executor.getClass().getName().startsWith("java.util.concurrent.ThreadPoolExecutor");
+    }
+
+    long timeoutOf(HandlerDescriptor handler) {
+        return handler.getAsyncTimeout() > 0 ? handler.getAsyncTimeout() : defaultTimeout;
+    }
+
+    /**
+     * Passe la requête en asynchrone et lance le handler. finish est appelé une seule fois,
+     * quand le handler a terminé (ou que son CompletionStage est annulé après le délai),
+     * avec l'erreur éventuelle (null si succès).
+     */
+    void dispatch(HandlerDescriptor handler, HttpServletRequest req, HttpServletResponse res,
+                  Invocation invocation, Renderer renderer, ErrorRenderer errors, Consumer<Throwable> finish) {
+        AsyncContext context = req.startAsync(req, res);
+        context.setTimeout(timeoutOf(handler));
+
+        AtomicBoolean responded = new AtomicBoolean();
+        AtomicBoolean finished = new AtomicBoolean();
+        AtomicBoolean started = new AtomicBoolean();
+        AtomicReference<Future<?>> running = new AtomicReference<>();
+        AtomicReference<CompletionStage<?>> pending = new AtomicReference<>();
+        Consumer<Throwable> finishOnce = error -> {
+            if (finished.compareAndSet(false, true)) finish.accept(error);
+        };
+
+        context.addListener(new AsyncListener() {
+            @Override
+            public void onTimeout(AsyncEvent event) throws IOException {
+                abandon(new CancellationException("Délai dépassé avant exécution"));
+                if (responded.compareAndSet(false, true)) {
+                    errors.render(HttpServletResponse.SC_SERVICE_UNAVAILABLE,
+                        "Délai dépassé (" + timeoutOf(handler) + " ms): " + handler);
+                    context.complete();
+                }
+            }
+
+            @Override
+            public void onError(AsyncEvent event) {
+                responded.set(true);
+                Throwable error = event.getThrowable();
+                abandon(error != null ? error : new CancellationException("Requête asynchrone interrompue"));
+            }
+
+            // La requête sera recyclée par le conteneur: la tâche ne doit plus la lire
+            private void abandon(Throwable reason) {
+                if (started.compareAndSet(false, true)) {
+                    // Jamais démarrée: elle ne s'exécutera pas, la fin (permis, métriques) est signalée ici
+                    Future<?> future = running.get();
+                    if (future != null) {
+                        future.cancel(false);
+                    }
+                    finishOnce.accept(reason);
+                    return;
+                }
+                // En cours (parsing, liaison, appel): interrompue
+                Future<?> future = running.get();
+                if (future != null) {
+                    future.cancel(true);
+                }
+                CompletionStage<?> stage = pending.get();
+                if (stage != null) {
+                    stage.toCompletableFuture().cancel(true);
+                }
+            }
+
+            @Override
+            public void onComplete(AsyncEvent event) {
+            }
+
+            @Override
+            public void onStartAsync(AsyncEvent event) {
+            }
+        });
+
+        Runnable task = () -> {
+            // Délai dépassé ou erreur avant le démarrage: la requête n'est plus lue
+            if (!started.compareAndSet(false, true) || responded.get()) {
+                finishOnce.accept(new CancellationException("Requête abandonnée avant exécution"));
+                return;
+            }
+            Object result;
+            try {
+                result = invocation.call();
+            } catch (Throwable t) {
+                fail(t, req, context, responded, errors);
+                finishOnce.accept(unwrap(t));
+                return;
+            }
+            if (result instanceof CompletionStage) {
+                CompletionStage<?> stage = (CompletionStage<?>) result;
+                pending.set(stage);
+                stage.whenComplete((value, error) -> {
+                    if (error != null) {
+                        fail(error, req, context, responded, errors);
+                        finishOnce.accept(unwrap(error));
+                    } else {
+                        finishOnce.accept(complete(value, req, context, responded, renderer, errors));
+                    }
+                });
+            } else {
+                finishOnce.accept(complete(result, req, context, responded, renderer, errors));
+            }
+        };
+
+        if (handler.isAsync()) {
+            // Gardé pour annuler (interrompre) la tâche si la requête expire
+            running.set(executor.submit(task));
+        } else {
+            // Handler retournant un CompletionStage: appelé tout de suite, rendu à la complétion
+            task.run();
+        }
+    }
+
+    // Rendu du résultat; retourne l'erreur de rendu éventuelle
+    private Throwable complete(Object value, HttpServletRequest req, AsyncContext context, AtomicBoolean responded,
+                               Renderer renderer, ErrorRenderer errors) {
+        if (!responded.compareAndSet(false, true)) {
+            return null;   // Délai déjà dépassé: réponse d'erreur envoyée
+        }
+        try {
+            renderer.render(value);
+        } catch (Throwable t) {
+            responded.set(false);
+            fail(t, req, context, responded, errors);
+            return unwrap(t);
+        }
+        // Une vue JSP est rendue par context.dispatch(): la requête n'est alors plus "async started"
+        if (req.isAsyncStarted()) {
+            context.complete();
+        }
+        return null;
+    }
+
+    private void fail(Throwable error, HttpServletRequest req, AsyncContext context, AtomicBoolean responded,
+                      ErrorRenderer errors) {
+        if (!responded.compareAndSet(false, true)) {
+            return;
+        }
+        Throwable cause = unwrap(error);
+        try {
+            if (cause instanceof UploadRejectedException) {
+                errors.render(HttpServletResponse.SC_SERVICE_UNAVAILABLE, "Service indisponible: " + cause.getMessage());
+            } else if (cause instanceof CancellationException) {
+                errors.render(HttpServletResponse.SC_SERVICE_UNAVAILABLE, "Traitement annulé");
+            } else {
+                errors.render(HttpServletResponse.SC_INTERNAL_SERVER_ERROR, "Erreur: " + cause.getMessage());
+                LOG.error("Erreur du handler {}", req.getRequestURI(), cause);
+            }
+        } catch (IOException e) {
+            LOG.warn("Réponse d'erreur impossible pour {}", req.getRequestURI(), e);
+        } finally {
+            if (req.isAsyncStarted()) {
+                context.complete();
+            }
+        }
+    }
+
+    static Throwable unwrap(Throwable error) {
+        while ((error instanceof CompletionException || error instanceof ExecutionException) && error.getCause() != null) {
+            error = error.getCause();
+        }
+        return error;
+    }
+
+    void shutdown() {
+        executor.shutdown();
+    }
+}
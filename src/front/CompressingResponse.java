@@ -0,0 +1,249 @@
+package front;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.Charset;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+/**
+ * Réponse compressée si elle dépasse le seuil: les premiers octets sont retenus, puis la
+ * décision est prise (type compressible, statut 2xx, pas de Content-Encoding déjà posé).
+ * Sous le seuil, le corps part tel quel avec son Content-Length; au-dessus, il est compressé
+ * en flux (réponse chunkée) et l'ETag reçoit le suffixe du codage.
+ */
+class CompressingResponse extends HttpServletResponseWrapper {
+
+    private final Compression compression;
+    private final String encoding;
+    private byte[] pending;
+    private int pendingCount;
+    private DeflatingOutputStream deflating;
+    private boolean identity;          // Décidé: corps non compressé
+    private boolean encoded;           // Content-Encoding posé par le rendu
+    private long contentLength = -1;
+    private String etag;
+    private ServletOutputStream outputStream;
+    private PrintWriter writer;
+
+    CompressingResponse(HttpServletResponse response, Compression compression, String encoding) {
+        super(response);
+        this.compression = compression;
+        this.encoding = encoding;
+    }
+
+    /**
+     * Termine le corps: envoi de ce qui reste sous le seuil, ou fin du flux compressé
+     */
+    void finish() throws IOException {
+        if (writer != null) {
+            writer.flush();
+        }
+        if (deflating != null) {
+            deflating.finish();
+            return;
+        }
+        if (identity) {
+            return;
+        }
+        identity = true;
+        if (compression.isCompressible(getContentType())) {
+            super.addHeader("Vary", "Accept-Encoding");
+            if (getStatus() == SC_NOT_MODIFIED) {
+                // 304: même ETag que la réponse complète, compressée si elle dépasse le seuil
+                if (etag != null && contentLength >= compression.getMinSize()) {
+                    super.setHeader("ETag", Compression.encodedEtag(etag, encoding));
+                }
+                return;
+            }
+        }
+        if (pendingCount > 0) {
+            super.setContentLengthLong(contentLength >= 0 ? contentLength : pendingCount);
+            super.getOutputStream().write(pending, 0, pendingCount);
+        } else if (contentLength >= 0) {
+            super.setContentLengthLong(contentLength);
+        }
+    }
+
+    /**
+     * Abandon sur erreur: le Deflater éventuel retourne à la réserve
+     */
+    void release() {
+        if (deflating != null) {
+            deflating.release();
+        }
+    }
+
+    private void append(byte[] b, int off, int len) throws IOException {
+        if (deflating != null) {
+            deflating.write(b, off, len);
+            return;
+        }
+        if (identity) {
+            super.getOutputStream().write(b, off, len);
+            return;
+        }
+        if (pendingCount + len <= compression.getMinSize()) {
+            if (pending == null) {
+                pending = new byte[compression.getMinSize()];
+            }
+            System.arraycopy(b, off, pending, pendingCount, len);
+            pendingCount += len;
+            return;
+        }
+
+        // Seuil dépassé: décision
+        ServletOutputStream out = super.getOutputStream();
+        if (isCompressible()) {
+            super.setHeader("Content-Encoding", encoding);
+            super.addHeader("Vary", "Accept-Encoding");
+            if (etag != null) {
+                super.setHeader("ETag", Compression.encodedEtag(etag, encoding));
+            }
+            deflating = new DeflatingOutputStream(out, compression, Compression.GZIP.equals(encoding));
+            if (pendingCount > 0) {
+                deflating.write(pending, 0, pendingCount);
+            }
+            deflating.write(b, off, len);
+        } else {
+            identity = true;
+            if (contentLength >= 0) {
+                super.setContentLengthLong(contentLength);
+            }
+            if (pendingCount > 0) {
+                out.write(pending, 0, pendingCount);
+            }
+            out.write(b, off, len);
+        }
+        pending = null;
+    }
+
+    private boolean isCompressible() {
+        int status = getStatus();
+        return !encoded && status >= 200 && status < 300 && status != SC_NO_CONTENT && status != SC_PARTIAL_CONTENT
+            && compression.isCompressible(getContentType());
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() {
+        if (outputStream == null) {
+            outputStream = new ServletOutputStream() {
+                private final byte[] single = new byte[1];
+
+                @Override
+                public void write(int b) throws IOException {
+                    single[0] = (byte) b;
+                    append(single, 0, 1);
+                }
+
+                @Override
+                public void write(byte[] b, int off, int len) throws IOException {
+                    append(b, off, len);
+                }
+
+                @Override
+                public void flush() throws IOException {
+                    // Sous le seuil, rien n'est encore décidé: pas de validation de la réponse
+                    if (deflating != null) {
+                        deflating.flush();
+                    } else if (identity) {
+                        CompressingResponse.super.getOutputStream().flush();
+                    }
+                }
+
+                @Override
+                public void close() throws IOException {
+                    finish();
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setWriteListener(WriteListener listener) {
+                    throw new IllegalStateException("Écriture non bloquante non supportée");
+                }
+            };
+        }
+        return outputStream;
+    }
+
+    @Override
+    public PrintWriter getWriter() {
+        if (writer == null) {
+            // Même encodage que le writer du conteneur
+            Charset charset = Charset.forName(getCharacterEncoding());
+            writer = new PrintWriter(new OutputStreamWriter(getOutputStream(), charset));
+        }
+        return writer;
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+        if (writer != null) {
+            writer.flush();
+        }
+        getOutputStream().flush();
+        if (identity) {
+            super.flushBuffer();
+        }
+    }
+
+    @Override
+    public void resetBuffer() {
+        super.resetBuffer();
+        if (deflating == null && !identity) {
+            pendingCount = 0;
+        }
+    }
+
+    // Longueur connue du rendu: utile seulement si le corps part non compressé
+    @Override
+    public void setContentLength(int len) {
+        setContentLengthLong(len);
+    }
+
+    @Override
+    public void setContentLengthLong(long len) {
+        if (identity) {
+            super.setContentLengthLong(len);
+        } else if (deflating == null) {
+            contentLength = len;
+        }
+    }
+
+    @Override
+    public void setHeader(String name, String value) {
+        if (intercept(name, value)) return;
+        super.setHeader(name, value);
+    }
+
+    @Override
+    public void addHeader(String name, String value) {
+        if (intercept(name, value)) return;
+        super.addHeader(name, value);
+    }
+
+    private boolean intercept(String name, String value) {
+        if ("Content-Length".equalsIgnoreCase(name)) {
+            setContentLengthLong(value != null ? Long.parseLong(value) : -1);
+            return true;
+        }
+        if ("ETag".equalsIgnoreCase(name)) {
+            etag = value;
+            if (deflating != null) {
+                super.setHeader(name, Compression.encodedEtag(value, encoding));
+                return true;
+            }
+        } else if ("Content-Encoding".equalsIgnoreCase(name)) {
+            encoded = true;
+        }
+        return false;
+    }
+}
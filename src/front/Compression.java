@@ -0,0 +1,156 @@
+package front;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.zip.Deflater;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Compression gzip/deflate des réponses du framework: négociation Accept-Encoding,
+ * types compressibles et réserve de Deflater.
+ *
+ * Un Deflater tient de la mémoire native (zlib) libérée seulement par end():
+ * en créer un par réponse fait travailler le GC et le ramasse-miettes natif.
+ * Les instances sont donc réutilisées (reset()) dans une file bornée.
+ */
+final class Compression {
+
+    static final String GZIP = "gzip";
+    static final String DEFLATE = "deflate";
+
+    private final int minSize;
+    private final int level;
+    private final ArrayBlockingQueue<Deflater> gzipPool;      // nowrap: en-tête gzip écrit à part
+    private final ArrayBlockingQueue<Deflater> deflatePool;   // format zlib
+
+    /**
+     * @param minSize taille en dessous de laquelle la réponse part non compressée
+     * @param level niveau zlib (1 = rapide ... 9 = compact)
+     * @param poolSize Deflater gardés par format
+     */
+    Compression(int minSize, int level, int poolSize) {
+        this.minSize = Math.max(0, minSize);
+        this.level = level;
+        this.gzipPool = new ArrayBlockingQueue<>(Math.max(1, poolSize));
+        this.deflatePool = new ArrayBlockingQueue<>(Math.max(1, poolSize));
+    }
+
+    /**
+     * Codage accepté par le client (gzip de préférence), null si aucun
+     */
+    String negotiate(HttpServletRequest req) {
+        String accept = req.getHeader("Accept-Encoding");
+        if (accept == null || accept.isEmpty()) {
+            return null;
+        }
+        boolean gzip = false;
+        boolean deflate = false;
+        boolean wildcard = false;
+        // Un codage refusé explicitement (q=0) l'emporte sur "*"
+        boolean gzipRefused = false;
+        boolean deflateRefused = false;
+        int start = 0;
+        while (start < accept.length()) {
+            int end = accept.indexOf(',', start);
+            if (end < 0) end = accept.length();
+            String token = accept.substring(start, end).trim();
+            start = end + 1;
+
+            int semicolon = token.indexOf(';');
+            String coding = (semicolon < 0 ? token : token.substring(0, semicolon)).trim();
+            boolean refused = semicolon >= 0 && isZeroQuality(token.substring(semicolon + 1));
+            if (GZIP.equalsIgnoreCase(coding) || "x-gzip".equalsIgnoreCase(coding)) {
+                if (refused) gzipRefused = true; else gzip = true;
+            } else if (DEFLATE.equalsIgnoreCase(coding)) {
+                if (refused) deflateRefused = true; else deflate = true;
+            } else if ("*".equals(coding) && !refused) {
+                wildcard = true;
+            }
+        }
+        if ((gzip || wildcard) && !gzipRefused) {
+            return GZIP;
+        }
+        return ((deflate || wildcard) && !deflateRefused) ? DEFLATE : null;
+    }
+
+    private static boolean isZeroQuality(String parameters) {
+        String value = parameters.trim();
+        if (!value.startsWith("q=")) {
+            return false;
+        }
+        try {
+            return Double.parseDouble(value.substring(2).trim()) <= 0;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Texte, JSON, XML, JavaScript, SVG: les formats binaires déjà compressés sont exclus
+     */
+    boolean isCompressible(String contentType) {
+        if (contentType == null) {
+            return false;
+        }
+        String type = contentType.toLowerCase();
+        int semicolon = type.indexOf(';');
+        if (semicolon >= 0) type = type.substring(0, semicolon).trim();
+        return type.startsWith("text/")
+            || type.equals("application/json") || type.equals("application/x-ndjson")
+            || type.equals("application/javascript") || type.equals("application/xml")
+            || type.endsWith("+json") || type.endsWith("+xml");
+    }
+
+    int getMinSize() {
+        return minSize;
+    }
+
+    Deflater borrow(boolean gzip) {
+        Deflater deflater = (gzip ? gzipPool : deflatePool).poll();
+        return (deflater != null) ? deflater : new Deflater(level, gzip);
+    }
+
+    void release(Deflater deflater, boolean gzip) {
+        deflater.reset();
+        if (!(gzip ? gzipPool : deflatePool).offer(deflater)) {
+            deflater.end();
+        }
+    }
+
+    /**
+     * Forme gzip complète d'un corps déjà produit (réponses en cache, fichiers statiques)
+     */
+    byte[] gzip(byte[] body) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 3 + 32);
+        try {
+            DeflatingOutputStream deflating = new DeflatingOutputStream(out, this, true);
+            deflating.write(body, 0, body.length);
+            deflating.finish();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * ETag d'une forme codée: "abc" devient "abc-gzip" (une représentation par codage)
+     */
+    static String encodedEtag(String etag, String encoding) {
+        if (etag == null || !etag.endsWith("\"")) {
+            return etag;
+        }
+        return etag.substring(0, etag.length() - 1) + "-" + encoding + "\"";
+    }
+
+    /**
+     * Arrêt de l'application: mémoire native des Deflater en réserve
+     */
+    void close() {
+        Deflater deflater;
+        while ((deflater = gzipPool.poll()) != null) deflater.end();
+        while ((deflater = deflatePool.poll()) != null) deflater.end();
+    }
+}
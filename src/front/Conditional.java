@@ -0,0 +1,84 @@
+package front;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Requêtes conditionnelles (If-None-Match, If-Modified-Since) et format des en-têtes de validation
+ */
+final class Conditional {
+
+    private static final DateTimeFormatter HTTP_DATE = DateTimeFormatter.RFC_1123_DATE_TIME.withZone(ZoneOffset.UTC);
+
+    private Conditional() {
+    }
+
+    /**
+     * Vrai si le client possède déjà cette représentation (etag et/ou date, -1 = inconnue)
+     */
+    static boolean notModified(HttpServletRequest req, String etag, long lastModified) {
+        String ifNoneMatch = req.getHeader("If-None-Match");
+        if (ifNoneMatch != null) {
+            // Prioritaire sur If-Modified-Since (RFC 9110)
+            return etag != null && matches(ifNoneMatch, etag);
+        }
+        if (lastModified < 0) {
+            return false;
+        }
+        long since;
+        try {
+            since = req.getDateHeader("If-Modified-Since");
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        // Les dates HTTP sont à la seconde
+        return since >= 0 && lastModified / 1000 <= since / 1000;
+    }
+
+    /**
+     * If-None-Match: "*" ou liste d'ETags, comparaison faible (W/ et suffixe de compression ignorés)
+     */
+    static boolean matches(String ifNoneMatch, String etag) {
+        String value = ifNoneMatch.trim();
+        if ("*".equals(value)) {
+            return true;
+        }
+        String opaque = opaque(etag);
+        int start = 0;
+        while (start < value.length()) {
+            int end = value.indexOf(',', start);
+            if (end < 0) end = value.length();
+            if (opaque(value.substring(start, end).trim()).equals(opaque)) {
+                return true;
+            }
+            start = end + 1;
+        }
+        return false;
+    }
+
+    private static String opaque(String etag) {
+        String value = etag.startsWith("W/") ? etag.substring(2) : etag;
+        // "abc-gzip" désigne la même version que "abc" (voir Compression.encodedEtag)
+        if (value.endsWith("-" + Compression.GZIP + "\"")) {
+            return value.substring(0, value.length() - Compression.GZIP.length() - 2) + "\"";
+        }
+        if (value.endsWith("-" + Compression.DEFLATE + "\"")) {
+            return value.substring(0, value.length() - Compression.DEFLATE.length() - 2) + "\"";
+        }
+        return value;
+    }
+
+    /**
+     * ETag fort pour une version applicative (guillemets échappés)
+     */
+    static String etagOf(String version) {
+        return "\"" + version.replace("\"", "") + "\"";
+    }
+
+    static String httpDate(long millis) {
+        return HTTP_DATE.format(Instant.ofEpochMilli(millis));
+    }
+}
@@ -0,0 +1,134 @@
+package front;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+
+/**
+ * Compression en flux vers la réponse, avec un Deflater emprunté à la réserve.
+ *
+ * En gzip, l'en-tête (10 octets) et la fin (CRC32, taille) sont écrits ici autour d'un flux
+ * deflate brut, ce qui évite GZIPOutputStream et son Deflater créé à chaque instance.
+ * flush() fait un SYNC_FLUSH: ce qui a été écrit part au client (réponse chunkée, JSON en flux).
+ */
+class DeflatingOutputStream extends ServletOutputStream {
+
+    private static final byte[] GZIP_HEADER = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff};
+
+    private final OutputStream target;
+    private final Compression compression;
+    private final boolean gzip;
+    private final CRC32 crc;
+    private final byte[] buffer = new byte[8192];
+    private final byte[] single = new byte[1];
+    private Deflater deflater;
+
+    DeflatingOutputStream(OutputStream target, Compression compression, boolean gzip) throws IOException {
+        this.target = target;
+        this.compression = compression;
+        this.gzip = gzip;
+        this.crc = gzip ? new CRC32() : null;
+        this.deflater = compression.borrow(gzip);
+        if (gzip) {
+            target.write(GZIP_HEADER);
+        }
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        single[0] = (byte) b;
+        write(single, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        if (deflater == null) {
+            throw new IOException("Flux compressé déjà terminé");
+        }
+        if (len == 0) {
+            return;
+        }
+        if (gzip) {
+            crc.update(b, off, len);
+        }
+        deflater.setInput(b, off, len);
+        while (!deflater.needsInput()) {
+            drain(Deflater.NO_FLUSH);
+        }
+    }
+
+    private int drain(int mode) throws IOException {
+        int length = deflater.deflate(buffer, 0, buffer.length, mode);
+        if (length > 0) {
+            target.write(buffer, 0, length);
+        }
+        return length;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        if (deflater != null) {
+            // Tampon de sortie plein: il reste des octets à extraire
+            while (drain(Deflater.SYNC_FLUSH) == buffer.length) {
+            }
+        }
+        target.flush();
+    }
+
+    /**
+     * Termine le flux (fin gzip comprise) et rend le Deflater à la réserve
+     */
+    void finish() throws IOException {
+        if (deflater == null) {
+            return;
+        }
+        try {
+            deflater.finish();
+            while (!deflater.finished()) {
+                drain(Deflater.NO_FLUSH);
+            }
+            if (gzip) {
+                writeIntLE(crc.getValue());
+                writeIntLE(deflater.getBytesRead());
+            }
+        } finally {
+            release();
+        }
+    }
+
+    /**
+     * Abandon (erreur pendant le rendu): le Deflater retourne à la réserve sans terminer le flux
+     */
+    void release() {
+        if (deflater != null) {
+            compression.release(deflater, gzip);
+            deflater = null;
+        }
+    }
+
+    private void writeIntLE(long value) throws IOException {
+        target.write((int) value & 0xff);
+        target.write((int) (value >> 8) & 0xff);
+        target.write((int) (value >> 16) & 0xff);
+        target.write((int) (value >> 24) & 0xff);
+    }
+
+    @Override
+    public void close() throws IOException {
+        finish();
+    }
+
+    @Override
+    public boolean isReady() {
+        return true;
+    }
+
+    @Override
+    public void setWriteListener(WriteListener listener) {
+        throw new IllegalStateException("Écriture non bloquante non supportée");
+    }
+}
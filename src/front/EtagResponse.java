@@ -0,0 +1,188 @@
+package front;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+import java.util.zip.CRC32C;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.ServletResponseWrapper;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+/**
+ * Retient le corps rendu (jusqu'à limit octets) en calculant son empreinte au fil de l'écriture,
+ * puis envoie un ETag fort et le corps, ou 304 sans corps si le client a déjà cette version.
+ *
+ * Empreinte: CRC32C et CRC32 (instructions dédiées sur x86 et ARM) et longueur, pas un hachage
+ * cryptographique: elle ne sert qu'à détecter un changement de contenu.
+ * Au-delà de limit, le début est envoyé et la suite passe directement au client, sans ETag.
+ */
+class EtagResponse extends HttpServletResponseWrapper {
+
+    private final int limit;
+    private final CRC32C crc32c = new CRC32C();
+    private final CRC32 crc32 = new CRC32();
+    private byte[] buffer = new byte[1024];
+    private int count;
+    private boolean passThrough;
+    private ServletOutputStream outputStream;
+    private PrintWriter writer;
+
+    EtagResponse(HttpServletResponse response, int limit) {
+        super(response);
+        this.limit = limit;
+    }
+
+    /**
+     * Termine le rendu: 304 si If-None-Match correspond, sinon ETag, Content-Length et corps
+     */
+    void finish(HttpServletRequest req) throws IOException {
+        if (writer != null) {
+            writer.flush();
+        }
+        if (passThrough) {
+            return;
+        }
+        HttpServletResponse response = (HttpServletResponse) getResponse();
+        if (response.getStatus() == SC_OK) {
+            String etag = etag();
+            response.setHeader("ETag", etag);
+            if (Conditional.notModified(req, etag, -1)) {
+                // La compression choisit l'ETag du 304 selon la taille de la réponse complète
+                if (isCompressing(response)) {
+                    response.setContentLength(count);
+                }
+                response.setStatus(SC_NOT_MODIFIED);
+                return;
+            }
+        }
+        response.setContentLength(count);
+        response.getOutputStream().write(buffer, 0, count);
+    }
+
+    // La compression peut se trouver sous la capture du cache @Cached (CapturingResponse)
+    private static boolean isCompressing(ServletResponse response) {
+        while (response instanceof ServletResponseWrapper) {
+            if (response instanceof CompressingResponse) {
+                return true;
+            }
+            response = ((ServletResponseWrapper) response).getResponse();
+        }
+        return false;
+    }
+
+    private String etag() {
+        return "\"" + Long.toHexString(crc32c.getValue() << 32 | crc32.getValue())
+            + "-" + Integer.toHexString(count) + "\"";
+    }
+
+    private void append(byte[] b, int off, int len) throws IOException {
+        if (passThrough) {
+            getResponse().getOutputStream().write(b, off, len);
+            return;
+        }
+        if (count + len > limit) {
+            // Trop gros pour une empreinte: le début part, la suite est écrite directement
+            passThrough = true;
+            ServletOutputStream out = getResponse().getOutputStream();
+            out.write(buffer, 0, count);
+            out.write(b, off, len);
+            buffer = null;
+            return;
+        }
+        if (count + len > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.min(limit, Math.max(buffer.length * 2, count + len)));
+        }
+        System.arraycopy(b, off, buffer, count, len);
+        count += len;
+        crc32c.update(b, off, len);
+        crc32.update(b, off, len);
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() {
+        if (outputStream == null) {
+            outputStream = new ServletOutputStream() {
+                private final byte[] single = new byte[1];
+
+                @Override
+                public void write(int b) throws IOException {
+                    single[0] = (byte) b;
+                    append(single, 0, 1);
+                }
+
+                @Override
+                public void write(byte[] b, int off, int len) throws IOException {
+                    append(b, off, len);
+                }
+
+                @Override
+                public void flush() throws IOException {
+                    // Pendant la mise en tampon, vider validerait la réponse avant l'ETag
+                    if (passThrough) {
+                        getResponse().getOutputStream().flush();
+                    }
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setWriteListener(WriteListener listener) {
+                    throw new IllegalStateException("Écriture non bloquante non supportée");
+                }
+            };
+        }
+        return outputStream;
+    }
+
+    @Override
+    public PrintWriter getWriter() {
+        if (writer == null) {
+            // Même encodage que le writer du conteneur
+            Charset charset = Charset.forName(getCharacterEncoding());
+            writer = new PrintWriter(new OutputStreamWriter(getOutputStream(), charset));
+        }
+        return writer;
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+        if (writer != null) {
+            writer.flush();
+        }
+        if (passThrough) {
+            super.flushBuffer();
+        }
+    }
+
+    @Override
+    public void resetBuffer() {
+        super.resetBuffer();
+        if (!passThrough) {
+            count = 0;
+            crc32c.reset();
+            crc32.reset();
+        }
+    }
+
+    // Longueur fixée à la fin, sur le corps réellement retenu
+    @Override
+    public void setContentLength(int len) {
+        if (passThrough) super.setContentLength(len);
+    }
+
+    @Override
+    public void setContentLengthLong(long len) {
+        if (passThrough) super.setContentLengthLong(len);
+    }
+}
@@ -0,0 +1,59 @@
+package front;
+
+import jakarta.servlet.ServletConfig;
+
+import log.Logger;
+
+/**
+ * Paramètres du framework, lus dans l'ordre:
+ * init-param du servlet, puis context-param, puis propriété système (-Dframework.xxx)
+ */
+public class FrameworkConfig {
+
+    private static final Logger LOG = Logger.getLogger(FrameworkConfig.class);
+
+    private final ServletConfig servletConfig;
+
+    public FrameworkConfig(ServletConfig servletConfig) {
+        this.servletConfig = servletConfig;
+    }
+
+    public String getString(String name, String defaultValue) {
+        String value = null;
+        if (servletConfig != null) {
+            value = servletConfig.getInitParameter(name);
+            if (value == null && servletConfig.getServletContext() != null) {
+                value = servletConfig.getServletContext().getInitParameter(name);
+            }
+        }
+        if (value == null) {
+            value = System.getProperty(name);
+        }
+        return (value != null && !value.trim().isEmpty()) ? value.trim() : defaultValue;
+    }
+
+    public int getInt(String name, int defaultValue) {
+        String value = getString(name, null);
+        try {
+            return (value != null) ? Integer.parseInt(value) : defaultValue;
+        } catch (NumberFormatException e) {
+            LOG.warn("Paramètre invalide {}={}, valeur par défaut: {}", name, value, defaultValue);
+            return defaultValue;
+        }
+    }
+
+    public long getLong(String name, long defaultValue) {
+        String value = getString(name, null);
+        try {
+            return (value != null) ? Long.parseLong(value) : defaultValue;
+        } catch (NumberFormatException e) {
+            LOG.warn("Paramètre invalide {}={}, valeur par défaut: {}", name, value, defaultValue);
+            return defaultValue;
+        }
+    }
+
+    public boolean getBoolean(String name, boolean defaultValue) {
+        String value = getString(name, null);
+        return (value != null) ? Boolean.parseBoolean(value) : defaultValue;
+    }
+}
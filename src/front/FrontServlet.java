@@ -1,50 +1,246 @@
 package front;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.PrintWriter;
-import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.BaseStream;
 
 import jakarta.servlet.RequestDispatcher;
+import jakarta.servlet.ServletContext;
 import jakarta.servlet.ServletException;
-import jakarta.servlet.annotation.MultipartConfig;
 import jakarta.servlet.http.HttpServlet;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 
-import annotation.Json;
+import cache.CachedResponse;
+import cache.CapturingResponse;
+import cache.ResponseCache;
+import json.JsonSerializer;
+import log.LogConfig;
+import log.Logger;
+import metrics.MetricsRegistry;
+import metrics.RequestTimings;
+import metrics.RouteMetrics;
+import metrics.SlowRequestLog;
+import url.HandlerDescriptor;
+import url.Route;
+import url.RouteMatch;
+import url.Router;
 import url.ScannerFramework;
-import url.UrlPatternMatcher;
 import upload.MultipartParser;
-
-@MultipartConfig(
-    fileSizeThreshold = 1024 * 1024,      // 1 MB
-    maxFileSize = 1024 * 1024 * 10,       // 10 MB
-    maxRequestSize = 1024 * 1024 * 50     // 50 MB
-)
+import upload.UploadBudget;
+import upload.UploadRejectedException;
+import view.ModelView;
+import view.Versioned;
+import view.VersionedResult;
+
+// Pas de @MultipartConfig: le corps multipart est lu en flux par MultipartParser,
+// avec ses propres limites (framework.multipart.*)
 public class FrontServlet extends HttpServlet {
 
+    private static final Logger LOG = Logger.getLogger(FrontServlet.class);
+
     RequestDispatcher defaultDispatcher;
-    private Map<String, Map<String, Method>> urlMappings;
-    private Map<String, Object> controllers;
+    private Router router;
+
+    // Multipart: seuil au-delà duquel une part va sur disque, et limites
+    private int multipartMemoryThreshold;
+    private long multipartMaxFileSize;
+    private long multipartMaxRequestSize;
+    private Path multipartTempDir;
+    private UploadBudget uploadBudget;
+
+    // Mode asynchrone (null = désactivé) et délai par défaut des handlers différés
+    private AsyncDispatcher asyncDispatcher;
+    private long asyncTimeout;
+
+    // JSON séquentiel (Stream, Iterator...): réponse vidée tous les N éléments ou octets
+    private int jsonFlushElements;
+    private int jsonFlushBytes;
+
+    // Mesures par route (null = désactivées) et chemin optionnel de l'export Prometheus
+    private MetricsRegistry metrics;
+    private String metricsPath;
+
+    // Durées par phase (désactivées par défaut), en-tête Server-Timing et journal des requêtes lentes
+    private boolean timingEnabled;
+    private boolean allocationProfiling;   // Octets alloués par route et phase (framework.metrics.allocations)
+    private boolean serverTimingHeader;
+    private SlowRequestLog slowRequests;
+    private String slowRequestsPath;
+
+    // Ressources statiques: existence en cache, petits fichiers servis depuis la mémoire (option)
+    private StaticResources staticResources;
+
+    // Caches de réponses des handlers @Cached (framework.cache.enabled)
+    private boolean responseCaching;
+
+    // ETag calculé sur les corps rendus jusqu'à cette taille (0 = désactivé)
+    private int etagMaxBytes;
+
+    // Compression gzip/deflate négociée (null = désactivée)
+    private Compression compression;
 
     @Override
     public void init() {
         defaultDispatcher = getServletContext().getNamedDispatcher("default");
 
+        FrameworkConfig config = new FrameworkConfig(getServletConfig());
+        // Niveaux et écriture asynchrone du log (framework.log.*)
+        Logger.configure(LogConfig.from(name -> config.getString(name, null)));
+
         try {
-            System.out.println("=== Initialisation du Framework ===");
+            LOG.info("=== Initialisation du Framework ===");
             String classesPath = getServletContext().getRealPath("/WEB-INF/classes");
             
+            long start = System.nanoTime();
+
+            String libPath = getServletContext().getRealPath("/WEB-INF/lib");
+
+            // Index de /WEB-INF/classes généré à la compilation s'il existe, sinon scan (bytecode par défaut, "classic" = Class.forName)
             ScannerFramework scanner = new ScannerFramework();
-            scanner.scan(classesPath);
-            
-            urlMappings = scanner.getUrlMappings();
-            controllers = scanner.getControllers();
+            boolean indexed = false;
+            if (config.getBoolean("framework.routeIndex", true)) {
+                indexed = scanner.scanIndex(classesPath, libPath);
+                if (!indexed) {
+                    // Index absent ou en échec partiel: aucun mapping déjà enregistré ne doit rester
+                    scanner = new ScannerFramework();
+                }
+            }
+            String scanMode = config.getString("framework.scan.mode", "bytecode");
+            if (indexed) {
+                scanMode = "index";
+            } else if ("classic".equals(scanMode)) {
+                scanner.scan(classesPath);
+            } else {
+                File tempDir = (File) getServletContext().getAttribute(ServletContext.TEMPDIR);
+                if (tempDir != null && config.getBoolean("framework.scan.snapshot", true)) {
+                    // Redémarrage à chaud: seules les classes modifiées depuis l'instantané sont ré-analysées
+                    scanMode = "snapshot";
+                    scanner.scanIncremental(classesPath, libPath, new File(tempDir, "framework-routes.snapshot"));
+                } else {
+                    scanMode = "bytecode";
+                    scanner.scanBytecode(classesPath, libPath);
+                }
+            }
+            LOG.info("[Routing] Routes chargées en {} ms ({})", (System.nanoTime() - start) / 1_000_000, scanMode);
+
+            int routeCacheSize = config.getInt("framework.routeCache.size", 1024);
+            router = new Router(scanner.getRouteTrie(), routeCacheSize);
+            // Compteurs exposés à l'application via le contexte
+            getServletContext().setAttribute(Router.class.getName(), router);
+            LOG.info("[Routing] {} routes statiques, cache de {} chemins", router.getStaticRouteCount(), routeCacheSize);
+
+            multipartMemoryThreshold = config.getInt("framework.multipart.memoryThreshold",
+                MultipartParser.DEFAULT_MEMORY_THRESHOLD);
+            multipartMaxFileSize = config.getLong("framework.multipart.maxFileSize",
+                MultipartParser.DEFAULT_MAX_FILE_SIZE);
+            multipartMaxRequestSize = config.getLong("framework.multipart.maxRequestSize",
+                MultipartParser.DEFAULT_MAX_REQUEST_SIZE);
+            String uploadDir = config.getString("framework.multipart.tempDir", null);
+            File servletTempDir = (File) getServletContext().getAttribute(ServletContext.TEMPDIR);
+            if (uploadDir != null) {
+                multipartTempDir = new File(uploadDir).toPath();
+            } else if (servletTempDir != null) {
+                multipartTempDir = servletTempDir.toPath();
+            }
+
+            // Budget mémoire commun à tous les uploads en cours (par défaut 1/4 du heap)
+            long budgetBytes = config.getLong("framework.upload.budget", Runtime.getRuntime().maxMemory() / 4);
+            UploadBudget.Policy budgetPolicy = "wait".equalsIgnoreCase(config.getString("framework.upload.budget.policy", "spill"))
+                ? UploadBudget.Policy.WAIT : UploadBudget.Policy.SPILL;
+            uploadBudget = new UploadBudget(budgetBytes, budgetPolicy,
+                config.getLong("framework.upload.budget.waitMillis", 2000));
+            getServletContext().setAttribute(UploadBudget.class.getName(), uploadBudget);
+            LOG.info("[Upload] Budget mémoire de {} octets ({})", budgetBytes, budgetPolicy);
+
+            if (config.getBoolean("framework.compression.enabled", true)) {
+                compression = new Compression(config.getInt("framework.compression.minSize", 1024),
+                    config.getInt("framework.compression.level", 6),
+                    config.getInt("framework.compression.poolSize", Runtime.getRuntime().availableProcessors() * 2));
+                LOG.info("[Compression] gzip/deflate au-delà de {} octets", compression.getMinSize());
+            }
+
+            staticResources = new StaticResources(getServletContext(),
+                config.getLong("framework.static.existenceTtl", 2000),
+                config.getInt("framework.static.maxEntries", 10000),
+                config.getBoolean("framework.static.cache", false),
+                config.getInt("framework.static.cache.maxFileSize", 64 * 1024),
+                config.getLong("framework.static.cache.maxBytes", 16L * 1024 * 1024),
+                compression);
+
+            jsonFlushElements = config.getInt("framework.json.flushElements", 100);
+            jsonFlushBytes = config.getInt("framework.json.flushBytes", 64 * 1024);
+
+            // Mode asynchrone: handlers @Async et CompletionStage sans bloquer un thread du conteneur
+            asyncTimeout = config.getLong("framework.async.timeout", 30000);
+            if (config.getBoolean("framework.async.enabled", false)) {
+                asyncDispatcher = new AsyncDispatcher(asyncTimeout);
+                LOG.info("[Async] Mode asynchrone activé ({}, délai {} ms)",
+                    asyncDispatcher.usesVirtualThreads() ? "threads virtuels" : "pool de threads", asyncTimeout);
+            }
+
+            // Latences et erreurs par route, publiées en JMX et éventuellement sur framework.metrics.path
+            if (config.getBoolean("framework.metrics.enabled", false)) {
+                metrics = new MetricsRegistry(getServletContext().getContextPath(),
+                    config.getBoolean("framework.metrics.jmx", true));
+                metricsPath = config.getString("framework.metrics.path", null);
+                getServletContext().setAttribute(MetricsRegistry.class.getName(), metrics);
+                LOG.info("[Metrics] Mesures par route activées{}", metricsPath != null ? " (" + metricsPath + ")" : "");
+
+                // Profil d'allocation: compteurs d'octets alloués par thread, relevés à chaque phase
+                if (config.getBoolean("framework.metrics.allocations", false)) {
+                    allocationProfiling = RequestTimings.enableAllocationTracking();
+                    if (allocationProfiling) {
+                        LOG.info("[Metrics] Profil d'allocation par route activé");
+                    } else {
+                        LOG.warn("[Metrics] Profil d'allocation indisponible sur cette JVM");
+                    }
+                }
+            }
+
+            if (config.getBoolean("framework.timing.enabled", false)) {
+                timingEnabled = true;
+                serverTimingHeader = config.getBoolean("framework.timing.header", false);
+                slowRequests = new SlowRequestLog(config.getLong("framework.timing.slowThreshold", 1000),
+                    config.getInt("framework.timing.slowCapacity", 64));
+                slowRequests.register(getServletContext().getContextPath());
+                slowRequestsPath = config.getString("framework.timing.slowPath", null);
+                getServletContext().setAttribute(SlowRequestLog.class.getName(), slowRequests);
+                LOG.info("[Timing] Durées par phase activées, requêtes lentes > {} ms", slowRequests.getThresholdMillis());
+            }
+
+            etagMaxBytes = config.getInt("framework.etag.maxBytes", 256 * 1024);
+
+            responseCaching = config.getBoolean("framework.cache.enabled", true);
+            if (responseCaching) {
+                int cachedHandlers = 0;
+                for (Route route : router.getTrie().getRoutes()) {
+                    for (HandlerDescriptor handler : route.getMethods().values()) {
+                        if (handler.getResponseCache() == null) continue;
+                        cachedHandlers++;
+                        if (metrics != null) {
+                            metrics.registerCache(handler.getPattern(), handler.getHttpMethod(), handler.getResponseCache());
+                        }
+                    }
+                }
+                if (cachedHandlers > 0) {
+                    LOG.info("[Cache] {} handlers @Cached", cachedHandlers);
+                }
+            }
             
-            System.out.println("=== Initialisation terminée ===");
+            LOG.info("=== Initialisation terminée ===");
         } catch (Exception e) {
-            e.printStackTrace();
+            LOG.error("Erreur lors de l'initialisation du Framework", e);
             throw new RuntimeException("Erreur lors de l'initialisation du Framework", e);
         }
     }
@@ -58,93 +254,347 @@ public class FrontServlet extends HttpServlet {
             path = path.substring(0, path.length() - 1);
         }
 
-        boolean resourceExists = getServletContext().getResource(path) != null;
+        // Contexte de mesure du thread, réutilisé d'une requête à l'autre
+        RequestTimings timings = (timingEnabled || allocationProfiling) ? RequestTimings.start(allocationProfiling) : null;
 
-        if (resourceExists) {
-            defaultServe(req, res);
-        } else {
-            customServe(req, res);
+        // Table exacte, puis cache, puis un seul parcours de l'arbre de routage.
+        // Un chemin routé ne consulte jamais les ressources statiques.
+        RouteMatch match = (router != null) ? router.resolve(path) : null;
+        if (timings != null) timings.end(RequestTimings.Phase.ROUTE);
+
+        if (match == null) {
+            StaticResources.Resource resource = staticResources.lookup(path);
+            if (timings != null) timings.end(RequestTimings.Phase.RESOURCE);
+            if (resource != null) {
+                if (!staticResources.serve(resource, req, res)) {
+                    defaultServe(req, res);
+                }
+                return;
+            }
         }
+        customServe(req, res, path, match, timings);
     }
 
-    private void customServe(HttpServletRequest req, HttpServletResponse res) throws IOException, ServletException {
-        String path = req.getRequestURI().substring(req.getContextPath().length());
-
-        // Normalize path by removing trailing slash (except for root "/")
-        if (path.endsWith("/") && path.length() > 1) {
-            path = path.substring(0, path.length() - 1);
+    private void customServe(HttpServletRequest req, HttpServletResponse res, String path, RouteMatch match,
+                             RequestTimings timings) throws IOException, ServletException {
+        if (metricsPath != null && metricsPath.equals(path)) {
+            sendMetrics(res);
+            return;
+        }
+        if (slowRequestsPath != null && slowRequestsPath.equals(path)) {
+            sendSlowRequests(res);
+            return;
         }
 
         String method = req.getMethod();
+        MultipartParser multipartParser = null;
+        Semaphore permits = null;
+        boolean handedOff = false;   // Requête confiée à l'AsyncDispatcher, qui libère lui-même
+        long startNanos = (metrics != null) ? System.nanoTime() : 0L;
+        HandlerDescriptor handler = null;
+        Throwable failure = null;
+        String cacheKey = null;
 
         try {
-            String matchingPattern = null;
-            Map<String, Method> methodMap = null;
-
-            if (urlMappings != null) {
-                for (String pattern : urlMappings.keySet()) {
-                    if (UrlPatternMatcher.matches(pattern, path)) {
-                        matchingPattern = pattern;
-                        methodMap = urlMappings.get(pattern);
-                        break;
+            Route route = (match != null) ? match.getRoute() : null;
+            handler = (route != null) ? route.getHandler(method) : null;
+
+            if (handler != null) {
+                // @Cached: un succès rejoue les octets déjà produits, sans liaison, appel ni sérialisation
+                ResponseCache cache = responseCaching ? handler.getResponseCache() : null;
+                if (cache != null && "GET".equals(method)) {
+                    cacheKey = cache.keyFor(req, match, renderVariant(req, handler));
+                    CachedResponse cached = cache.get(cacheKey);
+                    if (cached != null) {
+                        replay(cached, req, res);
+                        return;
                     }
                 }
-            }
 
-            if (methodMap != null && methodMap.containsKey(method)) {
-                Method handlerMethod = methodMap.get(method);
-                Object controllerInstance = findControllerInstance(handlerMethod.getDeclaringClass());
+                // Limite @Async(maxConcurrency): refus immédiat plutôt qu'une file d'attente
+                permits = handler.getConcurrencyLimit();
+                if (permits != null && !permits.tryAcquire()) {
+                    permits = null;
+                    sendStatus(res, HttpServletResponse.SC_SERVICE_UNAVAILABLE,
+                        "Service indisponible: trop de requêtes simultanées sur " + path);
+                    return;
+                }
 
-                if (controllerInstance != null) {
-                    // NOUVEAU: Parser multipart si nécessaire
-                    MultipartParser multipartParser = null;
-                    if (MultipartParser.isMultipartRequest(req)) {
-                        multipartParser = new MultipartParser();
-                        multipartParser.parse(req);
-                    }
-                    
-                    // UTILISATION DE LA NOUVELLE MÉTHODE avec multipart
-                    Object[] methodArgs = ScannerFramework.mapFormParametersToMethodArgs(
-                        handlerMethod, req, matchingPattern, path, multipartParser);
-                    Object result = handlerMethod.invoke(controllerInstance, methodArgs);
-                    req.setAttribute("calledMethod", handlerMethod);
-                    handleResult(result, path, req, res, handlerMethod);
-                } else {
-                    sendError(res, "Contrôleur non trouvé pour: " + path);
+                if (asyncDispatcher != null && req.isAsyncSupported() && (handler.isAsync() || handler.isDeferred())) {
+                    // Le thread du conteneur est rendu; parsing, appel et rendu se font à la complétion
+                    String requestPath = path;
+                    HandlerDescriptor target = handler;
+                    Semaphore acquired = permits;
+                    // @Cached: le résultat rendu à la complétion remplit aussi le cache
+                    String key = cacheKey;
+                    MultipartParser[] parser = new MultipartParser[1];
+                    // Le contexte du thread servira à la requête suivante: la suite est mesurée sur une copie
+                    RequestTimings detached = (timings != null) ? timings.detach() : null;
+                    asyncDispatcher.dispatch(target, req, res,
+                        () -> {
+                            parser[0] = parseMultipart(req);
+                            if (detached != null) detached.end(RequestTimings.Phase.MULTIPART);
+                            return invokeHandler(target, match, req, parser[0], detached);
+                        },
+                        result -> {
+                            if (detached != null) detached.end(RequestTimings.Phase.HANDLER);
+                            render(result, requestPath, req, res, target, detached, key);
+                        },
+                        (status, message) -> sendStatus(res, status, message),
+                        error -> {
+                            if (acquired != null) acquired.release();
+                            if (parser[0] != null) parser[0].cleanup();
+                            recordMetrics(target, startNanos, error, detached);
+                            // La requête est déjà terminée (complete): seule la méthode copiée est lue
+                            recordSlow(detached, method, requestPath, error);
+                        });
+                    handedOff = true;
+                    return;
+                }
+
+                // Mode bloquant: un CompletionStage est attendu sur le thread courant
+                multipartParser = parseMultipart(req);
+                if (timings != null) timings.end(RequestTimings.Phase.MULTIPART);
+                Object result = invokeHandler(handler, match, req, multipartParser, timings);
+                if (result instanceof CompletionStage) {
+                    result = await((CompletionStage<?>) result, handler);
+                    if (timings != null) timings.end(RequestTimings.Phase.HANDLER);
                 }
+                render(result, path, req, res, handler, timings, cacheKey);
             } else {
+                if (metrics != null) metrics.recordNotFound();
                 sendNotFound(res, path);
             }
+        } catch (UploadRejectedException e) {
+            failure = e;
+            // Budget mémoire épuisé: réponse immédiate, le client peut réessayer
+            sendStatus(res, HttpServletResponse.SC_SERVICE_UNAVAILABLE, "Service indisponible: " + e.getMessage());
+        } catch (TimeoutException e) {
+            failure = e;
+            sendStatus(res, HttpServletResponse.SC_SERVICE_UNAVAILABLE, "Délai dépassé: " + e.getMessage());
         } catch (Exception e) {
+            failure = e;
+            // Journalisée d'abord: l'écriture de la réponse d'erreur peut elle-même échouer
+            LOG.error("Erreur sur {} {}", method, path, e);
             sendError(res, "Erreur: " + e.getMessage());
-            e.printStackTrace();
+        } finally {
+            if (!handedOff) {
+                if (permits != null) {
+                    permits.release();
+                }
+                // Fichiers temporaires des uploads: supprimés une fois la réponse produite
+                if (multipartParser != null) {
+                    multipartParser.cleanup();
+                }
+                recordMetrics(handler, startNanos, failure, timings);
+                recordSlow(timings, method, path, failure);
+            }
         }
     }
 
-    private Object findControllerInstance(Class<?> controllerClass) {
-        for (Object controller : controllers.values()) {
-            if (controller.getClass().equals(controllerClass)) {
-                return controller;
+    // Server-Timing ne peut porter que les phases terminées avant l'écriture du corps (rendu exclu).
+    // Avec une clé de cache, la réponse part au client et sa copie est gardée pour @Cached.
+    private void render(Object result, String path, HttpServletRequest req, HttpServletResponse res,
+                        HandlerDescriptor handler, RequestTimings timings, String cacheKey)
+            throws IOException, ServletException {
+        if (timings != null && serverTimingHeader) {
+            res.setHeader("Server-Timing", timings.toServerTiming());
+        }
+        // Compression au plus près du client: le cache et l'ETag voient le corps non compressé
+        String encoding = (compression != null) ? compression.negotiate(req) : null;
+        CompressingResponse compressing = (encoding != null) ? new CompressingResponse(res, compression, encoding) : null;
+        HttpServletResponse out = (compressing != null) ? compressing : res;
+        boolean rendered = false;
+        try {
+            if (cacheKey != null) {
+                ResponseCache cache = handler.getResponseCache();
+                CapturingResponse capture = new CapturingResponse(out, cache.getMaxEntryBytes());
+                handleResult(result, path, req, capture, handler);
+                CachedResponse cached = capture.finish(System.currentTimeMillis() + cache.getTtlMillis());
+                if (cached != null) {
+                    cache.put(cacheKey, precompress(cached));
+                }
+            } else {
+                handleResult(result, path, req, out, handler);
+            }
+            if (compressing != null) {
+                compressing.finish();
+            }
+            rendered = true;
+        } finally {
+            if (compressing != null && !rendered) {
+                compressing.release();
             }
         }
-        return null;
+        if (timings != null) timings.end(RequestTimings.Phase.RENDER);
     }
 
-    private void handleResult(Object result, String path, HttpServletRequest req, HttpServletResponse res, Method handlerMethod)
-            throws IOException, ServletException {
+    // Forme gzip calculée une fois à la mise en cache, pour les corps assez gros et compressibles
+    private CachedResponse precompress(CachedResponse cached) {
+        if (compression == null || cached.getBody().length < compression.getMinSize()
+                || !compression.isCompressible(cached.getContentType())) {
+            return cached;
+        }
+        return cached.withGzip(compression.gzip(cached.getBody()));
+    }
 
-        Method calledMethod = (Method) req.getAttribute("calledMethod");
+    // Succès du cache @Cached: 304, forme gzip précalculée, ou corps (compressé à la volée en deflate)
+    private void replay(CachedResponse cached, HttpServletRequest req, HttpServletResponse res) throws IOException {
+        String encoding = (compression != null) ? compression.negotiate(req) : null;
+        boolean gzip = Compression.GZIP.equals(encoding) && cached.getGzipBody() != null;
+        // Même Vary et même ETag que la réponse rendue par CompressingResponse
+        boolean compressible = compression != null && compression.isCompressible(cached.getContentType());
+        String etag = cached.getHeader("ETag");
+        if (etag != null && Conditional.notModified(req, etag, -1)) {
+            if (compressible) {
+                res.addHeader("Vary", "Accept-Encoding");
+            }
+            boolean encoded = encoding != null && compressible && cached.getBody().length >= compression.getMinSize();
+            res.setHeader("ETag", encoded ? Compression.encodedEtag(etag, encoding) : etag);
+            res.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+        if (gzip) {
+            cached.writeHeadersTo(res);
+            res.setHeader("Content-Encoding", Compression.GZIP);
+            res.addHeader("Vary", "Accept-Encoding");
+            if (etag != null) {
+                res.setHeader("ETag", Compression.encodedEtag(etag, Compression.GZIP));
+            }
+            res.setContentLength(cached.getGzipBody().length);
+            res.getOutputStream().write(cached.getGzipBody());
+            return;
+        }
+        if (encoding != null) {
+            CompressingResponse compressing = new CompressingResponse(res, compression, encoding);
+            cached.writeTo(compressing);
+            compressing.finish();
+            return;
+        }
+        if (compressible) {
+            res.addHeader("Vary", "Accept-Encoding");
+        }
+        cached.writeTo(res);
+    }
+
+    // Rendu différent pour une même clé (JSON en ndjson selon Accept)
+    private static String renderVariant(HttpServletRequest req, HandlerDescriptor handler) {
+        if (handler.getResultKind() != HandlerDescriptor.ResultKind.JSON) {
+            return null;
+        }
+        String accept = req.getHeader("Accept");
+        return (accept != null && accept.contains("application/x-ndjson")) ? "ndjson" : null;
+    }
+
+    private void recordSlow(RequestTimings timings, String method, String path, Throwable failure) {
+        if (slowRequests != null && timings != null && slowRequests.offer(timings, method, path, failure)) {
+            LOG.debug("[Timing] Requête lente: {} {} ({} ms)", method, path, timings.getElapsed() / 1_000_000);
+        }
+    }
+
+    private void recordMetrics(HandlerDescriptor handler, long startNanos, Throwable failure, RequestTimings timings) {
+        if (metrics != null && handler != null) {
+            RouteMetrics route = metrics.forHandler(handler, handler.getPattern(), handler.getHttpMethod());
+            route.record(System.nanoTime() - startNanos, failure);
+            if (allocationProfiling && timings != null) {
+                route.recordAllocations(timings);
+            }
+        }
+    }
+
+    /**
+     * Parser multipart si nécessaire (en flux, gros fichiers sur disque), null sinon
+     */
+    private MultipartParser parseMultipart(HttpServletRequest req) throws IOException, ServletException {
+        if (!MultipartParser.isMultipartRequest(req)) {
+            return null;
+        }
+        MultipartParser multipartParser = new MultipartParser(multipartMemoryThreshold, multipartMaxFileSize,
+            multipartMaxRequestSize, multipartTempDir, uploadBudget);
+        multipartParser.parse(req);
+        return multipartParser;
+    }
 
-        boolean isJson = false;
+    private Object invokeHandler(HandlerDescriptor handler, RouteMatch match, HttpServletRequest req,
+                                 MultipartParser multipartParser, RequestTimings timings) throws Exception {
+        // Plan de liaison compilé au scan (variables de chemin lues par index)
+        Object[] methodArgs = handler.getBindingPlan().bind(req, match, multipartParser);
+        if (timings != null) timings.end(RequestTimings.Phase.BIND);
+        // Appel direct via le MethodHandle préparé au scan (pas de réflexion)
+        Object result = handler.invoke(methodArgs);
+        if (timings != null) timings.end(RequestTimings.Phase.HANDLER);
+        req.setAttribute("calledMethod", handler.getMethod());
+        return result;
+    }
+
+    // Attente bornée d'un CompletionStage quand le mode asynchrone n'est pas disponible
+    private Object await(CompletionStage<?> stage, HandlerDescriptor handler) throws Exception {
+        long timeout = handler.getAsyncTimeout() > 0 ? handler.getAsyncTimeout() : asyncTimeout;
+        try {
+            return stage.toCompletableFuture().get(timeout, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            stage.toCompletableFuture().cancel(true);
+            throw new TimeoutException(timeout + " ms sur " + handler);
+        } catch (ExecutionException e) {
+            Throwable cause = AsyncDispatcher.unwrap(e);
+            if (cause instanceof Exception) throw (Exception) cause;
+            throw e;
+        }
+    }
+
+    private void handleResult(Object result, String path, HttpServletRequest req, HttpServletResponse res, HandlerDescriptor handler)
+            throws IOException, ServletException {
+        String method = req.getMethod();
+        boolean conditional = "GET".equals(method) || "HEAD".equals(method);
+
+        // Version fournie par le handler: 304 sans sérialiser
+        if (result instanceof Versioned) {
+            Versioned versioned = (Versioned) result;
+            String etag = (versioned.getVersion() != null) ? Conditional.etagOf(versioned.getVersion()) : null;
+            long lastModified = versioned.getLastModified();
+            if (etag != null) {
+                res.setHeader("ETag", etag);
+            }
+            if (lastModified >= 0) {
+                res.setHeader("Last-Modified", Conditional.httpDate(lastModified));
+            }
+            if (conditional && Conditional.notModified(req, etag, lastModified)) {
+                res.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+                return;
+            }
+            if (result instanceof VersionedResult) {
+                result = ((VersionedResult<?>) result).getBody();
+            }
+            renderBody(result, path, req, res, handler);
+            return;
+        }
 
-        if (calledMethod != null && calledMethod.isAnnotationPresent(Json.class)) {
-            isJson = true;
+        // Sinon empreinte du corps au fil de l'écriture (hors vues et flux JSON paresseux)
+        if (conditional && etagMaxBytes > 0 && !(result instanceof ModelView)
+                && !(result instanceof BaseStream) && !(result instanceof Iterator)) {
+            EtagResponse tagged = new EtagResponse(res, etagMaxBytes);
+            renderBody(result, path, req, tagged, handler);
+            tagged.finish(req);
+            return;
         }
+        renderBody(result, path, req, res, handler);
+    }
+
+    private void renderBody(Object result, String path, HttpServletRequest req, HttpServletResponse res, HandlerDescriptor handler)
+            throws IOException, ServletException {
 
-        if (isJson) {
+        // Type de rendu résolu une fois au scan (@Json, ModelView, String...)
+        if (handler.getResultKind() == HandlerDescriptor.ResultKind.JSON) {
+            String accept = req.getHeader("Accept");
+            if (accept != null && accept.contains("application/x-ndjson")) {
+                // Un élément par ligne, négocié par le client
+                res.setContentType("application/x-ndjson; charset=UTF-8");
+                JsonSerializer.writeNdjson(result, res.getOutputStream(), jsonFlushElements, jsonFlushBytes);
+                return;
+            }
             res.setContentType("application/json; charset=UTF-8");
-            String json = toJsonResponse(result);
-            res.getWriter().write(json);
+            // Écriture en flux, directement en UTF-8 dans la réponse (vidée par paquets pour un Stream)
+            JsonSerializer.writeEnvelope(result, res.getOutputStream(), jsonFlushElements, jsonFlushBytes);
             return;
         }
 
@@ -156,13 +606,15 @@ public class FrontServlet extends HttpServlet {
             return;
         }
 
-        if (result instanceof String) {
+        HandlerDescriptor.ResultKind kind = handler.getResultKind();
+
+        if (kind == HandlerDescriptor.ResultKind.STRING || result instanceof String) {
             res.setContentType("text/plain; charset=UTF-8");
             res.getWriter().println("Résultat: " + result);
             return;
         }
 
-        if (result instanceof view.ModelView) {
+        if (kind == HandlerDescriptor.ResultKind.MODEL_VIEW || result instanceof view.ModelView) {
             view.ModelView mv = (view.ModelView) result;
             String viewPath = mv.getView();
             if (viewPath == null || viewPath.isEmpty()) {
@@ -176,6 +628,12 @@ public class FrontServlet extends HttpServlet {
                 req.setAttribute(entry.getKey(), entry.getValue());
             }
 
+            if (req.isAsyncStarted()) {
+                // Mode asynchrone: la vue est rendue par le conteneur via l'AsyncContext
+                req.getAsyncContext().dispatch("/" + viewPath);
+                return;
+            }
+
             RequestDispatcher dispatcher = getServletContext().getRequestDispatcher("/" + viewPath);
             if (dispatcher != null) {
                 dispatcher.forward(req, res);
@@ -190,81 +648,67 @@ public class FrontServlet extends HttpServlet {
         res.getWriter().println("Résultat (" + result.getClass().getSimpleName() + "): " + result);
     }
 
-    // Ajoute une méthode utilitaire pour formatter la réponse JSON
-
-    private String toJsonResponse(Object result) {
-        StringBuilder sb = new StringBuilder();
-
-        sb.append("{\n");
-        sb.append("  \"statut\": \"success\",\n");
-
-        sb.append("  \"code\": 200,\n");
+    private void sendNotFound(HttpServletResponse res, String path) throws IOException {
+        res.setContentType("text/html; charset=UTF-8");
+        res.setStatus(HttpServletResponse.SC_NOT_FOUND);
+        res.getWriter().println("<h1>URL non supportée: " + path + "</h1>");
+    }
 
-        if (result instanceof java.util.List) {
-            java.util.List<?> list = (java.util.List<?>) result;
-            sb.append("  \"count\": ").append(list.size()).append(",\n");
-            sb.append("  \"data\": ").append(listToJson(list)).append("\n");
-        } else {
-            sb.append("  \"data\": ").append(objectToJson(result)).append("\n");
-        }
-        sb.append("}");
-        return sb.toString();
+    private void sendMetrics(HttpServletResponse res) throws IOException {
+        res.setContentType("text/plain; version=0.0.4; charset=UTF-8");
+        res.setHeader("Cache-Control", "no-store");
+        res.getWriter().write(metrics.toPrometheus());
     }
 
-    private String listToJson(java.util.List<?> list) {
-        StringBuilder sb = new StringBuilder();
-        sb.append("[");
-        for (int i = 0; i < list.size(); i++) {
-            sb.append(objectToJson(list.get(i)));
-            if (i < list.size() - 1) sb.append(", ");
-        }
-        sb.append("]");
-        return sb.toString();
+    private void sendSlowRequests(HttpServletResponse res) throws IOException {
+        res.setContentType("text/plain; charset=UTF-8");
+        res.setHeader("Cache-Control", "no-store");
+        res.getWriter().write(slowRequests.toText());
     }
 
-    private String objectToJson(Object obj) {
-        if (obj == null) return "null";
-        if (obj instanceof String) {
-            return "\"" + obj.toString() + "\"";
+    private void sendStatus(HttpServletResponse res, int status, String message) throws IOException {
+        if (res.isCommitted()) {
+            // Statut et début du corps déjà partis: rien à ajouter au document tronqué
+            return;
         }
-        if (obj instanceof Number || obj instanceof Boolean) {
-            return obj.toString();
+        // En-têtes (ETag, Content-Encoding...) et corps partiel du rendu abandonné
+        res.reset();
+        if (status == HttpServletResponse.SC_SERVICE_UNAVAILABLE) {
+            res.setHeader("Retry-After", "1");
         }
-        // Simple POJO to JSON (fields only, no nested objects)
-        StringBuilder sb = new StringBuilder();
-        sb.append("{");
-        java.lang.reflect.Field[] fields = obj.getClass().getDeclaredFields();
-        for (int i = 0; i < fields.length; i++) {
-            fields[i].setAccessible(true);
-            try {
-                sb.append("\"").append(fields[i].getName()).append("\": ");
-               Object val = fields[i].get(obj);
-
-                if (val == null) sb.append("null");
-                else if (val instanceof String) sb.append("\"").append(val).append("\"");
-                else sb.append(val.toString());
-            } catch (Exception e) {
-                sb.append("\"error\"");
-            }
-            if (i < fields.length - 1) sb.append(", ");
+        res.setContentType("text/plain; charset=UTF-8");
+        res.setStatus(status);
+        try {
+            res.getWriter().println(message);
+        } catch (IllegalStateException e) {
+            // Le rendu a déjà pris le flux binaire (JSON): le message passe par le même flux
+            res.getOutputStream().write((message + "\n").getBytes(StandardCharsets.UTF_8));
         }
-        sb.append("}");
-        return sb.toString();
-    }
-
-    private void sendNotFound(HttpServletResponse res, String path) throws IOException {
-        res.setContentType("text/html; charset=UTF-8");
-        res.setStatus(HttpServletResponse.SC_NOT_FOUND);
-        res.getWriter().println("<h1>URL non supportée: " + path + "</h1>");
     }
 
     private void sendError(HttpServletResponse res, String message) throws IOException {
-        res.setContentType("text/plain; charset=UTF-8");
-        res.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
-        res.getWriter().println(message);
+        sendStatus(res, HttpServletResponse.SC_INTERNAL_SERVER_ERROR, message);
     }
 
     private void defaultServe(HttpServletRequest req, HttpServletResponse res) throws ServletException, IOException {
         defaultDispatcher.forward(req, res);
     }
-}
\ No newline at end of file
+
+    @Override
+    public void destroy() {
+        if (asyncDispatcher != null) {
+            asyncDispatcher.shutdown();
+        }
+        if (metrics != null) {
+            metrics.close();
+        }
+        if (slowRequests != null) {
+            slowRequests.close();
+        }
+        if (compression != null) {
+            compression.close();
+        }
+        // Écrit les derniers messages et arrête le thread du log
+        Logger.shutdown();
+    }
+}
@@ -0,0 +1,283 @@
+package front;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import jakarta.servlet.ServletContext;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import log.Logger;
+
+/**
+ * Ressources statiques: existence mise en cache et, en option, petits fichiers servis depuis la mémoire.
+ *
+ * getResource() du conteneur touche en général le disque: le résultat (présent ou absent) est
+ * gardé ttl ms, puis revalidé par la date de modification du fichier. Avec le cache de contenu,
+ * les fichiers de moins de maxFileSize octets sont servis directement (ETag, Content-Length,
+ * Last-Modified précalculés, 304 sur requête conditionnelle), sans passer par le servlet par défaut.
+ */
+class StaticResources {
+
+    private static final Logger LOG = Logger.getLogger(StaticResources.class);
+
+    /**
+     * Ressource trouvée (fichier réel si le conteneur en expose un, contenu si mis en cache).
+     * Une entrée sans url mémorise une absence.
+     */
+    static final class Resource {
+        final URL url;
+        final File file;               // null si la ressource n'est pas un fichier (WAR non déployé...)
+        final long lastModified;
+        volatile long checkedAt;       // Revalidation sur place: une seule instance par chemin dans la table
+        final byte[] content;          // null = non mis en cache
+        final String etag;
+        final String lastModifiedHeader;
+        final String contentType;
+        volatile byte[] gzipContent;   // Forme gzip, calculée au premier client qui l'accepte
+        boolean evicted;               // Sortie de la table (sous le verrou de l'instance): plus rien n'y est compté
+
+        Resource(URL url, File file, long lastModified, long checkedAt, byte[] content, String contentType) {
+            this.url = url;
+            this.file = file;
+            this.lastModified = lastModified;
+            this.checkedAt = checkedAt;
+            this.content = content;
+            this.contentType = contentType;
+            if (content != null) {
+                this.etag = "\"" + Long.toHexString(content.length) + "-" + Long.toHexString(lastModified) + "\"";
+                this.lastModifiedHeader = Conditional.httpDate(lastModified);
+            } else {
+                this.etag = null;
+                this.lastModifiedHeader = null;
+            }
+        }
+
+        long cachedBytes() {
+            byte[] gzip = gzipContent;
+            return (content != null ? content.length : 0) + (gzip != null ? gzip.length : 0);
+        }
+    }
+
+    private final ServletContext context;
+    private final long ttlMillis;
+    private final int maxEntries;
+    private final boolean cacheContent;
+    private final int maxFileSize;
+    private final long maxCacheBytes;
+    private final Compression compression;   // null = pas de forme gzip
+    private final ConcurrentHashMap<String, Resource> entries = new ConcurrentHashMap<>();
+    private final AtomicLong cachedBytes = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder lookups = new LongAdder();
+    private final LongAdder servedFromMemory = new LongAdder();
+
+    /**
+     * @param ttlMillis durée de validité d'une vérification (0 = pas de cache, getResource à chaque requête)
+     * @param maxEntries nombre maximal de chemins mémorisés (au-delà, les absents ne sont plus retenus)
+     * @param cacheContent sert les petits fichiers depuis la mémoire
+     * @param compression gzip des fichiers en mémoire (null = jamais compressés)
+     */
+    StaticResources(ServletContext context, long ttlMillis, int maxEntries,
+                    boolean cacheContent, int maxFileSize, long maxCacheBytes, Compression compression) {
+        this.context = context;
+        this.ttlMillis = ttlMillis;
+        this.maxEntries = maxEntries;
+        this.cacheContent = cacheContent;
+        this.maxFileSize = maxFileSize;
+        this.maxCacheBytes = maxCacheBytes;
+        this.compression = compression;
+    }
+
+    /**
+     * Ressource statique du chemin, null si elle n'existe pas
+     */
+    Resource lookup(String path) throws MalformedURLException {
+        if (isProtected(path)) {
+            // Servi sans le servlet par défaut: son refus de WEB-INF/META-INF est refait ici
+            return null;
+        }
+        if (ttlMillis <= 0) {
+            URL url = context.getResource(path);
+            return (url != null) ? new Resource(url, null, 0, 0, null, null) : null;
+        }
+
+        long now = System.currentTimeMillis();
+        Resource entry = entries.get(path);
+        if (entry != null && now - entry.checkedAt < ttlMillis) {
+            hits.increment();
+            return (entry.url == null) ? null : entry;
+        }
+
+        // Entrée expirée: un fichier inchangé est simplement revalidé (un seul stat)
+        if (entry != null && entry.file != null && entry.file.lastModified() == entry.lastModified) {
+            entry.checkedAt = now;
+            hits.increment();
+            return entry;
+        }
+
+        lookups.increment();
+        Resource resolved = resolve(path, now);
+        Resource previous = (resolved != null) ? entries.put(path, resolved) : null;
+        if (resolved == null) {
+            // Chemins absents: bornés, pour qu'un balayage d'URL au hasard ne remplisse pas la mémoire
+            if (entries.size() < maxEntries) {
+                previous = entries.put(path, new Resource(null, null, 0, now, null, null));
+            } else {
+                previous = entries.remove(path);
+            }
+        }
+        if (previous != null) {
+            release(previous);
+        }
+        return resolved;
+    }
+
+    // Entrée remplacée ou retirée: ses octets (contenu et gzip) sont décomptés une seule fois
+    private void release(Resource resource) {
+        synchronized (resource) {
+            resource.evicted = true;
+            cachedBytes.addAndGet(-resource.cachedBytes());
+        }
+    }
+
+    /**
+     * WEB-INF et META-INF ne sont jamais servis. Casse, points et espaces finaux ignorés comme par
+     * le système de fichiers Windows ("/web-inf./web.xml" y désigne WEB-INF/web.xml).
+     */
+    static boolean isProtected(String path) {
+        String normalized = "/" + path.replace('\\', '/');
+        while (normalized.contains("//")) {
+            normalized = normalized.replace("//", "/");
+        }
+        while (normalized.startsWith("/./")) {
+            normalized = normalized.substring(2);
+        }
+        if (normalized.contains("/../") || normalized.endsWith("/..")) {
+            return true;
+        }
+        int end = normalized.indexOf('/', 1);
+        String segment = (end < 0) ? normalized.substring(1) : normalized.substring(1, end);
+        int length = segment.length();
+        while (length > 0 && (segment.charAt(length - 1) == '.' || segment.charAt(length - 1) == ' ')) {
+            length--;
+        }
+        segment = segment.substring(0, length);
+        return segment.equalsIgnoreCase("WEB-INF") || segment.equalsIgnoreCase("META-INF");
+    }
+
+    private Resource resolve(String path, long now) throws MalformedURLException {
+        URL url = context.getResource(path);
+        if (url == null) {
+            return null;
+        }
+        String realPath = context.getRealPath(path);
+        File file = (realPath != null) ? new File(realPath) : null;
+        if (file == null || !file.isFile()) {
+            // Dossier (fichiers d'accueil) ou ressource sans fichier: le servlet par défaut s'en charge
+            return new Resource(url, null, 0, now, null, null);
+        }
+
+        long lastModified = file.lastModified();
+        byte[] content = null;
+        if (cacheContent && file.length() <= maxFileSize && cachedBytes.get() + file.length() <= maxCacheBytes) {
+            try {
+                content = Files.readAllBytes(file.toPath());
+                cachedBytes.addAndGet(content.length);
+            } catch (IOException e) {
+                LOG.warn("[Static] Lecture impossible de {}: {}", path, e.getMessage());
+            }
+        }
+        return new Resource(url, file, lastModified, now, content, context.getMimeType(path));
+    }
+
+    /**
+     * Sert la ressource depuis la mémoire si possible. Retourne false si le servlet par défaut doit s'en charger.
+     */
+    boolean serve(Resource resource, HttpServletRequest req, HttpServletResponse res) throws IOException {
+        if (resource.content == null) {
+            return false;
+        }
+        String method = req.getMethod();
+        boolean head = "HEAD".equals(method);
+        if (!head && !"GET".equals(method)) {
+            return false;
+        }
+
+        // Seule la forme gzip est gardée en mémoire: un client "deflate" seul reçoit le fichier tel quel
+        boolean compressible = compression != null && resource.content.length >= compression.getMinSize()
+            && compression.isCompressible(resource.contentType);
+        boolean gzip = compressible && Compression.GZIP.equals(compression.negotiate(req));
+        if (compressible) {
+            res.addHeader("Vary", "Accept-Encoding");
+        }
+
+        res.setHeader("ETag", gzip ? Compression.encodedEtag(resource.etag, Compression.GZIP) : resource.etag);
+        res.setHeader("Last-Modified", resource.lastModifiedHeader);
+        if (Conditional.notModified(req, resource.etag, resource.lastModified)) {
+            res.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return true;
+        }
+
+        byte[] body = resource.content;
+        if (gzip) {
+            body = gzipContent(resource);
+            res.setHeader("Content-Encoding", Compression.GZIP);
+        }
+        if (resource.contentType != null) {
+            res.setContentType(resource.contentType);
+        }
+        res.setContentLength(body.length);
+        if (!head) {
+            res.getOutputStream().write(body);
+        }
+        servedFromMemory.increment();
+        return true;
+    }
+
+    private byte[] gzipContent(Resource resource) {
+        byte[] gzip = resource.gzipContent;
+        if (gzip == null) {
+            // Compressé une seule fois, même si les premiers clients arrivent ensemble
+            synchronized (resource) {
+                gzip = resource.gzipContent;
+                if (gzip == null) {
+                    gzip = compression.gzip(resource.content);
+                    // Instance remplacée entre-temps (fichier modifié): la forme sert à cette réponse seulement
+                    if (!resource.evicted) {
+                        resource.gzipContent = gzip;
+                        cachedBytes.addAndGet(gzip.length);
+                    }
+                }
+            }
+        }
+        return gzip;
+    }
+
+    // Compteurs
+    long getHits() {
+        return hits.sum();
+    }
+
+    long getLookups() {
+        return lookups.sum();
+    }
+
+    long getServedFromMemory() {
+        return servedFromMemory.sum();
+    }
+
+    long getCachedBytes() {
+        return cachedBytes.get();
+    }
+
+    int size() {
+        return entries.size();
+    }
+}
@@ -0,0 +1,426 @@
+package json;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.BaseStream;
+
+import log.Logger;
+
+/**
+ * Sérialisation JSON des résultats @Json, en flux vers la réponse.
+ *
+ * Les accesseurs de champs de chaque classe (MethodHandle + nom déjà encodé)
+ * sont calculés la première fois que la classe est rencontrée (ClassValue).
+ * Supporte les objets imbriqués, collections, maps et tableaux.
+ *
+ * Un résultat Stream, Iterator ou Iterable est écrit élément par élément et la réponse
+ * est vidée tous les N éléments ou octets: le premier octet part sans attendre la fin
+ * de l'export et la mémoire utilisée ne dépend pas du nombre d'éléments.
+ */
+public final class JsonSerializer {
+
+    private static final Logger LOG = Logger.getLogger(JsonSerializer.class);
+
+    private static final int MAX_DEPTH = 64;
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    private static final byte[] ENVELOPE_START = ascii("{\n  \"statut\": \"success\",\n  \"code\": 200,\n");
+    private static final byte[] COUNT = ascii("  \"count\": ");
+    private static final byte[] DATA = ascii("  \"data\": ");
+    private static final byte[] ENVELOPE_END = ascii("\n}");
+    private static final byte[] TRAILING_COUNT = ascii(",\n  \"count\": ");
+    private static final byte[] SEPARATOR = ascii(", ");
+    private static final byte[] NEWLINE = ascii("\n");
+
+    private static final ClassValue<ClassMeta> METADATA = new ClassValue<ClassMeta>() {
+        @Override
+        protected ClassMeta computeValue(Class<?> type) {
+            return new ClassMeta(type);
+        }
+    };
+
+    private JsonSerializer() {}
+
+    /**
+     * Écrit l'enveloppe {statut, code, count, data} du framework
+     */
+    public static void writeEnvelope(Object result, OutputStream out) throws IOException {
+        JsonWriter writer = new JsonWriter(out);
+        boolean done = false;
+        try {
+            writeEnvelope(result, writer);
+            writer.finish();
+            done = true;
+        } finally {
+            if (!done) writer.discard();
+        }
+    }
+
+    public static void writeEnvelope(Object result, JsonWriter writer) throws IOException {
+        writer.writeRaw(ENVELOPE_START);
+        int count = countOf(result);
+        if (count >= 0) {
+            writer.writeRaw(COUNT).writeLong(count).writeByte(',').writeByte('\n');
+        }
+        writer.writeRaw(DATA);
+        write(result, writer, 0);
+        writer.writeRaw(ENVELOPE_END);
+    }
+
+    /**
+     * Enveloppe écrite élément par élément pour les résultats séquentiels, avec vidage périodique
+     * de la réponse pour les seuls résultats paresseux (Stream, Iterator).
+     * Pour un Stream, un Iterator ou un Iterable (non Collection), "count" est écrit après "data".
+     */
+    public static void writeEnvelope(Object result, OutputStream out, int flushElements, int flushBytes)
+            throws IOException {
+        if (!isStreamable(result)) {
+            writeEnvelope(result, out);
+            return;
+        }
+        JsonWriter writer = new JsonWriter(out);
+        boolean done = false;
+        try {
+            writer.writeRaw(ENVELOPE_START);
+            int count = countOf(result);
+            if (count >= 0) {
+                writer.writeRaw(COUNT).writeLong(count).writeByte(',').writeByte('\n');
+            }
+            writer.writeRaw(DATA).writeByte('[');
+            long written = writeElements(result, writer, SEPARATOR, flushElements, flushBytes);
+            writer.writeByte(']');
+            if (count < 0) {
+                writer.writeRaw(TRAILING_COUNT).writeLong(written);
+            }
+            writer.writeRaw(ENVELOPE_END);
+            writer.finish();
+            done = true;
+        } finally {
+            // Échec en cours de document: rien de plus n'est envoyé (ce qui a été vidé reste parti)
+            if (!done) writer.discard();
+        }
+    }
+
+    /**
+     * NDJSON (application/x-ndjson): un document JSON par ligne, un par élément du résultat
+     */
+    public static void writeNdjson(Object result, OutputStream out, int flushElements, int flushBytes)
+            throws IOException {
+        JsonWriter writer = new JsonWriter(out);
+        boolean done = false;
+        try {
+            if (isStreamable(result)) {
+                if (writeElements(result, writer, NEWLINE, flushElements, flushBytes) > 0) {
+                    writer.writeRaw(NEWLINE);
+                }
+            } else {
+                write(result, writer, 0);
+                writer.writeRaw(NEWLINE);
+            }
+            writer.finish();
+            done = true;
+        } finally {
+            if (!done) writer.discard();
+        }
+    }
+
+    /**
+     * Vrai si le résultat peut être écrit élément par élément
+     */
+    public static boolean isStreamable(Object result) {
+        return result instanceof BaseStream || result instanceof Iterator
+            || result instanceof Iterable
+            || (result != null && result.getClass().isArray());
+    }
+
+    /**
+     * Vrai si les éléments sont produits au fil de l'écriture (Stream, Iterator): seul cas où vider
+     * la réponse en cours de document se justifie
+     */
+    public static boolean isLazy(Object result) {
+        return result instanceof BaseStream || result instanceof Iterator;
+    }
+
+    // Écrit les éléments de premier niveau. Un résultat paresseux vide la réponse tous les N éléments / octets;
+    // une collection déjà en mémoire part d'un bloc, la réponse restant annulable jusqu'au bout.
+    private static long writeElements(Object result, JsonWriter writer, byte[] separator,
+                                      int flushElements, int flushBytes) throws IOException {
+        if (!isLazy(result)) {
+            flushElements = 0;
+            flushBytes = 0;
+        }
+        long count = 0;
+        long flushedAt = writer.getBytesWritten();
+        Iterator<?> elements = iteratorOf(result);
+        try {
+            while (elements.hasNext()) {
+                if (count > 0) writer.writeRaw(separator);
+                write(elements.next(), writer, 1);
+                count++;
+                if ((flushElements > 0 && count % flushElements == 0)
+                        || (flushBytes > 0 && writer.getBytesWritten() - flushedAt >= flushBytes)) {
+                    writer.flush();
+                    flushedAt = writer.getBytesWritten();
+                }
+            }
+        } finally {
+            // Un Stream peut tenir une ressource (curseur, fichier): fermé à la fin de l'écriture
+            if (result instanceof BaseStream) {
+                ((BaseStream<?, ?>) result).close();
+            }
+        }
+        return count;
+    }
+
+    private static Iterator<?> iteratorOf(Object value) {
+        if (value instanceof BaseStream) return ((BaseStream<?, ?>) value).iterator();
+        if (value instanceof Iterator) return (Iterator<?>) value;
+        if (value instanceof Iterable) return ((Iterable<?>) value).iterator();
+        if (value instanceof Object[]) return Arrays.asList((Object[]) value).iterator();
+        if (value != null && value.getClass().isArray()) {
+            Object array = value;
+            int length = Array.getLength(array);
+            return new Iterator<Object>() {
+                int index;
+
+                @Override
+                public boolean hasNext() {
+                    return index < length;
+                }
+
+                @Override
+                public Object next() {
+                    return Array.get(array, index++);
+                }
+            };
+        }
+        return Collections.emptyIterator();
+    }
+
+    /**
+     * Nombre d'éléments pour le champ "count", -1 si le résultat n'est pas une collection
+     */
+    public static int countOf(Object result) {
+        if (result instanceof Collection) return ((Collection<?>) result).size();
+        if (result != null && result.getClass().isArray()) return Array.getLength(result);
+        return -1;
+    }
+
+    /**
+     * Écrit une valeur JSON quelconque
+     */
+    public static void write(Object value, JsonWriter writer) throws IOException {
+        write(value, writer, 0);
+    }
+
+    private static void write(Object value, JsonWriter writer, int depth) throws IOException {
+        if (value == null) {
+            writer.writeNull();
+            return;
+        }
+        if (depth > MAX_DEPTH) {
+            throw new IllegalStateException("JSON: profondeur maximale atteinte (référence circulaire ?) sur "
+                + value.getClass().getName());
+        }
+
+        if (value instanceof CharSequence) {
+            writer.writeString((CharSequence) value);
+        } else if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte) {
+            writer.writeLong(((Number) value).longValue());
+        } else if (value instanceof Double) {
+            writer.writeDouble((Double) value);
+        } else if (value instanceof Float) {
+            writer.writeFloat((Float) value);
+        } else if (value instanceof BigDecimal || value instanceof BigInteger) {
+            writer.writeAscii(value.toString());
+        } else if (value instanceof Boolean) {
+            writer.writeBoolean((Boolean) value);
+        } else if (value instanceof Character || value instanceof Enum) {
+            writer.writeString(value instanceof Enum ? ((Enum<?>) value).name() : value.toString());
+        } else if (value instanceof Map) {
+            writeMap((Map<?, ?>) value, writer, depth);
+        } else if (value instanceof Iterable) {
+            writeIterable((Iterable<?>) value, writer, depth);
+        } else if (value instanceof Iterator || value instanceof BaseStream) {
+            writeSequence(iteratorOf(value), writer, depth);
+        } else if (value.getClass().isArray()) {
+            writeArray(value, writer, depth);
+        } else {
+            ClassMeta meta = METADATA.get(value.getClass());
+            if (meta.valueType) {
+                // Date, UUID, URI, autres Number...: représentation texte
+                writer.writeString(value.toString());
+            } else {
+                meta.write(value, writer, depth);
+            }
+        }
+    }
+
+    private static void writeMap(Map<?, ?> map, JsonWriter writer, int depth) throws IOException {
+        writer.writeByte('{');
+        boolean first = true;
+        for (Map.Entry<?, ?> entry : map.entrySet()) {
+            if (!first) writer.writeRaw(SEPARATOR);
+            first = false;
+            writer.writeString(String.valueOf(entry.getKey())).writeByte(':').writeByte(' ');
+            write(entry.getValue(), writer, depth + 1);
+        }
+        writer.writeByte('}');
+    }
+
+    private static void writeIterable(Iterable<?> values, JsonWriter writer, int depth) throws IOException {
+        writer.writeByte('[');
+        boolean first = true;
+        for (Object value : values) {
+            if (!first) writer.writeRaw(SEPARATOR);
+            first = false;
+            write(value, writer, depth + 1);
+        }
+        writer.writeByte(']');
+    }
+
+    private static void writeSequence(Iterator<?> values, JsonWriter writer, int depth) throws IOException {
+        writer.writeByte('[');
+        boolean first = true;
+        while (values.hasNext()) {
+            if (!first) writer.writeRaw(SEPARATOR);
+            first = false;
+            write(values.next(), writer, depth + 1);
+        }
+        writer.writeByte(']');
+    }
+
+    private static void writeArray(Object array, JsonWriter writer, int depth) throws IOException {
+        writer.writeByte('[');
+        if (array instanceof int[]) {
+            int[] values = (int[]) array;
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) writer.writeRaw(SEPARATOR);
+                writer.writeLong(values[i]);
+            }
+        } else if (array instanceof long[]) {
+            long[] values = (long[]) array;
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) writer.writeRaw(SEPARATOR);
+                writer.writeLong(values[i]);
+            }
+        } else if (array instanceof double[]) {
+            double[] values = (double[]) array;
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) writer.writeRaw(SEPARATOR);
+                writer.writeDouble(values[i]);
+            }
+        } else if (array instanceof float[]) {
+            float[] values = (float[]) array;
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) writer.writeRaw(SEPARATOR);
+                writer.writeFloat(values[i]);
+            }
+        } else if (array instanceof Object[]) {
+            Object[] values = (Object[]) array;
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) writer.writeRaw(SEPARATOR);
+                write(values[i], writer, depth + 1);
+            }
+        } else {
+            // Autres tableaux primitifs (boolean[], char[], byte[], short[])
+            int length = Array.getLength(array);
+            for (int i = 0; i < length; i++) {
+                if (i > 0) writer.writeRaw(SEPARATOR);
+                write(Array.get(array, i), writer, depth + 1);
+            }
+        }
+        writer.writeByte(']');
+    }
+
+    private static byte[] ascii(String s) {
+        return s.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    // ------------------------------
+    // Métadonnées par classe
+    // ------------------------------
+    private static final class ClassMeta {
+        final boolean valueType;
+        final byte[][] names;           // "\"champ\": " déjà échappé et encodé
+        final MethodHandle[] getters;   // (Object) -> Object
+
+        ClassMeta(Class<?> type) {
+            String name = type.getName();
+            this.valueType = name.startsWith("java.") || name.startsWith("javax.") || Number.class.isAssignableFrom(type);
+
+            List<byte[]> fieldNames = new ArrayList<>();
+            List<MethodHandle> fieldGetters = new ArrayList<>();
+            if (!valueType) {
+                // Champs de la hiérarchie, ceux de la superclasse d'abord
+                List<Class<?>> hierarchy = new ArrayList<>();
+                for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+                    hierarchy.add(0, c);
+                }
+                MethodHandles.Lookup lookup = MethodHandles.lookup();
+                for (Class<?> c : hierarchy) {
+                    for (Field field : c.getDeclaredFields()) {
+                        int modifiers = field.getModifiers();
+                        if (Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers) || field.isSynthetic()) {
+                            continue;
+                        }
+                        try {
+                            field.setAccessible(true);
+                            fieldGetters.add(lookup.unreflectGetter(field).asType(GETTER_TYPE));
+                            fieldNames.add(encodeName(field.getName()));
+                        } catch (Exception e) {
+                            LOG.warn("JSON: champ ignoré {}.{}", c.getSimpleName(), field.getName());
+                        }
+                    }
+                }
+            }
+            this.names = fieldNames.toArray(new byte[0][]);
+            this.getters = fieldGetters.toArray(new MethodHandle[0]);
+        }
+
+        private static byte[] encodeName(String name) {
+            java.io.ByteArrayOutputStream bytes = new java.io.ByteArrayOutputStream();
+            JsonWriter writer = new JsonWriter(bytes);
+            try {
+                writer.writeString(name).writeByte(':').writeByte(' ');
+                writer.finish();
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+            return bytes.toByteArray();
+        }
+
+        void write(Object obj, JsonWriter writer, int depth) throws IOException {
+            writer.writeByte('{');
+            for (int i = 0; i < getters.length; i++) {
+                if (i > 0) writer.writeRaw(SEPARATOR);
+                writer.writeRaw(names[i]);
+                Object value;
+                try {
+                    value = (Object) getters[i].invokeExact(obj);
+                } catch (Throwable t) {
+                    writer.writeString("error");
+                    continue;
+                }
+                JsonSerializer.write(value, writer, depth + 1);
+            }
+            writer.writeByte('}');
+        }
+    }
+}
@@ -0,0 +1,228 @@
+package json;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Écriture JSON bas niveau, directement en UTF-8 dans un OutputStream.
+ *
+ * Les octets passent par un tampon réutilisé par thread: aucune String
+ * intermédiaire n'est construite pour le document.
+ */
+public class JsonWriter {
+
+    private static final int BUFFER_SIZE = 8192;
+    private static final ThreadLocal<byte[]> BUFFERS = ThreadLocal.withInitial(() -> new byte[BUFFER_SIZE]);
+    private static final ThreadLocal<Boolean> IN_USE = ThreadLocal.withInitial(() -> Boolean.FALSE);
+    private static final byte[] HEX = "0123456789abcdef".getBytes();
+    private static final byte[] NULL = {'n', 'u', 'l', 'l'};
+    private static final byte[] TRUE = {'t', 'r', 'u', 'e'};
+    private static final byte[] FALSE = {'f', 'a', 'l', 's', 'e'};
+
+    private final OutputStream out;
+    private final byte[] buffer;
+    private final boolean pooled;
+    private int position;
+    private long written;
+
+    public JsonWriter(OutputStream out) {
+        this.out = out;
+        // Écrivain imbriqué sur le même thread: tampon dédié
+        if (IN_USE.get()) {
+            this.buffer = new byte[BUFFER_SIZE];
+            this.pooled = false;
+        } else {
+            this.buffer = BUFFERS.get();
+            this.pooled = true;
+            IN_USE.set(Boolean.TRUE);
+        }
+    }
+
+    public JsonWriter writeByte(int b) throws IOException {
+        if (position == buffer.length) flushBuffer();
+        buffer[position++] = (byte) b;
+        return this;
+    }
+
+    /**
+     * Octets déjà encodés (noms de champs précalculés, séparateurs)
+     */
+    public JsonWriter writeRaw(byte[] bytes) throws IOException {
+        if (bytes.length > buffer.length - position) {
+            flushBuffer();
+            if (bytes.length > buffer.length) {
+                out.write(bytes);
+                written += bytes.length;
+                return this;
+            }
+        }
+        System.arraycopy(bytes, 0, buffer, position, bytes.length);
+        position += bytes.length;
+        return this;
+    }
+
+    /**
+     * Texte ASCII sans échappement (littéraux connus)
+     */
+    public JsonWriter writeAscii(String s) throws IOException {
+        for (int i = 0; i < s.length(); i++) {
+            writeByte(s.charAt(i));
+        }
+        return this;
+    }
+
+    public JsonWriter writeNull() throws IOException {
+        return writeRaw(NULL);
+    }
+
+    public JsonWriter writeBoolean(boolean value) throws IOException {
+        return writeRaw(value ? TRUE : FALSE);
+    }
+
+    public JsonWriter writeLong(long value) throws IOException {
+        if (value == Long.MIN_VALUE) {
+            return writeAscii("-9223372036854775808");
+        }
+        if (buffer.length - position < 20) flushBuffer();
+        if (value < 0) {
+            buffer[position++] = '-';
+            value = -value;
+        }
+        // Chiffres écrits à l'envers puis retournés, sans Long.toString
+        int start = position;
+        do {
+            buffer[position++] = (byte) ('0' + (value % 10));
+            value /= 10;
+        } while (value != 0);
+        for (int i = start, j = position - 1; i < j; i++, j--) {
+            byte tmp = buffer[i];
+            buffer[i] = buffer[j];
+            buffer[j] = tmp;
+        }
+        return this;
+    }
+
+    public JsonWriter writeDouble(double value) throws IOException {
+        // NaN et Infinity n'existent pas en JSON
+        if (Double.isNaN(value) || Double.isInfinite(value)) return writeNull();
+        if (value == (long) value && Math.abs(value) < 1e15) {
+            writeLong((long) value);
+            return writeAscii(".0");
+        }
+        return writeAscii(Double.toString(value));
+    }
+
+    public JsonWriter writeFloat(float value) throws IOException {
+        // Float.toString: 0.1f s'écrit 0.1, pas sa valeur élargie en double
+        if (Float.isNaN(value) || Float.isInfinite(value)) return writeNull();
+        return writeAscii(Float.toString(value));
+    }
+
+    /**
+     * Chaîne JSON entre guillemets, échappée et encodée en UTF-8
+     */
+    public JsonWriter writeString(CharSequence s) throws IOException {
+        writeByte('"');
+        int length = s.length();
+        for (int i = 0; i < length; i++) {
+            char c = s.charAt(i);
+            if (c < 0x80) {
+                if (c >= 0x20 && c != '"' && c != '\\') {
+                    if (position == buffer.length) flushBuffer();
+                    buffer[position++] = (byte) c;
+                } else {
+                    writeEscaped(c);
+                }
+            } else if (c < 0x800) {
+                ensure(2);
+                buffer[position++] = (byte) (0xC0 | (c >> 6));
+                buffer[position++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(s.charAt(i + 1))) {
+                int cp = Character.toCodePoint(c, s.charAt(++i));
+                ensure(4);
+                buffer[position++] = (byte) (0xF0 | (cp >> 18));
+                buffer[position++] = (byte) (0x80 | ((cp >> 12) & 0x3F));
+                buffer[position++] = (byte) (0x80 | ((cp >> 6) & 0x3F));
+                buffer[position++] = (byte) (0x80 | (cp & 0x3F));
+            } else if (Character.isSurrogate(c) || c == '\u2028' || c == '\u2029') {
+                // Surrogate isolé (invalide en UTF-8) ou séparateurs de ligne JavaScript
+                writeUnicodeEscape(c);
+            } else {
+                ensure(3);
+                buffer[position++] = (byte) (0xE0 | (c >> 12));
+                buffer[position++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                buffer[position++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+        return writeByte('"');
+    }
+
+    private void writeEscaped(char c) throws IOException {
+        switch (c) {
+            case '"': writeByte('\\').writeByte('"'); break;
+            case '\\': writeByte('\\').writeByte('\\'); break;
+            case '\n': writeByte('\\').writeByte('n'); break;
+            case '\r': writeByte('\\').writeByte('r'); break;
+            case '\t': writeByte('\\').writeByte('t'); break;
+            case '\b': writeByte('\\').writeByte('b'); break;
+            case '\f': writeByte('\\').writeByte('f'); break;
+            default: writeUnicodeEscape(c);
+        }
+    }
+
+    private void writeUnicodeEscape(char c) throws IOException {
+        ensure(6);
+        buffer[position++] = '\\';
+        buffer[position++] = 'u';
+        buffer[position++] = HEX[(c >> 12) & 0xF];
+        buffer[position++] = HEX[(c >> 8) & 0xF];
+        buffer[position++] = HEX[(c >> 4) & 0xF];
+        buffer[position++] = HEX[c & 0xF];
+    }
+
+    private void ensure(int bytes) throws IOException {
+        if (buffer.length - position < bytes) flushBuffer();
+    }
+
+    private void flushBuffer() throws IOException {
+        if (position > 0) {
+            out.write(buffer, 0, position);
+            written += position;
+            position = 0;
+        }
+    }
+
+    /**
+     * Vide le tampon et le flux sous-jacent (utile pour envoyer le début d'une réponse)
+     */
+    public void flush() throws IOException {
+        flushBuffer();
+        out.flush();
+    }
+
+    /**
+     * Nombre d'octets produits jusqu'ici (tampon compris)
+     */
+    public long getBytesWritten() {
+        return written + position;
+    }
+
+    /**
+     * Vide le tampon et le rend au thread. Le flux sous-jacent n'est pas fermé.
+     */
+    public void finish() throws IOException {
+        try {
+            flushBuffer();
+        } finally {
+            if (pooled) IN_USE.set(Boolean.FALSE);
+        }
+    }
+
+    /**
+     * Abandon sur erreur: le tampon est rendu au thread sans écrire le document incomplet
+     */
+    public void discard() {
+        position = 0;
+        if (pooled) IN_USE.set(Boolean.FALSE);
+    }
+}
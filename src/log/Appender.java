@@ -0,0 +1,14 @@
+package log;
+
+/**
+ * Destination des messages de log
+ */
+interface Appender {
+
+    void append(LogEvent event);
+
+    /**
+     * Écrit ce qui reste en attente et libère les ressources
+     */
+    void close();
+}
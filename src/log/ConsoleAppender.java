@@ -0,0 +1,27 @@
+package log;
+
+import java.io.PrintStream;
+
+/**
+ * Écriture synchrone sur la console (WARN et ERROR sur stderr).
+ * Utilisé quand framework.log.async=false, et en secours quand le tampon circulaire est plein.
+ */
+class ConsoleAppender implements Appender {
+
+    @Override
+    public void append(LogEvent event) {
+        StringBuilder line = new StringBuilder(128);
+        event.format(line);
+        write(event.level, line);
+    }
+
+    static void write(Level level, CharSequence text) {
+        PrintStream out = (level.ordinal() >= Level.WARN.ordinal()) ? System.err : System.out;
+        out.print(text);
+        out.flush();
+    }
+
+    @Override
+    public void close() {
+    }
+}
@@ -0,0 +1,20 @@
+package log;
+
+/**
+ * Niveaux de log, du plus bavard au plus grave
+ */
+public enum Level {
+    TRACE, DEBUG, INFO, WARN, ERROR, OFF;
+
+    /**
+     * Niveau par nom (insensible à la casse), defaultLevel si inconnu
+     */
+    public static Level parse(String name, Level defaultLevel) {
+        if (name == null) return defaultLevel;
+        try {
+            return valueOf(name.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return defaultLevel;
+        }
+    }
+}
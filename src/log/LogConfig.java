@@ -0,0 +1,77 @@
+package log;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.UnaryOperator;
+
+/**
+ * Configuration du log: niveau global, niveaux par préfixe de nom (package ou classe),
+ * écriture asynchrone et taille du tampon circulaire.
+ */
+public final class LogConfig {
+
+    public static final String PREFIX = "framework.log.level";
+
+    final Level rootLevel;
+    final Map<String, Level> levels;
+    final boolean async;
+    final int bufferSize;
+
+    public LogConfig(Level rootLevel, Map<String, Level> levels, boolean async, int bufferSize) {
+        this.rootLevel = rootLevel;
+        this.levels = levels;
+        this.async = async;
+        this.bufferSize = bufferSize;
+    }
+
+    /**
+     * Lecture via une fonction nom → valeur (FrameworkConfig, propriétés système...).
+     * Les niveaux par package sont pris pour les noms listés dans framework.log.loggers (séparés par des virgules)
+     * et dans les propriétés système framework.log.level.xxx.
+     */
+    public static LogConfig from(UnaryOperator<String> source) {
+        Level root = Level.parse(source.apply(PREFIX), Level.INFO);
+        Map<String, Level> levels = new HashMap<>();
+        String loggers = source.apply("framework.log.loggers");
+        if (loggers != null) {
+            for (String name : loggers.split(",")) {
+                name = name.trim();
+                Level level = Level.parse(source.apply(PREFIX + "." + name), null);
+                if (!name.isEmpty() && level != null) levels.put(name, level);
+            }
+        }
+        for (String key : System.getProperties().stringPropertyNames()) {
+            if (key.startsWith(PREFIX + ".")) {
+                Level level = Level.parse(System.getProperty(key), null);
+                if (level != null) levels.putIfAbsent(key.substring(PREFIX.length() + 1), level);
+            }
+        }
+        boolean async = !"false".equalsIgnoreCase(source.apply("framework.log.async"));
+        int bufferSize = 8192;
+        try {
+            String size = source.apply("framework.log.bufferSize");
+            if (size != null) bufferSize = Integer.parseInt(size.trim());
+        } catch (NumberFormatException e) {
+            // Taille par défaut
+        }
+        return new LogConfig(root, levels, async, bufferSize);
+    }
+
+    static LogConfig fromSystemProperties() {
+        return from(System::getProperty);
+    }
+
+    /**
+     * Niveau applicable: préfixe le plus long qui correspond, sinon niveau global
+     */
+    Level levelFor(String name) {
+        String candidate = name;
+        while (true) {
+            Level level = levels.get(candidate);
+            if (level != null) return level;
+            int dot = candidate.lastIndexOf('.');
+            if (dot < 0) return rootLevel;
+            candidate = candidate.substring(0, dot);
+        }
+    }
+}
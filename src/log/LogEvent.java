@@ -0,0 +1,78 @@
+package log;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+
+/**
+ * Message de log capturé au moment de l'appel, formaté plus tard par l'appender
+ */
+final class LogEvent {
+
+    private static final DateTimeFormatter TIME = DateTimeFormatter.ofPattern("HH:mm:ss.SSS")
+        .withZone(ZoneId.systemDefault());
+
+    final long timestamp;
+    final Level level;
+    final String logger;
+    final String thread;
+    final String message;
+    final Object[] args;
+    final Throwable error;
+
+    LogEvent(long timestamp, Level level, String logger, String thread, String message, Object[] args,
+             Throwable error) {
+        this.timestamp = timestamp;
+        this.level = level;
+        this.logger = logger;
+        this.thread = thread;
+        this.message = message;
+        this.args = args;
+        this.error = error;
+    }
+
+    /**
+     * Ligne complète: heure, niveau, thread, logger, message (avec les {} remplacés)
+     */
+    void format(StringBuilder out) {
+        TIME.formatTo(Instant.ofEpochMilli(timestamp), out);
+        out.append(' ').append(level.name());
+        for (int i = level.name().length(); i < 5; i++) out.append(' ');
+        out.append(" [").append(thread).append("] ");
+        out.append(logger, logger.lastIndexOf('.') + 1, logger.length()).append(" - ");
+        formatMessage(message, args, out);
+        out.append(System.lineSeparator());
+        if (error != null) {
+            StringWriter trace = new StringWriter();
+            error.printStackTrace(new PrintWriter(trace));
+            out.append(trace);
+        }
+    }
+
+    /**
+     * Remplace chaque {} par l'argument suivant (les arguments en trop sont ignorés)
+     */
+    static void formatMessage(String message, Object[] args, StringBuilder out) {
+        if (message == null) {
+            out.append("null");
+            return;
+        }
+        if (args == null || args.length == 0) {
+            out.append(message);
+            return;
+        }
+        int argIndex = 0;
+        int start = 0;
+        int index;
+        while (argIndex < args.length && (index = message.indexOf("{}", start)) >= 0) {
+            out.append(message, start, index);
+            Object arg = args[argIndex++];
+            out.append(arg instanceof Object[] ? Arrays.toString((Object[]) arg) : String.valueOf(arg));
+            start = index + 2;
+        }
+        out.append(message, start, message.length());
+    }
+}
@@ -0,0 +1,173 @@
+package log;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Façade de log du framework.
+ *
+ * Le test de niveau est une simple comparaison d'entiers; le message "{}" n'est
+ * formaté que si le niveau est actif, et il l'est par le thread d'écriture
+ * (RingBufferAppender), pas par le thread de la requête. Les arguments doivent
+ * donc rester inchangés après l'appel (valeurs, chaînes, nombres...).
+ *
+ * Niveau global: framework.log.level; par package ou classe: framework.log.level.url=DEBUG
+ */
+public final class Logger {
+
+    private static final Map<String, Logger> LOGGERS = new ConcurrentHashMap<>();
+    private static volatile LogConfig config = LogConfig.fromSystemProperties();
+    private static volatile Appender appender = new ConsoleAppender();
+
+    private final String name;
+    private volatile int threshold;
+
+    private Logger(String name) {
+        this.name = name;
+        this.threshold = config.levelFor(name).ordinal();
+    }
+
+    public static Logger getLogger(Class<?> type) {
+        return getLogger(type.getName());
+    }
+
+    public static Logger getLogger(String name) {
+        return LOGGERS.computeIfAbsent(name, Logger::new);
+    }
+
+    /**
+     * Applique une configuration: niveaux de tous les loggers et appender (asynchrone ou non)
+     */
+    public static synchronized void configure(LogConfig newConfig) {
+        config = newConfig;
+        for (Logger logger : LOGGERS.values()) {
+            logger.threshold = newConfig.levelFor(logger.name).ordinal();
+        }
+        Appender previous = appender;
+        appender = newConfig.async ? new RingBufferAppender(newConfig.bufferSize) : new ConsoleAppender();
+        previous.close();
+    }
+
+    /**
+     * Écrit les messages en attente et arrête le thread d'écriture (arrêt de l'application)
+     */
+    public static synchronized void shutdown() {
+        Appender previous = appender;
+        appender = new ConsoleAppender();
+        previous.close();
+    }
+
+    /**
+     * Messages perdus faute de place dans le tampon circulaire
+     */
+    public static long getDroppedCount() {
+        return RingBufferAppender.getDropped();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public boolean isEnabled(Level level) {
+        return level.ordinal() >= threshold;
+    }
+
+    public boolean isTraceEnabled() {
+        return threshold <= 0;
+    }
+
+    public boolean isDebugEnabled() {
+        return threshold <= 1;
+    }
+
+    public boolean isInfoEnabled() {
+        return threshold <= 2;
+    }
+
+    // Surcharges à 0, 1, 2 arguments: le tableau n'est alloué que si le niveau est actif
+    // (un appel varargs le construit avant le test de niveau)
+    public void trace(String message) {
+        if (threshold <= 0) log(Level.TRACE, message, null, null);
+    }
+
+    public void trace(String message, Object arg) {
+        if (threshold <= 0) log(Level.TRACE, message, new Object[] {arg}, null);
+    }
+
+    public void trace(String message, Object arg1, Object arg2) {
+        if (threshold <= 0) log(Level.TRACE, message, new Object[] {arg1, arg2}, null);
+    }
+
+    public void trace(String message, Object... args) {
+        if (threshold <= 0) log(Level.TRACE, message, args, null);
+    }
+
+    public void debug(String message) {
+        if (threshold <= 1) log(Level.DEBUG, message, null, null);
+    }
+
+    public void debug(String message, Object arg) {
+        if (threshold <= 1) log(Level.DEBUG, message, new Object[] {arg}, null);
+    }
+
+    public void debug(String message, Object arg1, Object arg2) {
+        if (threshold <= 1) log(Level.DEBUG, message, new Object[] {arg1, arg2}, null);
+    }
+
+    public void debug(String message, Object... args) {
+        if (threshold <= 1) log(Level.DEBUG, message, args, null);
+    }
+
+    public void info(String message) {
+        if (threshold <= 2) log(Level.INFO, message, null, null);
+    }
+
+    public void info(String message, Object arg) {
+        if (threshold <= 2) log(Level.INFO, message, new Object[] {arg}, null);
+    }
+
+    public void info(String message, Object arg1, Object arg2) {
+        if (threshold <= 2) log(Level.INFO, message, new Object[] {arg1, arg2}, null);
+    }
+
+    public void info(String message, Object... args) {
+        if (threshold <= 2) log(Level.INFO, message, args, null);
+    }
+
+    public void warn(String message) {
+        if (threshold <= 3) log(Level.WARN, message, null, null);
+    }
+
+    public void warn(String message, Object arg) {
+        if (threshold <= 3) log(Level.WARN, message, new Object[] {arg}, null);
+    }
+
+    public void warn(String message, Object... args) {
+        if (threshold <= 3) log(Level.WARN, message, args, null);
+    }
+
+    public void warn(String message, Throwable error) {
+        if (threshold <= 3) log(Level.WARN, message, null, error);
+    }
+
+    public void error(String message) {
+        if (threshold <= 4) log(Level.ERROR, message, null, null);
+    }
+
+    public void error(String message, Object... args) {
+        if (threshold <= 4) log(Level.ERROR, message, args, null);
+    }
+
+    public void error(String message, Throwable error) {
+        if (threshold <= 4) log(Level.ERROR, message, null, error);
+    }
+
+    private void log(Level level, String message, Object[] args, Throwable error) {
+        // Comme SLF4J: un Throwable en dernier argument est journalisé avec sa pile
+        if (error == null && args != null && args.length > 0 && args[args.length - 1] instanceof Throwable) {
+            error = (Throwable) args[args.length - 1];
+        }
+        appender.append(new LogEvent(System.currentTimeMillis(), level, name,
+            Thread.currentThread().getName(), message, args, error));
+    }
+}
@@ -0,0 +1,151 @@
+package log;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Appender asynchrone: tampon circulaire borné, plusieurs producteurs (threads des requêtes),
+ * un seul consommateur (thread "framework-log") qui formate et écrit par lots.
+ *
+ * Les producteurs ne prennent aucun verrou: une case est réservée par CAS sur la position
+ * d'écriture (file bornée de Vyukov). Tampon plein: les messages TRACE et DEBUG sont perdus
+ * (comptés), à partir d'INFO ils sont écrits directement par l'appelant.
+ */
+class RingBufferAppender implements Appender {
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    private final int mask;
+    private final AtomicReferenceArray<LogEvent> events;
+    private final AtomicLongArray sequences;     // Séquence attendue par case (écriture ou lecture)
+    private final AtomicLong tail = new AtomicLong();
+    private long head;                            // Lu par le seul consommateur
+    private static final LongAdder DROPPED = new LongAdder();   // Pour tout le processus
+    private final Thread consumer;
+    private volatile boolean running = true;
+    private volatile boolean sleeping;
+
+    RingBufferAppender(int requestedSize) {
+        int size = Integer.highestOneBit(Math.max(64, requestedSize - 1) << 1);
+        this.mask = size - 1;
+        this.events = new AtomicReferenceArray<>(size);
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+        this.consumer = new Thread(this::drainLoop, "framework-log");
+        consumer.setDaemon(true);
+        consumer.start();
+    }
+
+    @Override
+    public void append(LogEvent event) {
+        if (!running || !offer(event)) {
+            if (event.level.ordinal() >= Level.INFO.ordinal() || !running) {
+                StringBuilder line = new StringBuilder(128);
+                event.format(line);
+                ConsoleAppender.write(event.level, line);
+            } else {
+                DROPPED.increment();
+            }
+            return;
+        }
+        if (sleeping) {
+            LockSupport.unpark(consumer);
+        }
+    }
+
+    private boolean offer(LogEvent event) {
+        while (true) {
+            long position = tail.get();
+            int index = (int) (position & mask);
+            long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    events.set(index, event);
+                    sequences.set(index, position + 1);   // Publiée pour le consommateur
+                    return true;
+                }
+            } else if (difference < 0) {
+                return false;   // Plein
+            }
+            // Sinon un autre producteur a pris la case: on réessaie
+        }
+    }
+
+    private void drainLoop() {
+        StringBuilder out = new StringBuilder(8192);
+        StringBuilder err = new StringBuilder(1024);
+        while (true) {
+            int drained = drain(out, err);
+            if (drained == 0) {
+                if (!running) {
+                    if (drain(out, err) == 0) return;
+                    continue;
+                }
+                sleeping = true;
+                if (!hasPending()) {
+                    LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                }
+                sleeping = false;
+            }
+        }
+    }
+
+    // Lit et écrit tout ce qui est publié; retourne le nombre de messages
+    private int drain(StringBuilder out, StringBuilder err) {
+        int count = 0;
+        while (true) {
+            int index = (int) (head & mask);
+            if (sequences.get(index) != head + 1) break;
+            LogEvent event = events.get(index);
+            events.set(index, null);
+            sequences.set(index, head + mask + 1);   // Case libérée pour le tour suivant
+            head++;
+            count++;
+            try {
+                event.format(event.level.ordinal() >= Level.WARN.ordinal() ? err : out);
+            } catch (RuntimeException e) {
+                // toString() d'un argument en erreur: le message est perdu, pas le thread
+                out.append("[log] message illisible: ").append(e).append(System.lineSeparator());
+            }
+            if (out.length() >= 8192) flush(out, err);
+        }
+        if (count > 0) flush(out, err);
+        return count;
+    }
+
+    private boolean hasPending() {
+        return sequences.get((int) (head & mask)) == head + 1;
+    }
+
+    private static void flush(StringBuilder out, StringBuilder err) {
+        if (out.length() > 0) {
+            ConsoleAppender.write(Level.INFO, out);
+            out.setLength(0);
+        }
+        if (err.length() > 0) {
+            ConsoleAppender.write(Level.ERROR, err);
+            err.setLength(0);
+        }
+    }
+
+    static long getDropped() {
+        return DROPPED.sum();
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(consumer);
+        try {
+            consumer.join(TimeUnit.SECONDS.toMillis(2));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
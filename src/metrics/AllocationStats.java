@@ -0,0 +1,89 @@
+package metrics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Octets alloués par requête pour une route: somme et maximum par phase, et total.
+ */
+public final class AllocationStats {
+
+    private static final RequestTimings.Phase[] PHASES = RequestTimings.Phase.values();
+    private static final int TOTAL = PHASES.length;   // Dernière case: requête entière
+
+    private final LongAdder count = new LongAdder();
+    private final LongAdder[] sums = new LongAdder[PHASES.length + 1];
+    private final AtomicLongArray max = new AtomicLongArray(PHASES.length + 1);
+
+    AllocationStats() {
+        for (int i = 0; i < sums.length; i++) {
+            sums[i] = new LongAdder();
+        }
+    }
+
+    void record(RequestTimings timings) {
+        count.increment();
+        long total = 0;
+        for (RequestTimings.Phase phase : PHASES) {
+            long bytes = timings.getAllocatedBytes(phase);
+            total += bytes;
+            add(phase.ordinal(), bytes);
+        }
+        add(TOTAL, total);
+    }
+
+    private void add(int index, long bytes) {
+        if (bytes <= 0) return;
+        sums[index].add(bytes);
+        long current;
+        while (bytes > (current = max.get(index)) && !max.compareAndSet(index, current, bytes)) {
+            // Nouvelle tentative
+        }
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * Somme des octets alloués (phase null = requête entière)
+     */
+    public long getSum(RequestTimings.Phase phase) {
+        return sums[phase == null ? TOTAL : phase.ordinal()].sum();
+    }
+
+    public long getMax(RequestTimings.Phase phase) {
+        return max.get(phase == null ? TOTAL : phase.ordinal());
+    }
+
+    public long getMean(RequestTimings.Phase phase) {
+        long n = count.sum();
+        return n == 0 ? 0 : getSum(phase) / n;
+    }
+
+    /**
+     * Moyenne par phase, plus "total"
+     */
+    public Map<String, Long> getMeans() {
+        Map<String, Long> result = new LinkedHashMap<>();
+        for (RequestTimings.Phase phase : PHASES) {
+            result.put(phase.getMetricName(), getMean(phase));
+        }
+        result.put("total", getMean(null));
+        return result;
+    }
+
+    /**
+     * Maximum par phase, plus "total"
+     */
+    public Map<String, Long> getMaxima() {
+        Map<String, Long> result = new LinkedHashMap<>();
+        for (RequestTimings.Phase phase : PHASES) {
+            result.put(phase.getMetricName(), getMax(phase));
+        }
+        result.put("total", getMax(null));
+        return result;
+    }
+}
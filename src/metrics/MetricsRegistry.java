@@ -0,0 +1,281 @@
+package metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import cache.ResponseCache;
+import log.Logger;
+
+/**
+ * Registre des mesures par route et par méthode HTTP.
+ *
+ * Les RouteMetrics sont créées à la première requête d'un handler (rien n'est alloué
+ * pour les routes jamais appelées) puis retrouvées par identité du handler.
+ * Chacune est publiée en MBean (framework:type=Route,...) et l'ensemble peut être
+ * rendu au format texte Prometheus, avec les statistiques des caches de réponses (@Cached).
+ */
+public final class MetricsRegistry {
+
+    private static final Logger LOG = Logger.getLogger(MetricsRegistry.class);
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+
+    private final String context;
+    private final boolean jmx;
+    private final ConcurrentHashMap<Object, RouteMetrics> routes = new ConcurrentHashMap<>();
+    private final List<ObjectName> registered = new ArrayList<>();
+    private final LongAdder notFound = new LongAdder();
+    private final List<CacheEntry> caches = new CopyOnWriteArrayList<>();
+
+    /**
+     * @param context nom de l'application dans les ObjectName JMX (chemin de contexte)
+     */
+    public MetricsRegistry(String context, boolean jmx) {
+        this.context = (context == null || context.isEmpty()) ? "/" : context;
+        this.jmx = jmx;
+    }
+
+    /**
+     * Mesures du handler (clé comparée par identité), créées au premier appel
+     */
+    public RouteMetrics forHandler(Object handler, String route, String method) {
+        RouteMetrics metrics = routes.get(handler);
+        if (metrics == null) {
+            metrics = routes.computeIfAbsent(handler, key -> create(route, method));
+        }
+        return metrics;
+    }
+
+    private RouteMetrics create(String route, String method) {
+        RouteMetrics metrics = new RouteMetrics(route, method);
+        if (jmx) {
+            try {
+                ObjectName name = new ObjectName("framework:type=Route,context=" + ObjectName.quote(context)
+                    + ",method=" + method + ",route=" + ObjectName.quote(route));
+                MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+                if (!server.isRegistered(name)) {
+                    server.registerMBean(metrics, name);
+                    synchronized (registered) {
+                        registered.add(name);
+                    }
+                }
+            } catch (Exception e) {
+                LOG.warn("[Metrics] MBean non enregistré pour {} {}: {}", method, route, e.getMessage());
+            }
+        }
+        return metrics;
+    }
+
+    /**
+     * Publie les statistiques du cache de réponses d'un handler
+     */
+    public void registerCache(String route, String method, ResponseCache cache) {
+        caches.add(new CacheEntry(route, method, cache));
+    }
+
+    public void recordNotFound() {
+        notFound.increment();
+    }
+
+    public long getNotFoundCount() {
+        return notFound.sum();
+    }
+
+    /**
+     * Mesures de toutes les routes déjà appelées, triées par route puis méthode
+     */
+    public List<RouteMetrics> getRoutes() {
+        List<RouteMetrics> result = new ArrayList<>(routes.values());
+        result.sort(Comparator.comparing(RouteMetrics::getRoute).thenComparing(RouteMetrics::getMethod));
+        return result;
+    }
+
+    /**
+     * Format d'exposition texte Prometheus (version 0.0.4)
+     */
+    public String toPrometheus() {
+        List<RouteMetrics> all = getRoutes();
+        StringBuilder out = new StringBuilder(256 + all.size() * 512);
+
+        out.append("# HELP framework_requests_total Requêtes traitées par route\n");
+        out.append("# TYPE framework_requests_total counter\n");
+        for (RouteMetrics metrics : all) {
+            out.append("framework_requests_total");
+            labels(out, metrics, null, null);
+            out.append(' ').append(metrics.getRequestCount()).append('\n');
+        }
+
+        out.append("# HELP framework_request_duration_seconds Durée de traitement par route\n");
+        out.append("# TYPE framework_request_duration_seconds summary\n");
+        for (RouteMetrics metrics : all) {
+            LatencyHistogram histogram = metrics.getLatency();
+            LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+            for (double quantile : QUANTILES) {
+                out.append("framework_request_duration_seconds");
+                labels(out, metrics, "quantile", String.valueOf(quantile));
+                out.append(' ').append(seconds(snapshot.percentile(quantile * 100))).append('\n');
+            }
+            out.append("framework_request_duration_seconds_sum");
+            labels(out, metrics, null, null);
+            out.append(' ').append(seconds(histogram.getSum())).append('\n');
+            out.append("framework_request_duration_seconds_count");
+            labels(out, metrics, null, null);
+            out.append(' ').append(histogram.getCount()).append('\n');
+        }
+
+        out.append("# HELP framework_errors_total Erreurs par route et type d'exception\n");
+        out.append("# TYPE framework_errors_total counter\n");
+        for (RouteMetrics metrics : all) {
+            metrics.getErrors().forEach((type, count) -> {
+                out.append("framework_errors_total");
+                labels(out, metrics, "type", type);
+                out.append(' ').append(count).append('\n');
+            });
+        }
+
+        boolean allocations = false;
+        for (RouteMetrics metrics : all) {
+            allocations |= metrics.getAllocations().getCount() > 0;
+        }
+        if (allocations) {
+            out.append("# HELP framework_request_allocated_bytes Octets alloués par requête, par route et phase\n");
+            out.append("# TYPE framework_request_allocated_bytes summary\n");
+            for (RouteMetrics metrics : all) {
+                AllocationStats stats = metrics.getAllocations();
+                if (stats.getCount() == 0) continue;
+                for (RequestTimings.Phase phase : RequestTimings.Phase.values()) {
+                    out.append("framework_request_allocated_bytes_sum");
+                    labels(out, metrics, "phase", phase.getMetricName());
+                    out.append(' ').append(stats.getSum(phase)).append('\n');
+                }
+                out.append("framework_request_allocated_bytes_sum");
+                labels(out, metrics, "phase", "total");
+                out.append(' ').append(stats.getSum(null)).append('\n');
+                out.append("framework_request_allocated_bytes_count");
+                labels(out, metrics, null, null);
+                out.append(' ').append(stats.getCount()).append('\n');
+            }
+            out.append("# HELP framework_request_allocated_bytes_max Octets alloués au maximum par une requête\n");
+            out.append("# TYPE framework_request_allocated_bytes_max gauge\n");
+            for (RouteMetrics metrics : all) {
+                AllocationStats stats = metrics.getAllocations();
+                if (stats.getCount() == 0) continue;
+                for (RequestTimings.Phase phase : RequestTimings.Phase.values()) {
+                    out.append("framework_request_allocated_bytes_max");
+                    labels(out, metrics, "phase", phase.getMetricName());
+                    out.append(' ').append(stats.getMax(phase)).append('\n');
+                }
+                out.append("framework_request_allocated_bytes_max");
+                labels(out, metrics, "phase", "total");
+                out.append(' ').append(stats.getMax(null)).append('\n');
+            }
+        }
+
+        if (!caches.isEmpty()) {
+            out.append("# HELP framework_response_cache_requests_total Consultations du cache de réponses\n");
+            out.append("# TYPE framework_response_cache_requests_total counter\n");
+            for (CacheEntry entry : caches) {
+                out.append("framework_response_cache_requests_total");
+                labels(out, entry.method, entry.route, "result", "hit");
+                out.append(' ').append(entry.cache.getHits()).append('\n');
+                out.append("framework_response_cache_requests_total");
+                labels(out, entry.method, entry.route, "result", "miss");
+                out.append(' ').append(entry.cache.getMisses()).append('\n');
+            }
+            out.append("# HELP framework_response_cache_evictions_total Réponses évincées faute de place\n");
+            out.append("# TYPE framework_response_cache_evictions_total counter\n");
+            for (CacheEntry entry : caches) {
+                out.append("framework_response_cache_evictions_total");
+                labels(out, entry.method, entry.route, null, null);
+                out.append(' ').append(entry.cache.getEvictions()).append('\n');
+            }
+            out.append("# HELP framework_response_cache_bytes Taille des réponses en cache\n");
+            out.append("# TYPE framework_response_cache_bytes gauge\n");
+            for (CacheEntry entry : caches) {
+                out.append("framework_response_cache_bytes");
+                labels(out, entry.method, entry.route, null, null);
+                out.append(' ').append(entry.cache.getBytes()).append('\n');
+            }
+            out.append("# HELP framework_response_cache_entries Réponses en cache\n");
+            out.append("# TYPE framework_response_cache_entries gauge\n");
+            for (CacheEntry entry : caches) {
+                out.append("framework_response_cache_entries");
+                labels(out, entry.method, entry.route, null, null);
+                out.append(' ').append(entry.cache.size()).append('\n');
+            }
+        }
+
+        out.append("# HELP framework_not_found_total Requêtes sans route\n");
+        out.append("# TYPE framework_not_found_total counter\n");
+        out.append("framework_not_found_total ").append(notFound.sum()).append('\n');
+        return out.toString();
+    }
+
+    private static void labels(StringBuilder out, RouteMetrics metrics, String extraName, String extraValue) {
+        labels(out, metrics.getMethod(), metrics.getRoute(), extraName, extraValue);
+    }
+
+    private static void labels(StringBuilder out, String method, String route, String extraName, String extraValue) {
+        out.append("{method=\"");
+        escape(out, method);
+        out.append("\",route=\"");
+        escape(out, route);
+        out.append('"');
+        if (extraName != null) {
+            out.append(',').append(extraName).append("=\"");
+            escape(out, extraValue);
+            out.append('"');
+        }
+        out.append('}');
+    }
+
+    private static void escape(StringBuilder out, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\' || c == '"') out.append('\\').append(c);
+            else if (c == '\n') out.append("\\n");
+            else out.append(c);
+        }
+    }
+
+    private static String seconds(long micros) {
+        return String.format(Locale.ROOT, "%.6f", micros / 1_000_000.0);
+    }
+
+    /**
+     * Retire les MBeans (arrêt de l'application)
+     */
+    public void close() {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        synchronized (registered) {
+            for (ObjectName name : registered) {
+                try {
+                    server.unregisterMBean(name);
+                } catch (Exception e) {
+                    // Déjà retiré
+                }
+            }
+            registered.clear();
+        }
+    }
+
+    private static final class CacheEntry {
+        final String route;
+        final String method;
+        final ResponseCache cache;
+
+        CacheEntry(String route, String method, ResponseCache cache) {
+            this.route = route;
+            this.method = method;
+            this.cache = cache;
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+
+/**
+ * Durées des phases d'une requête: ressource statique, routage, multipart, liaison, handler, rendu.
+ *
+ * Un contexte par thread, remis à zéro à chaque requête: la mesure n'alloue rien.
+ * Une requête terminée sur un autre thread (mode asynchrone) emporte une copie (detach).
+ *
+ * En option, les octets alloués par le thread pendant chaque phase sont relevés
+ * (com.sun.management.ThreadMXBean). Une phase commencée sur un thread et terminée
+ * sur un autre n'est pas comptée: les compteurs sont propres à chaque thread.
+ */
+public final class RequestTimings {
+
+    public enum Phase {
+        RESOURCE("resource"),
+        ROUTE("route"),
+        MULTIPART("multipart"),
+        BIND("bind"),
+        HANDLER("handler"),
+        RENDER("render");
+
+        private final String metricName;
+
+        Phase(String metricName) {
+            this.metricName = metricName;
+        }
+
+        /** Nom utilisé dans Server-Timing */
+        public String getMetricName() {
+            return metricName;
+        }
+    }
+
+    private static final Phase[] PHASES = Phase.values();
+    private static final ThreadLocal<RequestTimings> CURRENT = ThreadLocal.withInitial(RequestTimings::new);
+    private static final com.sun.management.ThreadMXBean THREADS = allocationBean();
+
+    private final long[] durations = new long[PHASES.length];
+    private final long[] allocations = new long[PHASES.length];
+    private final StringBuilder header = new StringBuilder(128);
+    private long start;
+    private long mark;
+    private boolean trackAllocations;
+    private Thread allocationThread;
+    private long allocationMark;
+
+    private RequestTimings() {
+    }
+
+    private static com.sun.management.ThreadMXBean allocationBean() {
+        // HotSpot et dérivés; null ailleurs (relevé impossible)
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+            if (bean.isThreadAllocatedMemorySupported()) {
+                return bean;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Active le relevé des allocations par thread. Retourne false si la JVM ne le permet pas.
+     */
+    public static boolean enableAllocationTracking() {
+        if (THREADS == null) {
+            return false;
+        }
+        if (!THREADS.isThreadAllocatedMemoryEnabled()) {
+            THREADS.setThreadAllocatedMemoryEnabled(true);
+        }
+        return true;
+    }
+
+    /**
+     * Contexte du thread courant, remis à zéro: début de la requête
+     */
+    public static RequestTimings start() {
+        return start(false);
+    }
+
+    /**
+     * Idem, avec relevé des octets alloués par phase (voir enableAllocationTracking)
+     */
+    public static RequestTimings start(boolean trackAllocations) {
+        RequestTimings timings = CURRENT.get();
+        Arrays.fill(timings.durations, 0L);
+        timings.trackAllocations = trackAllocations && THREADS != null;
+        if (timings.trackAllocations) {
+            Arrays.fill(timings.allocations, 0L);
+            timings.allocationThread = Thread.currentThread();
+            timings.allocationMark = THREADS.getCurrentThreadAllocatedBytes();
+        }
+        timings.start = timings.mark = System.nanoTime();
+        return timings;
+    }
+
+    /**
+     * Termine une phase: le temps écoulé depuis la fin de la phase précédente lui est ajouté
+     */
+    public void end(Phase phase) {
+        long now = System.nanoTime();
+        durations[phase.ordinal()] += now - mark;
+        mark = now;
+        if (trackAllocations) {
+            long allocated = THREADS.getCurrentThreadAllocatedBytes();
+            Thread current = Thread.currentThread();
+            if (current == allocationThread) {
+                allocations[phase.ordinal()] += allocated - allocationMark;
+            }
+            allocationThread = current;
+            allocationMark = allocated;
+        }
+    }
+
+    public long getDuration(Phase phase) {
+        return durations[phase.ordinal()];
+    }
+
+    /**
+     * Octets alloués pendant la phase (0 si le relevé est désactivé)
+     */
+    public long getAllocatedBytes(Phase phase) {
+        return allocations[phase.ordinal()];
+    }
+
+    public boolean isTrackingAllocations() {
+        return trackAllocations;
+    }
+
+    /**
+     * Temps écoulé depuis le début de la requête (ns)
+     */
+    public long getElapsed() {
+        return System.nanoTime() - start;
+    }
+
+    /**
+     * Copie indépendante du contexte du thread, pour une requête qui se termine ailleurs
+     */
+    public RequestTimings detach() {
+        RequestTimings copy = new RequestTimings();
+        System.arraycopy(durations, 0, copy.durations, 0, durations.length);
+        copy.start = start;
+        copy.mark = mark;
+        copy.trackAllocations = trackAllocations;
+        if (trackAllocations) {
+            System.arraycopy(allocations, 0, copy.allocations, 0, allocations.length);
+            copy.allocationThread = allocationThread;
+            copy.allocationMark = allocationMark;
+        }
+        return copy;
+    }
+
+    long[] copyDurations() {
+        return durations.clone();
+    }
+
+    /**
+     * Valeur de l'en-tête Server-Timing: phases mesurées jusqu'ici et total, en millisecondes
+     */
+    public String toServerTiming() {
+        StringBuilder out = header;
+        out.setLength(0);
+        for (Phase phase : PHASES) {
+            long nanos = durations[phase.ordinal()];
+            if (nanos > 0) {
+                out.append(phase.metricName).append(";dur=");
+                appendMillis(out, nanos);
+                out.append(", ");
+            }
+        }
+        out.append("total;dur=");
+        appendMillis(out, getElapsed());
+        return out.toString();
+    }
+
+    // Millisecondes avec trois décimales, sans String.format
+    static void appendMillis(StringBuilder out, long nanos) {
+        long micros = nanos / 1000;
+        out.append(micros / 1000).append('.');
+        long fraction = micros % 1000;
+        if (fraction < 100) out.append('0');
+        if (fraction < 10) out.append('0');
+        out.append(fraction);
+    }
+}
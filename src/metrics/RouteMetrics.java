@@ -0,0 +1,129 @@
+package metrics;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Mesures d'une route pour une méthode HTTP: nombre de requêtes, latences, erreurs par type
+ */
+public final class RouteMetrics implements RouteMetricsMXBean {
+
+    private final String route;
+    private final String method;
+    private final LongAdder requests = new LongAdder();
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final ConcurrentHashMap<Class<?>, LongAdder> errors = new ConcurrentHashMap<>();
+    private final AllocationStats allocations = new AllocationStats();
+
+    RouteMetrics(String route, String method) {
+        this.route = route;
+        this.method = method;
+    }
+
+    /**
+     * Enregistre une requête terminée (error null si succès). Aucune allocation hors premier type d'erreur.
+     */
+    public void record(long nanos, Throwable error) {
+        requests.increment();
+        latency.record(nanos / 1000);
+        if (error != null) {
+            LongAdder counter = errors.get(error.getClass());
+            if (counter == null) {
+                counter = errors.computeIfAbsent(error.getClass(), type -> new LongAdder());
+            }
+            counter.increment();
+        }
+    }
+
+    /**
+     * Enregistre les octets alloués par phase (sans effet si le relevé était désactivé pour la requête)
+     */
+    public void recordAllocations(RequestTimings timings) {
+        if (timings.isTrackingAllocations()) {
+            allocations.record(timings);
+        }
+    }
+
+    public AllocationStats getAllocations() {
+        return allocations;
+    }
+
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+
+    @Override
+    public String getRoute() {
+        return route;
+    }
+
+    @Override
+    public String getMethod() {
+        return method;
+    }
+
+    @Override
+    public long getRequestCount() {
+        return requests.sum();
+    }
+
+    @Override
+    public long getErrorCount() {
+        long total = 0;
+        for (LongAdder counter : errors.values()) {
+            total += counter.sum();
+        }
+        return total;
+    }
+
+    @Override
+    public Map<String, Long> getErrors() {
+        Map<String, Long> result = new TreeMap<>();
+        for (Map.Entry<Class<?>, LongAdder> entry : errors.entrySet()) {
+            result.put(entry.getKey().getName(), entry.getValue().sum());
+        }
+        return result;
+    }
+
+    @Override
+    public double getMeanMicros() {
+        return latency.getMean();
+    }
+
+    @Override
+    public long getMaxMicros() {
+        return latency.getMax();
+    }
+
+    @Override
+    public long getP50Micros() {
+        return latency.getPercentile(50);
+    }
+
+    @Override
+    public long getP90Micros() {
+        return latency.getPercentile(90);
+    }
+
+    @Override
+    public long getP99Micros() {
+        return latency.getPercentile(99);
+    }
+
+    @Override
+    public long getP999Micros() {
+        return latency.getPercentile(99.9);
+    }
+
+    @Override
+    public Map<String, Long> getAllocatedBytesMean() {
+        return allocations.getMeans();
+    }
+
+    @Override
+    public Map<String, Long> getAllocatedBytesMax() {
+        return allocations.getMaxima();
+    }
+}
@@ -0,0 +1,38 @@
+package metrics;
+
+import java.util.Map;
+
+/**
+ * Vue JMX des mesures d'une route (framework:type=Route,...)
+ */
+public interface RouteMetricsMXBean {
+
+    String getRoute();
+
+    String getMethod();
+
+    long getRequestCount();
+
+    long getErrorCount();
+
+    /** Nombre d'erreurs par classe d'exception */
+    Map<String, Long> getErrors();
+
+    double getMeanMicros();
+
+    long getMaxMicros();
+
+    long getP50Micros();
+
+    long getP90Micros();
+
+    long getP99Micros();
+
+    long getP999Micros();
+
+    /** Octets alloués en moyenne par requête, par phase et "total" (mode framework.metrics.allocations) */
+    Map<String, Long> getAllocatedBytesMean();
+
+    /** Octets alloués au maximum par une requête, par phase et "total" */
+    Map<String, Long> getAllocatedBytesMax();
+}
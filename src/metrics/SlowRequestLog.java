@@ -0,0 +1,196 @@
+package metrics;
+
+import java.lang.management.ManagementFactory;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import log.Logger;
+
+/**
+ * Anneau borné des dernières requêtes plus lentes que le seuil, avec le détail de leurs phases.
+ *
+ * Seules les requêtes lentes allouent une entrée; les plus anciennes sont écrasées.
+ * Consultable en JMX (framework:type=SlowRequests,...) ou via un chemin dédié du FrontServlet.
+ */
+public final class SlowRequestLog implements SlowRequestLogMXBean {
+
+    private static final Logger LOG = Logger.getLogger(SlowRequestLog.class);
+    private static final RequestTimings.Phase[] PHASES = RequestTimings.Phase.values();
+
+    /**
+     * Une requête lente (instantané immuable)
+     */
+    public static final class Entry {
+        private final long timestamp;
+        private final String method;
+        private final String path;
+        private final long totalNanos;
+        private final long[] phases;
+        private final String error;
+
+        Entry(long timestamp, String method, String path, long totalNanos, long[] phases, String error) {
+            this.timestamp = timestamp;
+            this.method = method;
+            this.path = path;
+            this.totalNanos = totalNanos;
+            this.phases = phases;
+            this.error = error;
+        }
+
+        public long getTimestamp() {
+            return timestamp;
+        }
+
+        public String getMethod() {
+            return method;
+        }
+
+        public String getPath() {
+            return path;
+        }
+
+        public long getTotalNanos() {
+            return totalNanos;
+        }
+
+        public long getPhaseNanos(RequestTimings.Phase phase) {
+            return phases[phase.ordinal()];
+        }
+
+        public String getError() {
+            return error;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder out = new StringBuilder(160);
+            out.append(Instant.ofEpochMilli(timestamp)).append(' ').append(method).append(' ').append(path).append(' ');
+            RequestTimings.appendMillis(out, totalNanos);
+            out.append(" ms [");
+            for (RequestTimings.Phase phase : PHASES) {
+                if (phase.ordinal() > 0) out.append(' ');
+                out.append(phase.getMetricName()).append('=');
+                RequestTimings.appendMillis(out, phases[phase.ordinal()]);
+            }
+            out.append(']');
+            if (error != null) out.append(" error=").append(error);
+            return out.toString();
+        }
+    }
+
+    private final long thresholdNanos;
+    private final AtomicReferenceArray<Entry> ring;
+    private final AtomicLong next = new AtomicLong();
+    private ObjectName registered;
+
+    public SlowRequestLog(long thresholdMillis, int capacity) {
+        this.thresholdNanos = Math.max(0, thresholdMillis) * 1_000_000L;
+        this.ring = new AtomicReferenceArray<>(Math.max(1, capacity));
+    }
+
+    /**
+     * Conserve la requête si elle dépasse le seuil. Retourne true si elle a été retenue.
+     */
+    public boolean offer(RequestTimings timings, String method, String path, Throwable error) {
+        long total = timings.getElapsed();
+        if (total < thresholdNanos) {
+            return false;
+        }
+        Entry entry = new Entry(System.currentTimeMillis(), method, path, total, timings.copyDurations(),
+            error != null ? error.getClass().getName() : null);
+        ring.set((int) (next.getAndIncrement() % ring.length()), entry);
+        return true;
+    }
+
+    /**
+     * Requêtes conservées, de la plus récente à la plus ancienne
+     */
+    public List<Entry> getEntries() {
+        long end = next.get();
+        int count = (int) Math.min(end, ring.length());
+        List<Entry> entries = new ArrayList<>(count);
+        for (long i = end - 1; i >= end - count; i--) {
+            Entry entry = ring.get((int) (i % ring.length()));
+            if (entry != null) entries.add(entry);
+        }
+        return entries;
+    }
+
+    /**
+     * Une ligne par requête, la plus récente en premier
+     */
+    public String toText() {
+        StringBuilder out = new StringBuilder();
+        out.append("# Requêtes > ").append(getThresholdMillis()).append(" ms: ").append(getSlowCount()).append('\n');
+        for (Entry entry : getEntries()) {
+            out.append(entry).append('\n');
+        }
+        return out.toString();
+    }
+
+    @Override
+    public long getThresholdMillis() {
+        return thresholdNanos / 1_000_000L;
+    }
+
+    @Override
+    public int getCapacity() {
+        return ring.length();
+    }
+
+    @Override
+    public long getSlowCount() {
+        return next.get();
+    }
+
+    @Override
+    public String[] dump() {
+        List<Entry> entries = getEntries();
+        String[] lines = new String[entries.size()];
+        for (int i = 0; i < lines.length; i++) {
+            lines[i] = entries.get(i).toString();
+        }
+        return lines;
+    }
+
+    @Override
+    public void clear() {
+        for (int i = 0; i < ring.length(); i++) {
+            ring.set(i, null);
+        }
+    }
+
+    /**
+     * Publie le journal en MBean (framework:type=SlowRequests,context=...)
+     */
+    public void register(String context) {
+        try {
+            ObjectName name = new ObjectName("framework:type=SlowRequests,context="
+                + ObjectName.quote((context == null || context.isEmpty()) ? "/" : context));
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            if (!server.isRegistered(name)) {
+                server.registerMBean(this, name);
+                registered = name;
+            }
+        } catch (Exception e) {
+            LOG.warn("[Timing] MBean non enregistré: {}", e.getMessage());
+        }
+    }
+
+    public void close() {
+        if (registered != null) {
+            try {
+                ManagementFactory.getPlatformMBeanServer().unregisterMBean(registered);
+            } catch (Exception e) {
+                // Déjà retiré
+            }
+            registered = null;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package metrics;
+
+/**
+ * Vue JMX du journal des requêtes lentes (framework:type=SlowRequests,...)
+ */
+public interface SlowRequestLogMXBean {
+
+    long getThresholdMillis();
+
+    int getCapacity();
+
+    /** Nombre de requêtes lentes depuis le démarrage (y compris celles sorties de l'anneau) */
+    long getSlowCount();
+
+    /** Requêtes conservées, de la plus récente à la plus ancienne */
+    String[] dump();
+
+    void clear();
+}
@@ -0,0 +1,155 @@
+package processor;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+import annotation.Json;
+import annotation.UrlGet;
+import annotation.UrlPost;
+import sprint2bis.Controller;
+import url.RouteIndex;
+import url.UrlMapping;
+
+/**
+ * Processeur d'annotations: génère à la compilation l'index des contrôleurs
+ * (META-INF/framework/routes.idx) pour éviter le scan de /WEB-INF/classes au démarrage.
+ *
+ * Utilisation: mettre le jar du framework sur le classpath de javac de l'application,
+ * le processeur est découvert via META-INF/services.
+ */
+@SupportedAnnotationTypes({
+    "sprint2bis.Controller",
+    "annotation.UrlGet",
+    "annotation.UrlPost",
+    "annotation.Json",
+    "url.UrlMapping"
+})
+public class RouteIndexProcessor extends AbstractProcessor {
+
+    private final Set<String> controllers = new TreeSet<>();
+    private final TreeMap<String, String> routes = new TreeMap<>();   // ligne → contrôleur
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (Element element : roundEnv.getElementsAnnotatedWith(Controller.class)) {
+            if (element.getKind() != ElementKind.CLASS) continue;
+            TypeElement type = (TypeElement) element;
+            String className = processingEnv.getElementUtils().getBinaryName(type).toString();
+            controllers.add(className);
+            collectRoutes(type, className);
+        }
+
+        if (roundEnv.processingOver()) {
+            writeIndex();
+        }
+        return false;
+    }
+
+    private void collectRoutes(TypeElement type, String className) {
+        for (Element member : type.getEnclosedElements()) {
+            if (member.getKind() != ElementKind.METHOD) continue;
+            ExecutableElement method = (ExecutableElement) member;
+
+            // Même priorité que ScannerFramework.processClass
+            String httpMethod = null;
+            String pattern = null;
+            UrlMapping mapping = method.getAnnotation(UrlMapping.class);
+            UrlGet get = method.getAnnotation(UrlGet.class);
+            UrlPost post = method.getAnnotation(UrlPost.class);
+            if (mapping != null) {
+                httpMethod = mapping.method();
+                pattern = mapping.value();
+            } else if (get != null) {
+                httpMethod = "GET";
+                pattern = get.value();
+            } else if (post != null) {
+                httpMethod = "POST";
+                pattern = post.value();
+            }
+            if (pattern == null) continue;
+
+            StringBuilder signature = new StringBuilder();
+            for (VariableElement parameter : method.getParameters()) {
+                if (signature.length() > 0) signature.append(',');
+                signature.append(processingEnv.getTypeUtils().erasure(parameter.asType()));
+            }
+            String line = httpMethod + " " + pattern + " " + className + "#" + method.getSimpleName()
+                + "(" + signature + ")" + (method.getAnnotation(Json.class) != null ? " json" : "");
+            routes.put(line, className);
+        }
+    }
+
+    private void writeIndex() {
+        // Compilation incrémentale: on conserve les contrôleurs de l'index précédent qui existent encore
+        for (String previous : readPreviousControllers()) {
+            if (controllers.contains(previous)) continue;
+            TypeElement type = processingEnv.getElementUtils().getTypeElement(previous.replace('$', '.'));
+            if (type != null && type.getAnnotation(Controller.class) != null) {
+                controllers.add(previous);
+                collectRoutes(type, previous);
+            }
+        }
+
+        if (controllers.isEmpty()) return;
+
+        try {
+            FileObject file = processingEnv.getFiler()
+                .createResource(StandardLocation.CLASS_OUTPUT, "", RouteIndex.RESOURCE);
+            try (Writer writer = new OutputStreamWriter(file.openOutputStream(), StandardCharsets.UTF_8)) {
+                writer.write("# Généré par " + getClass().getName() + " - ne pas modifier\n");
+                for (String controller : controllers) {
+                    writer.write(RouteIndex.CONTROLLER_PREFIX + controller + "\n");
+                }
+                for (String route : routes.keySet()) {
+                    writer.write(RouteIndex.ROUTE_PREFIX + route + "\n");
+                }
+            }
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE,
+                "[RouteIndex] " + controllers.size() + " contrôleurs, " + routes.size() + " routes indexés");
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING,
+                "[RouteIndex] Impossible d'écrire " + RouteIndex.RESOURCE + ": " + e.getMessage());
+        }
+    }
+
+    private Set<String> readPreviousControllers() {
+        Set<String> previous = new LinkedHashSet<>();
+        try {
+            FileObject file = processingEnv.getFiler()
+                .getResource(StandardLocation.CLASS_OUTPUT, "", RouteIndex.RESOURCE);
+            try (BufferedReader lines = new BufferedReader(
+                    new InputStreamReader(file.openInputStream(), StandardCharsets.UTF_8))) {
+                previous.addAll(RouteIndex.parseControllers(lines));
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            // Pas d'index précédent
+        }
+        return previous;
+    }
+}
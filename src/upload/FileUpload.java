@@ -1,12 +1,35 @@
 package upload;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+
+import log.Logger;
+
 /**
  * Classe représentant un fichier uploadé
+ *
+ * Le contenu est soit en mémoire (petits fichiers), soit dans un fichier
+ * temporaire écrit pendant le parsing (au-delà du seuil configuré).
+ * Préférer getInputStream() ou transferTo() à getBytes() pour les gros fichiers.
  */
 public class FileUpload {
+
+    private static final Logger LOG = Logger.getLogger(FileUpload.class);
     private String fileName;        // Nom original du fichier
     private String contentType;     // Type MIME (image/png, application/pdf, etc.)
-    private byte[] bytes;           // Contenu du fichier en bytes
+    private byte[] bytes;           // Contenu en mémoire (peut être plus grand que size)
+    private Path file;              // Contenu sur disque, sinon null
+    private boolean temporary;      // file est un fichier temporaire du parser (supprimé en fin de requête)
+    private byte[] sha256;          // Empreinte calculée pendant la lecture, null si inconnue
     private long size;              // Taille du fichier
 
     public FileUpload() {}
@@ -18,6 +41,23 @@ public class FileUpload {
         this.size = (bytes != null) ? bytes.length : 0;
     }
 
+    // Contenu en mémoire: les length premiers octets de buffer (pas de copie)
+    FileUpload(String fileName, String contentType, byte[] buffer, int length) {
+        this.fileName = fileName;
+        this.contentType = contentType;
+        this.bytes = buffer;
+        this.size = length;
+    }
+
+    // Contenu sur disque
+    FileUpload(String fileName, String contentType, Path file, long size) {
+        this.fileName = fileName;
+        this.contentType = contentType;
+        this.file = file;
+        this.temporary = true;
+        this.size = size;
+    }
+
     // Getters et Setters
     public String getFileName() {
         return fileName;
@@ -35,12 +75,26 @@ public class FileUpload {
         this.contentType = contentType;
     }
 
+    /**
+     * Contenu complet en mémoire. Pour un fichier sur disque, il est lu au premier appel.
+     */
     public byte[] getBytes() {
+        if (bytes == null && file != null) {
+            try {
+                bytes = Files.readAllBytes(file);
+            } catch (IOException e) {
+                throw new IllegalStateException("Lecture impossible du fichier uploadé " + fileName, e);
+            }
+        } else if (bytes != null && bytes.length != size) {
+            bytes = Arrays.copyOf(bytes, (int) size);
+        }
         return bytes;
     }
 
     public void setBytes(byte[] bytes) {
         this.bytes = bytes;
+        this.file = null;
+        this.sha256 = null;
         this.size = (bytes != null) ? bytes.length : 0;
     }
 
@@ -52,11 +106,129 @@ public class FileUpload {
         this.size = size;
     }
 
+    /**
+     * Flux de lecture du contenu, sans le charger entièrement en mémoire
+     */
+    public InputStream getInputStream() throws IOException {
+        if (file != null) {
+            return Files.newInputStream(file);
+        }
+        return new ByteArrayInputStream(bytes != null ? bytes : new byte[0], 0, (int) size);
+    }
+
+    /**
+     * Copie le contenu vers target (créé ou écrasé). Depuis le disque, la copie
+     * passe par FileChannel.transferTo, sans tampon côté Java.
+     */
+    public void transferTo(Path target) throws IOException {
+        try (FileChannel out = FileChannel.open(target, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            if (file != null) {
+                try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+                    long position = 0;
+                    long count = in.size();
+                    while (position < count) {
+                        position += in.transferTo(position, count - position, out);
+                    }
+                }
+            } else if (bytes != null) {
+                ByteBuffer buffer = ByteBuffer.wrap(bytes, 0, (int) size);
+                while (buffer.hasRemaining()) {
+                    out.write(buffer);
+                }
+            }
+        }
+    }
+
+    /**
+     * SHA-256 du contenu en hexadécimal. Calculé pendant le parsing; sinon calculé ici en une lecture.
+     */
+    public String getSha256() throws IOException {
+        if (sha256 == null) {
+            MessageDigest digest;
+            try {
+                digest = MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
+            if (file == null) {
+                digest.update(bytes != null ? bytes : new byte[0], 0, (int) size);
+            } else {
+                try (InputStream in = Files.newInputStream(file)) {
+                    byte[] buffer = new byte[64 * 1024];
+                    int read;
+                    while ((read = in.read(buffer)) != -1) {
+                        digest.update(buffer, 0, read);
+                    }
+                }
+            }
+            sha256 = digest.digest();
+        }
+        StringBuilder hex = new StringBuilder(64);
+        for (byte b : sha256) {
+            hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return hex.toString();
+    }
+
+    void setSha256(byte[] sha256) {
+        this.sha256 = sha256;
+    }
+
+    /**
+     * Enregistre le contenu dans le store et retourne sa clé (stable pour un même contenu)
+     */
+    public String store(UploadStore store) throws IOException {
+        return store.store(this);
+    }
+
+    /**
+     * Le contenu a été déplacé (par un UploadStore): il n'est plus temporaire
+     */
+    void movedTo(Path target) {
+        this.file = target;
+        this.temporary = false;
+    }
+
+    /**
+     * Vrai si le contenu est sur disque dans un fichier temporaire du parser
+     */
+    boolean isTemporary() {
+        return temporary;
+    }
+
+    /**
+     * Vrai si le contenu est en mémoire (pas de fichier temporaire)
+     */
+    public boolean isInMemory() {
+        return file == null;
+    }
+
+    /**
+     * Fichier contenant l'upload, null si le contenu est en mémoire
+     */
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * Supprime le fichier temporaire éventuel (appelé en fin de requête)
+     */
+    public void delete() {
+        if (file != null && temporary) {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                LOG.warn("Suppression impossible de {}: {}", file, e.getMessage());
+            }
+        }
+    }
+
     /**
      * Vérifie si le fichier est vide
      */
     public boolean isEmpty() {
-        return bytes == null || bytes.length == 0;
+        return (bytes == null && file == null) || size == 0;
     }
 
     /**
@@ -77,4 +249,4 @@ public class FileUpload {
                 ", size=" + size +
                 '}';
     }
-}
\ No newline at end of file
+}
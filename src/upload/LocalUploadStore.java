@@ -0,0 +1,154 @@
+package upload;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.FileSystemException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * UploadStore sur le système de fichiers local.
+ *
+ * La clé est le SHA-256 du contenu (calculé pendant le parsing), le fichier est rangé
+ * sous root/ab/cd/abcd…. Un fichier temporaire du parser est publié par lien physique
+ * (pas de copie); un contenu en mémoire est écrit dans un fichier temporaire du store
+ * puis publié de même. La publication échoue si la clé existe déjà: deux uploads
+ * identiques simultanés comptent un stockage et une déduplication, sans écrasement.
+ */
+public class LocalUploadStore implements UploadStore {
+
+    private final Path root;
+    private final LongAdder stored = new LongAdder();
+    private final LongAdder deduplicated = new LongAdder();
+
+    public LocalUploadStore(Path root) throws IOException {
+        this.root = Files.createDirectories(root);
+    }
+
+    @Override
+    public String store(FileUpload upload) throws IOException {
+        String key = upload.getSha256();
+        Path target = resolve(key);
+        if (Files.exists(target)) {
+            deduplicated.increment();
+            return key;
+        }
+        Files.createDirectories(target.getParent());
+
+        if (upload.isTemporary()) {
+            // Fichier temporaire du parser: lien physique sous la clé (pas de copie) s'il est sur le même disque
+            Path temporary = upload.getFile();
+            try {
+                if (publish(temporary, target)) {
+                    Files.deleteIfExists(temporary);
+                    upload.movedTo(target);
+                    stored.increment();
+                } else {
+                    deduplicated.increment();
+                }
+                return key;
+            } catch (FileSystemException | UnsupportedOperationException e) {
+                // Autre système de fichiers ou liens non supportés: copie puis publication ci-dessous
+            }
+        }
+
+        Path tmp = Files.createTempFile(target.getParent(), key, ".tmp");
+        try {
+            upload.transferTo(tmp);
+            boolean published;
+            try {
+                published = publish(tmp, target);
+            } catch (FileSystemException | UnsupportedOperationException e) {
+                // Sans liens physiques: déplacement sans remplacement (atomique sous Windows)
+                try {
+                    Files.move(tmp, target);
+                    published = true;
+                } catch (FileAlreadyExistsException exists) {
+                    published = false;
+                }
+            }
+            if (published) {
+                stored.increment();
+            } else {
+                // Même contenu enregistré en parallèle par une autre requête
+                deduplicated.increment();
+            }
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+        return key;
+    }
+
+    /**
+     * Publie source sous target par un lien physique, qui échoue si la clé existe déjà
+     * (un renommage remplacerait la cible, sous Linux comme sous Windows). Retourne false dans ce cas.
+     */
+    private static boolean publish(Path source, Path target) throws IOException {
+        try {
+            Files.createLink(target, source);
+            return true;
+        } catch (FileAlreadyExistsException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public boolean exists(String key) {
+        return Files.exists(resolve(key));
+    }
+
+    @Override
+    public InputStream open(String key) throws IOException {
+        return Files.newInputStream(resolve(key));
+    }
+
+    /**
+     * Chemin du contenu stocké sous cette clé
+     */
+    public Path resolve(String key) {
+        if (key.length() < 4 || !key.matches("[0-9a-f]+")) {
+            throw new IllegalArgumentException("Clé de contenu invalide: " + key);
+        }
+        return root.resolve(key.substring(0, 2)).resolve(key.substring(2, 4)).resolve(key);
+    }
+
+    /**
+     * Copie le contenu à un autre emplacement (modifiable sans risque pour le store)
+     */
+    public void copyTo(String key, Path destination) throws IOException {
+        Files.copy(resolve(key), destination);
+    }
+
+    /**
+     * Rend le contenu visible à un autre emplacement par un lien physique (aucune copie),
+     * ou une copie si les liens ne sont pas supportés. Le fichier lié partage les octets du store:
+     * il doit être traité en lecture seule, toute modification corromprait le contenu de la clé.
+     * Utiliser copyTo() pour un fichier destiné à être modifié.
+     */
+    public void link(String key, Path destination) throws IOException {
+        Path source = resolve(key);
+        try {
+            Files.createLink(destination, source);
+        } catch (FileAlreadyExistsException e) {
+            throw e;
+        } catch (UnsupportedOperationException | IOException e) {
+            Files.copy(source, destination);
+        }
+    }
+
+    /** Contenus écrits dans le store */
+    public long getStoredCount() {
+        return stored.sum();
+    }
+
+    /** Uploads dont le contenu était déjà présent */
+    public long getDeduplicatedCount() {
+        return deduplicated.sum();
+    }
+
+    public Path getRoot() {
+        return root;
+    }
+}
@@ -1,8 +1,7 @@
 package upload;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.io.InputStream;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -10,21 +9,50 @@ import java.util.Map;
 
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
-import jakarta.servlet.http.Part;
+
+import log.Logger;
 
 /**
  * Parser pour les requêtes multipart/form-data (upload de fichiers)
+ *
+ * Le corps de la requête est lu en flux (recherche du délimiteur dans un tampon fixe):
+ * les parts sous le seuil mémoire restent en mémoire, les autres sont écrites
+ * directement dans un fichier temporaire. Appeler cleanup() en fin de requête.
  */
 public class MultipartParser {
 
+    private static final Logger LOG = Logger.getLogger(MultipartParser.class);
+
+    public static final int DEFAULT_MEMORY_THRESHOLD = 1024 * 1024;        // 1 MB
+    public static final long DEFAULT_MAX_FILE_SIZE = 1024 * 1024 * 10;     // 10 MB
+    public static final long DEFAULT_MAX_REQUEST_SIZE = 1024 * 1024 * 50;  // 50 MB
+
     private Map<String, String> formFields;           // Champs simples (texte)
     private Map<String, FileUpload> singleFiles;      // Fichier unique par nom
     private Map<String, List<FileUpload>> multiFiles; // Fichiers multiples par nom
 
+    private final int memoryThreshold;
+    private final long maxFileSize;
+    private final long maxRequestSize;
+    private final Path tempDir;                       // null: répertoire temporaire du système
+    private final UploadBudget budget;
+    private final List<FileUpload> spilled = new ArrayList<>();
+    private long reserved;                            // Mémoire des fichiers gardés en mémoire, rendue par cleanup()
+
     public MultipartParser() {
+        this(DEFAULT_MEMORY_THRESHOLD, DEFAULT_MAX_FILE_SIZE, DEFAULT_MAX_REQUEST_SIZE, null, UploadBudget.UNLIMITED);
+    }
+
+    public MultipartParser(int memoryThreshold, long maxFileSize, long maxRequestSize, Path tempDir,
+                           UploadBudget budget) {
         this.formFields = new HashMap<>();
         this.singleFiles = new HashMap<>();
         this.multiFiles = new HashMap<>();
+        this.memoryThreshold = memoryThreshold;
+        this.maxFileSize = maxFileSize;
+        this.maxRequestSize = maxRequestSize;
+        this.tempDir = tempDir;
+        this.budget = budget;
     }
 
     /**
@@ -43,82 +71,131 @@ public class MultipartParser {
             return;
         }
 
-        for (Part part : request.getParts()) {
-            String fieldName = part.getName();
-            String fileName = getFileName(part);
-
-            if (fileName == null || fileName.isEmpty()) {
-                // C'est un champ de formulaire simple (texte)
-                String value = readPartAsString(part);
-                formFields.put(fieldName, value);
-                System.out.printf("[MultipartParser] Champ texte: %s = %s%n", fieldName, value);
-            } else {
-                // C'est un fichier
-                byte[] bytes = readPartAsBytes(part);
-                String contentType = part.getContentType();
-                
-                FileUpload fileUpload = new FileUpload(fileName, contentType, bytes);
-                
-                // Stockage en tant que fichier unique
-                singleFiles.put(fieldName, fileUpload);
-                
-                // Stockage en tant que fichier multiple (liste)
-                multiFiles.computeIfAbsent(fieldName, k -> new ArrayList<>()).add(fileUpload);
-                
-                System.out.printf("[MultipartParser] Fichier uploadé: %s (%s, %d bytes)%n", 
-                    fileName, contentType, bytes.length);
+        String boundary = getBoundary(request.getContentType());
+        if (boundary == null) {
+            throw new ServletException("Multipart: boundary absent du Content-Type");
+        }
+        long contentLength = request.getContentLengthLong();
+        if (contentLength > maxRequestSize) {
+            throw new IOException("Multipart: requête trop volumineuse (" + contentLength + " octets)");
+        }
+
+        try {
+            MultipartStream stream = new MultipartStream(request.getInputStream(), boundary);
+            if (!stream.skipPreamble()) {
+                return;
             }
+            long consumed = 0;
+            do {
+                Map<String, String> headers = stream.readHeaders();
+                String disposition = headers.get("content-disposition");
+                String fieldName = getDispositionParameter(disposition, "name");
+                String fileName = getFileName(disposition);
+                long remaining = maxRequestSize - consumed;
+
+                if (fileName == null || fileName.isEmpty()) {
+                    // C'est un champ de formulaire simple (texte)
+                    PartBuffer buffer = new PartBuffer(memoryThreshold, remaining, tempDir, budget);
+                    try {
+                        stream.transferPart(buffer);
+                        consumed += buffer.size();
+                        String value = buffer.toText();
+                        if (fieldName != null) formFields.put(fieldName, value);
+                        LOG.debug("[MultipartParser] Champ texte: {} = {}", fieldName, value);
+                    } finally {
+                        buffer.discard();
+                    }
+                } else {
+                    // C'est un fichier: en mémoire ou déversé sur disque au-delà du seuil
+                    PartBuffer buffer = new PartBuffer(memoryThreshold, Math.min(maxFileSize, remaining), tempDir, budget)
+                        .withDigest();
+                    String contentType = headers.get("content-type");
+                    FileUpload fileUpload;
+                    try {
+                        stream.transferPart(buffer);
+                        fileUpload = buffer.toFileUpload(fileName, contentType);
+                    } catch (IOException e) {
+                        buffer.discard();
+                        throw e;
+                    }
+                    consumed += buffer.size();
+                    reserved += buffer.reserved();
+                    if (!fileUpload.isInMemory()) spilled.add(fileUpload);
+                    if (fieldName == null) continue;
+
+                    // Stockage en tant que fichier unique
+                    singleFiles.put(fieldName, fileUpload);
+
+                    // Stockage en tant que fichier multiple (liste)
+                    multiFiles.computeIfAbsent(fieldName, k -> new ArrayList<>()).add(fileUpload);
+
+                    if (LOG.isDebugEnabled()) {
+                        LOG.debug("[MultipartParser] Fichier uploadé: {} ({}, {} bytes{})",
+                            fileName, contentType, fileUpload.getSize(), fileUpload.isInMemory() ? "" : ", sur disque");
+                    }
+                }
+            } while (stream.readBoundary());
+        } catch (IOException e) {
+            cleanup();
+            throw e;
         }
     }
 
     /**
-     * Extrait le nom de fichier depuis le header Content-Disposition
+     * Supprime les fichiers temporaires créés par le parsing et rend la mémoire au budget
      */
-    private String getFileName(Part part) {
-        String contentDisposition = part.getHeader("content-disposition");
-        if (contentDisposition != null) {
-            for (String token : contentDisposition.split(";")) {
-                if (token.trim().startsWith("filename")) {
-                    String fileName = token.substring(token.indexOf('=') + 1).trim();
-                    // Enlever les guillemets
-                    if (fileName.startsWith("\"") && fileName.endsWith("\"")) {
-                        fileName = fileName.substring(1, fileName.length() - 1);
-                    }
-                    return fileName;
-                }
-            }
+    public void cleanup() {
+        for (FileUpload fileUpload : spilled) {
+            fileUpload.delete();
         }
-        return null;
+        spilled.clear();
+        budget.release(reserved);
+        reserved = 0;
     }
 
     /**
-     * Lit le contenu d'une Part comme String (pour les champs texte)
+     * Extrait le boundary du Content-Type (éventuellement entre guillemets)
      */
-    private String readPartAsString(Part part) throws IOException {
-        try (InputStream is = part.getInputStream();
-             ByteArrayOutputStream baos = new ByteArrayOutputStream()) {
-            byte[] buffer = new byte[1024];
-            int len;
-            while ((len = is.read(buffer)) != -1) {
-                baos.write(buffer, 0, len);
+    static String getBoundary(String contentType) {
+        String boundary = getDispositionParameter(contentType, "boundary");
+        return (boundary != null && !boundary.isEmpty()) ? boundary : null;
+    }
+
+    /**
+     * Valeur d'un paramètre nom=valeur d'un en-tête (Content-Disposition, Content-Type)
+     */
+    private static String getDispositionParameter(String header, String name) {
+        if (header == null) return null;
+        for (String token : header.split(";")) {
+            token = token.trim();
+            int eq = token.indexOf('=');
+            if (eq > 0 && token.substring(0, eq).trim().equalsIgnoreCase(name)) {
+                return unquote(token.substring(eq + 1).trim());
             }
-            return baos.toString("UTF-8");
         }
+        return null;
     }
 
     /**
-     * Lit le contenu d'une Part comme tableau de bytes (pour les fichiers)
+     * Extrait le nom de fichier depuis le header Content-Disposition
      */
-    private byte[] readPartAsBytes(Part part) throws IOException {
-        try (InputStream is = part.getInputStream();
-             ByteArrayOutputStream baos = new ByteArrayOutputStream()) {
-            byte[] buffer = new byte[4096];
-            int len;
-            while ((len = is.read(buffer)) != -1) {
-                baos.write(buffer, 0, len);
+    private String getFileName(String contentDisposition) {
+        if (contentDisposition != null) {
+            for (String token : contentDisposition.split(";")) {
+                if (token.trim().startsWith("filename")) {
+                    return unquote(token.substring(token.indexOf('=') + 1).trim());
+                }
             }
-            return baos.toByteArray();
         }
+        return null;
+    }
+
+    // Enlever les guillemets
+    private static String unquote(String value) {
+        if (value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")) {
+            return value.substring(1, value.length() - 1);
+        }
+        return value;
     }
 
     // Getters
@@ -0,0 +1,186 @@
+package upload;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Lecture en flux d'un corps multipart/form-data.
+ *
+ * Le délimiteur "\r\n--boundary" est recherché directement dans un tampon fixe;
+ * le contenu des parts est transmis par tranches au PartSink, sans jamais
+ * matérialiser une part entière en mémoire.
+ */
+class MultipartStream {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_HEADER_SIZE = 16 * 1024;
+
+    private final InputStream in;
+    private final byte[] delimiter;
+    private final byte[] buffer;
+    private int head;      // Début des données valides
+    private int tail;      // Fin des données valides
+    private boolean eof;
+    private long bytesRead;
+
+    MultipartStream(InputStream in, String boundary) {
+        this.in = in;
+        this.delimiter = ("\r\n--" + boundary).getBytes(StandardCharsets.ISO_8859_1);
+        this.buffer = new byte[Math.max(BUFFER_SIZE, delimiter.length * 4)];
+        // Le premier délimiteur n'est pas précédé de CRLF: on l'ajoute virtuellement
+        buffer[0] = '\r';
+        buffer[1] = '\n';
+        tail = 2;
+    }
+
+    /**
+     * Ignore le préambule jusqu'au premier délimiteur. Retourne false si le corps ne contient aucune part.
+     */
+    boolean skipPreamble() throws IOException {
+        transferPart(PartSink.DISCARD);
+        return readBoundary();
+    }
+
+    /**
+     * Consomme le délimiteur courant. Retourne true si une part suit, false si c'était le délimiteur final.
+     */
+    boolean readBoundary() throws IOException {
+        if (fill(delimiter.length + 2) < delimiter.length + 2) {
+            throw new IOException("Multipart: fin de flux inattendue");
+        }
+        head += delimiter.length;
+        if (buffer[head] == '-' && buffer[head + 1] == '-') {
+            head += 2;
+            return false;
+        }
+        // Espaces de remplissage tolérés avant CRLF
+        while (true) {
+            if (fill(2) < 2) throw new IOException("Multipart: fin de flux inattendue");
+            if (buffer[head] == '\r' && buffer[head + 1] == '\n') {
+                head += 2;
+                return true;
+            }
+            if (buffer[head] == ' ' || buffer[head] == '\t') {
+                head++;
+                continue;
+            }
+            throw new IOException("Multipart: délimiteur mal formé");
+        }
+    }
+
+    /**
+     * Lit les en-têtes de la part courante (noms en minuscules)
+     */
+    Map<String, String> readHeaders() throws IOException {
+        Map<String, String> headers = new HashMap<>();
+        int size = 0;
+        while (true) {
+            int lineEnd = -1;
+            while (lineEnd < 0) {
+                for (int i = head; i + 1 < tail; i++) {
+                    if (buffer[i] == '\r' && buffer[i + 1] == '\n') {
+                        lineEnd = i;
+                        break;
+                    }
+                }
+                if (lineEnd < 0) {
+                    int available = tail - head;
+                    if (available >= buffer.length || fill(available + 1) <= available) {
+                        throw new IOException("Multipart: en-têtes de part invalides");
+                    }
+                }
+            }
+            int length = lineEnd - head;
+            size += length + 2;
+            if (size > MAX_HEADER_SIZE) throw new IOException("Multipart: en-têtes de part trop longs");
+
+            String line = new String(buffer, head, length, StandardCharsets.UTF_8);
+            head = lineEnd + 2;
+            if (line.isEmpty()) return headers;
+
+            int colon = line.indexOf(':');
+            if (colon > 0) {
+                headers.put(line.substring(0, colon).trim().toLowerCase(), line.substring(colon + 1).trim());
+            }
+        }
+    }
+
+    /**
+     * Transmet le contenu de la part courante au sink, jusqu'au délimiteur (non consommé).
+     * Retourne le nombre d'octets transmis.
+     */
+    long transferPart(PartSink sink) throws IOException {
+        long total = 0;
+        while (true) {
+            int available = tail - head;
+            int index = indexOfDelimiter();
+            if (index == head) {
+                return total;
+            }
+
+            int safe;
+            if (index > head) {
+                safe = index - head;
+            } else if (available >= delimiter.length) {
+                // Les derniers octets peuvent être le début du délimiteur: on les garde
+                safe = available - (delimiter.length - 1);
+            } else if (eof) {
+                throw new IOException("Multipart: fin de flux inattendue (délimiteur manquant)");
+            } else {
+                fill(delimiter.length);
+                continue;
+            }
+
+            sink.write(buffer, head, safe);
+            head += safe;
+            total += safe;
+            if (index < 0) {
+                fill(delimiter.length);
+            }
+        }
+    }
+
+    private int indexOfDelimiter() {
+        byte first = delimiter[0];
+        int last = tail - delimiter.length;
+        outer:
+        for (int i = head; i <= last; i++) {
+            if (buffer[i] != first) continue;
+            for (int j = 1; j < delimiter.length; j++) {
+                if (buffer[i + j] != delimiter[j]) continue outer;
+            }
+            return i;
+        }
+        return -1;
+    }
+
+    // Garantit au moins n octets disponibles (sauf fin de flux); retourne le nombre disponible
+    private int fill(int n) throws IOException {
+        if (tail - head >= n) return tail - head;
+        if (head > 0) {
+            System.arraycopy(buffer, head, buffer, 0, tail - head);
+            tail -= head;
+            head = 0;
+        }
+        while (tail - head < n && !eof && tail < buffer.length) {
+            int read = in.read(buffer, tail, buffer.length - tail);
+            if (read < 0) {
+                eof = true;
+            } else {
+                tail += read;
+                bytesRead += read;
+            }
+        }
+        return tail - head;
+    }
+
+    /**
+     * Octets lus depuis le flux de la requête
+     */
+    long getBytesRead() {
+        return bytesRead;
+    }
+}
@@ -0,0 +1,172 @@
+package upload;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+
+import log.Logger;
+
+/**
+ * Contenu d'une part: en mémoire tant qu'il reste sous le seuil,
+ * puis déversé dans un fichier temporaire (le tampon est alors libéré).
+ * La capacité du tampon est réservée dans l'UploadBudget global.
+ * Pour les fichiers, le SHA-256 est calculé au fil de l'écriture (pas de seconde lecture).
+ */
+class PartBuffer implements PartSink {
+
+    private static final Logger LOG = Logger.getLogger(PartBuffer.class);
+
+    private static final int INITIAL_CAPACITY = 8 * 1024;
+
+    private final int memoryThreshold;
+    private final long maxSize;
+    private final Path tempDir;
+    private final UploadBudget budget;
+    private MessageDigest digest;   // null pour les champs texte
+
+    private long reserved;    // Octets réservés dans le budget (capacité du tampon)
+    private byte[] data = new byte[0];
+    private long size;
+    private Path file;
+    private OutputStream fileOut;
+
+    PartBuffer(int memoryThreshold, long maxSize, Path tempDir, UploadBudget budget) {
+        this.memoryThreshold = memoryThreshold;
+        this.maxSize = maxSize;
+        this.tempDir = tempDir;
+        this.budget = budget;
+    }
+
+    /**
+     * Active le calcul du SHA-256 du contenu
+     */
+    PartBuffer withDigest() {
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        return this;
+    }
+
+    @Override
+    public void write(byte[] buffer, int offset, int length) throws IOException {
+        if (size + length > maxSize) {
+            throw new IOException("Multipart: part trop volumineuse (limite " + maxSize + " octets)");
+        }
+        if (digest != null) {
+            digest.update(buffer, offset, length);
+        }
+        if (fileOut == null && size + length > memoryThreshold) {
+            spill();
+        }
+        if (fileOut != null) {
+            fileOut.write(buffer, offset, length);
+        } else {
+            int required = (int) size + length;
+            if (required > data.length) {
+                int capacity = Math.min(Math.max(Math.max(INITIAL_CAPACITY, data.length * 2), required), memoryThreshold);
+                if (!grow(capacity)) {
+                    spill();
+                    fileOut.write(buffer, offset, length);
+                    size += length;
+                    return;
+                }
+            }
+            System.arraycopy(buffer, offset, data, (int) size, length);
+        }
+        size += length;
+    }
+
+    // Agrandit le tampon si le budget le permet; false = il faut passer sur disque
+    private boolean grow(int capacity) throws IOException {
+        long delta = capacity - data.length;
+        if (!budget.tryReserve(delta)) {
+            if (budget.getPolicy() == UploadBudget.Policy.SPILL) {
+                budget.recordSpill();
+                return false;
+            }
+            budget.reserve(delta);
+        }
+        reserved += delta;
+        data = Arrays.copyOf(data, capacity);
+        return true;
+    }
+
+    // Passage en fichier temporaire: on y recopie ce qui était en mémoire
+    private void spill() throws IOException {
+        file = (tempDir != null) ? Files.createTempFile(tempDir, "upload-", ".part")
+                                 : Files.createTempFile("upload-", ".part");
+        fileOut = Files.newOutputStream(file);
+        fileOut.write(data, 0, (int) size);
+        data = null;
+        release();
+    }
+
+    /**
+     * Rend au budget la mémoire réservée par ce tampon
+     */
+    void release() {
+        budget.release(reserved);
+        reserved = 0;
+    }
+
+    /**
+     * Termine l'écriture et construit le FileUpload correspondant
+     */
+    FileUpload toFileUpload(String fileName, String contentType) throws IOException {
+        close();
+        FileUpload upload = (file != null) ? new FileUpload(fileName, contentType, file, size)
+                                           : new FileUpload(fileName, contentType, data, (int) size);
+        if (digest != null) {
+            upload.setSha256(digest.digest());
+        }
+        return upload;
+    }
+
+    /**
+     * Contenu en texte UTF-8 (champs de formulaire)
+     */
+    String toText() throws IOException {
+        close();
+        return (file != null) ? new String(Files.readAllBytes(file), StandardCharsets.UTF_8)
+                              : new String(data, 0, (int) size, StandardCharsets.UTF_8);
+    }
+
+    void close() throws IOException {
+        if (fileOut != null) {
+            fileOut.close();
+            fileOut = null;
+        }
+    }
+
+    /**
+     * Ferme et supprime le fichier temporaire éventuel, libère la mémoire réservée
+     */
+    void discard() {
+        release();
+        try {
+            close();
+            if (file != null) Files.deleteIfExists(file);
+        } catch (IOException e) {
+            LOG.warn("Multipart: suppression impossible de {}: {}", file, e.getMessage());
+        }
+    }
+
+    long reserved() {
+        return reserved;
+    }
+
+    long size() {
+        return size;
+    }
+
+    boolean isSpilled() {
+        return file != null;
+    }
+}
@@ -0,0 +1,13 @@
+package upload;
+
+import java.io.IOException;
+
+/**
+ * Destination du contenu d'une part, reçu par tranches depuis MultipartStream
+ */
+interface PartSink {
+
+    PartSink DISCARD = (buffer, offset, length) -> { };
+
+    void write(byte[] buffer, int offset, int length) throws IOException;
+}
@@ -0,0 +1,142 @@
+package upload;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Budget mémoire global des uploads, partagé par toutes les requêtes multipart.
+ *
+ * Chaque PartBuffer réserve ici les octets qu'il garde en mémoire (compteur atomique,
+ * sans verrou). Quand le budget est épuisé, selon la politique:
+ * SPILL - la part est écrite sur disque;
+ * WAIT  - la lecture attend qu'un autre upload libère de la mémoire, au plus waitMillis,
+ *         puis la requête est rejetée (UploadRejectedException → 503).
+ */
+public class UploadBudget {
+
+    public enum Policy { SPILL, WAIT }
+
+    /** Budget sans limite (parser utilisé hors du FrontServlet) */
+    public static final UploadBudget UNLIMITED = new UploadBudget(Long.MAX_VALUE, Policy.SPILL, 0);
+
+    private final long limit;
+    private final Policy policy;
+    private final long waitNanos;
+
+    private final AtomicLong reserved = new AtomicLong();
+    private final AtomicLong peak = new AtomicLong();
+    private final LongAdder rejections = new LongAdder();
+    private final LongAdder spills = new LongAdder();
+    private final AtomicInteger waiters = new AtomicInteger();
+    private final Object monitor = new Object();
+
+    public UploadBudget(long limit, Policy policy, long waitMillis) {
+        this.limit = limit;
+        this.policy = policy;
+        this.waitNanos = TimeUnit.MILLISECONDS.toNanos(waitMillis);
+    }
+
+    /**
+     * Réserve bytes si le budget le permet, sans attendre
+     */
+    public boolean tryReserve(long bytes) {
+        while (true) {
+            long current = reserved.get();
+            long next = current + bytes;
+            if (next > limit || next < 0) {
+                return false;
+            }
+            if (reserved.compareAndSet(current, next)) {
+                peak.accumulateAndGet(next, Math::max);
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Réserve bytes en attendant au plus le délai configuré (politique WAIT)
+     */
+    void reserve(long bytes) throws UploadRejectedException {
+        if (tryReserve(bytes)) {
+            return;
+        }
+        if (bytes > limit || waitNanos <= 0) {
+            rejections.increment();
+            throw new UploadRejectedException("Budget mémoire des uploads épuisé");
+        }
+        long deadline = System.nanoTime() + waitNanos;
+        synchronized (monitor) {
+            waiters.incrementAndGet();
+            try {
+                while (!tryReserve(bytes)) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        rejections.increment();
+                        throw new UploadRejectedException("Budget mémoire des uploads épuisé après "
+                            + TimeUnit.NANOSECONDS.toMillis(waitNanos) + " ms d'attente");
+                    }
+                    TimeUnit.NANOSECONDS.timedWait(monitor, remaining);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                rejections.increment();
+                throw new UploadRejectedException("Attente du budget mémoire interrompue");
+            } finally {
+                waiters.decrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Rend bytes au budget et réveille les lecteurs en attente
+     */
+    public void release(long bytes) {
+        if (bytes <= 0) return;
+        reserved.addAndGet(-bytes);
+        if (waiters.get() > 0) {
+            synchronized (monitor) {
+                monitor.notifyAll();
+            }
+        }
+    }
+
+    void recordSpill() {
+        spills.increment();
+    }
+
+    public Policy getPolicy() {
+        return policy;
+    }
+
+    public long getLimit() {
+        return limit;
+    }
+
+    /** Octets actuellement réservés par les uploads en cours */
+    public long getReserved() {
+        return reserved.get();
+    }
+
+    /** Maximum atteint depuis le démarrage */
+    public long getPeak() {
+        return peak.get();
+    }
+
+    /** Requêtes rejetées (503) faute de budget */
+    public long getRejections() {
+        return rejections.sum();
+    }
+
+    /** Parts écrites sur disque faute de budget (politique SPILL) */
+    public long getSpills() {
+        return spills.sum();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("UploadBudget[%s, réservé=%d/%d, pic=%d, rejets=%d, déversements=%d]",
+            policy, getReserved(), limit, getPeak(), getRejections(), getSpills());
+    }
+}
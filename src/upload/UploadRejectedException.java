@@ -0,0 +1,15 @@
+package upload;
+
+import java.io.IOException;
+
+/**
+ * Upload refusé faute de budget mémoire (répondu en 503 par le FrontServlet)
+ */
+public class UploadRejectedException extends IOException {
+
+    private static final long serialVersionUID = 1L;
+
+    public UploadRejectedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,26 @@
+package upload;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Stockage des fichiers uploadés, adressé par contenu:
+ * deux fichiers identiques ont la même clé et ne sont stockés qu'une fois.
+ */
+public interface UploadStore {
+
+    /**
+     * Enregistre le contenu (s'il n'est pas déjà présent) et retourne sa clé
+     */
+    String store(FileUpload upload) throws IOException;
+
+    /**
+     * Vrai si un contenu est stocké sous cette clé
+     */
+    boolean exists(String key);
+
+    /**
+     * Flux de lecture du contenu stocké sous cette clé
+     */
+    InputStream open(String key) throws IOException;
+}
@@ -0,0 +1,300 @@
+package url;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+import framework.annotation.Param;
+import upload.FileUpload;
+import upload.MultipartParser;
+import log.Logger;
+
+/**
+ * Plan de liaison des arguments d'un handler, compilé une fois au scan.
+ *
+ * Toute l'analyse des paramètres (types génériques, @Param, FileUpload, Map, POJO,
+ * index des variables de chemin, convertisseur) est faite ici. À chaque requête,
+ * bind() ne fait qu'une boucle sur les résolveurs.
+ */
+public class BindingPlan {
+
+    private static final Logger LOG = Logger.getLogger(BindingPlan.class);
+
+    private final String pattern;
+    private final ParameterResolver[] resolvers;
+
+    private BindingPlan(String pattern, ParameterResolver[] resolvers) {
+        this.pattern = pattern;
+        this.resolvers = resolvers;
+    }
+
+    /**
+     * Compile le plan d'une méthode pour un pattern d'URL (peut être null)
+     */
+    public static BindingPlan compile(Method method, String pattern) {
+        String[] segments = (pattern != null) ? pattern.split("/") : new String[0];
+        Parameter[] parameters = method.getParameters();
+        ParameterResolver[] resolvers = new ParameterResolver[parameters.length];
+        for (int i = 0; i < parameters.length; i++) {
+            resolvers[i] = compileParameter(parameters[i], segments);
+        }
+        return new BindingPlan(pattern, resolvers);
+    }
+
+    /**
+     * Construit les arguments du handler pour la requête courante
+     */
+    public Object[] bind(HttpServletRequest request, RouteMatch match, MultipartParser multipart) {
+        ParameterResolver[] resolvers = this.resolvers;
+        Object[] args = new Object[resolvers.length];
+        for (int i = 0; i < resolvers.length; i++) {
+            args[i] = resolvers[i].resolve(request, match, multipart);
+        }
+        return args;
+    }
+
+    public String getPattern() {
+        return pattern;
+    }
+
+    public int size() {
+        return resolvers.length;
+    }
+
+    /**
+     * Forme du plan (type de résolveur par paramètre), pour valider un plan persisté
+     */
+    public String describe() {
+        StringBuilder sb = new StringBuilder();
+        for (ParameterResolver resolver : resolvers) {
+            if (sb.length() > 0) sb.append(',');
+            sb.append(resolver.getClass().getSimpleName());
+        }
+        return sb.toString();
+    }
+
+    // ------------------------------
+    // Compilation (même ordre de décision que l'ancien mapFormParametersToMethodArgs)
+    // ------------------------------
+    private static ParameterResolver compileParameter(Parameter p, String[] segments) {
+        Class<?> paramType = p.getType();
+        String name = getParamName(p);
+
+        // FileUpload (fichier unique)
+        if (paramType == FileUpload.class) {
+            return new FileResolver(name);
+        }
+
+        // FileUpload[] (fichiers multiples)
+        if (paramType.isArray() && paramType.getComponentType() == FileUpload.class) {
+            return new FileArrayResolver(name);
+        }
+
+        // List<FileUpload> (fichiers multiples)
+        if (paramType == List.class && typeArgumentsAre(p.getParameterizedType(), FileUpload.class)) {
+            return new FileListResolver(name);
+        }
+
+        // Map<String, Object>
+        if (paramType == Map.class && typeArgumentsAre(p.getParameterizedType(), String.class, Object.class)) {
+            return new MapResolver();
+        }
+
+        ScalarResolver scalar = compileScalar(p, segments);
+
+        // Objet personnalisé (not primitive, not String, not Map, not FileUpload)
+        if (!paramType.isPrimitive() && paramType != String.class && paramType != Map.class
+                && PojoBinder.isBindable(paramType)) {
+            return new PojoResolver(PojoBinder.of(paramType), paramType, scalar);
+        }
+        // Pas instanciable (Integer, List, interface...): traité comme valeur simple
+
+        return scalar;
+    }
+
+    private static ScalarResolver compileScalar(Parameter p, String[] segments) {
+        String annotatedName = p.isAnnotationPresent(Param.class) ? p.getAnnotation(Param.class).value() : null;
+        String parameterName = p.isNamePresent() ? p.getName() : null;
+
+        int pathIndex = -1;
+        for (int s = 0; s < segments.length; s++) {
+            if (RouteTrie.isVariable(segments[s])
+                    && segments[s].substring(1, segments[s].length() - 1).equals(p.getName())) {
+                pathIndex = s;
+                break;
+            }
+        }
+        return new ScalarResolver(annotatedName, parameterName, pathIndex, ValueConverter.forType(p.getType()),
+            p.getType().getSimpleName());
+    }
+
+    private static boolean typeArgumentsAre(Type type, Class<?>... expected) {
+        if (!(type instanceof ParameterizedType)) return false;
+        Type[] actual = ((ParameterizedType) type).getActualTypeArguments();
+        if (expected.length == 1) {
+            // List<FileUpload>: seul le premier argument compte
+            return actual.length > 0 && actual[0] == expected[0];
+        }
+        if (actual.length != expected.length) return false;
+        for (int i = 0; i < actual.length; i++) {
+            if (actual[i] != expected[i]) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Nom du paramètre (via @Param ou nom réel)
+     */
+    static String getParamName(Parameter p) {
+        if (p.isAnnotationPresent(Param.class)) {
+            return p.getAnnotation(Param.class).value();
+        }
+        return p.getName();
+    }
+
+    // Champ texte: d'abord multipart, sinon request.getParameter
+    static String lookup(HttpServletRequest request, MultipartParser multipart, String name) {
+        String value = (multipart != null) ? multipart.getFormFields().get(name) : request.getParameter(name);
+        if (value == null && multipart != null) {
+            value = request.getParameter(name);
+        }
+        return value;
+    }
+
+    // ------------------------------
+    // Résolveurs spécialisés
+    // ------------------------------
+    private static final class FileResolver implements ParameterResolver {
+        private final String name;
+
+        FileResolver(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public Object resolve(HttpServletRequest request, RouteMatch match, MultipartParser multipart) {
+            return (multipart != null) ? multipart.getFile(name) : null;
+        }
+    }
+
+    private static final class FileArrayResolver implements ParameterResolver {
+        private static final FileUpload[] EMPTY = new FileUpload[0];
+        private final String name;
+
+        FileArrayResolver(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public Object resolve(HttpServletRequest request, RouteMatch match, MultipartParser multipart) {
+            return (multipart != null) ? multipart.getFiles(name).toArray(EMPTY) : new FileUpload[0];
+        }
+    }
+
+    private static final class FileListResolver implements ParameterResolver {
+        private final String name;
+
+        FileListResolver(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public Object resolve(HttpServletRequest request, RouteMatch match, MultipartParser multipart) {
+            return (multipart != null) ? multipart.getFiles(name) : new ArrayList<FileUpload>();
+        }
+    }
+
+    private static final class MapResolver implements ParameterResolver {
+        @Override
+        public Object resolve(HttpServletRequest request, RouteMatch match, MultipartParser multipart) {
+            Map<String, String[]> parameters = request.getParameterMap();
+            Map<String, Object> paramMap = new HashMap<>();
+
+            // D'abord les paramètres de la requête classique
+            for (Map.Entry<String, String[]> entry : parameters.entrySet()) {
+                paramMap.put(entry.getKey(), entry.getValue().length > 0 ? entry.getValue()[0] : null);
+            }
+
+            // Puis les champs et fichiers du multipart
+            if (multipart != null) {
+                paramMap.putAll(multipart.getFormFields());
+                paramMap.putAll(multipart.getSingleFiles());
+            }
+            return paramMap;
+        }
+    }
+
+    private static final class PojoResolver implements ParameterResolver {
+        private final PojoBinder binder;
+        private final Class<?> type;
+        private final ScalarResolver fallback;
+
+        PojoResolver(PojoBinder binder, Class<?> type, ScalarResolver fallback) {
+            this.binder = binder;
+            this.type = type;
+            this.fallback = fallback;
+        }
+
+        @Override
+        public Object resolve(HttpServletRequest request, RouteMatch match, MultipartParser multipart) {
+            try {
+                return binder.bind(request, multipart);
+            } catch (Exception e) {
+                LOG.error("Erreur lors de l'instanciation de l'objet personnalisé: {}", type.getSimpleName(), e);
+                return fallback.resolve(request, match, multipart);
+            }
+        }
+    }
+
+    private static final class ScalarResolver implements ParameterResolver {
+        private final String annotatedName;   // @Param("...") ou null
+        private final String parameterName;   // Nom réel si compilé avec -parameters, sinon null
+        private final int pathIndex;          // Index du segment {var} de même nom, -1 si absent
+        private final ValueConverter converter;
+        private final String typeName;
+
+        ScalarResolver(String annotatedName, String parameterName, int pathIndex,
+                       ValueConverter converter, String typeName) {
+            this.annotatedName = annotatedName;
+            this.parameterName = parameterName;
+            this.pathIndex = pathIndex;
+            this.converter = converter;
+            this.typeName = typeName;
+        }
+
+        @Override
+        public Object resolve(HttpServletRequest request, RouteMatch match, MultipartParser multipart) {
+            String value = null;
+
+            // 1 Si annotation @Param
+            if (annotatedName != null) {
+                value = lookup(request, multipart, annotatedName);
+            }
+
+            // 2 Sinon on essaie par nom de paramètre
+            if ((value == null || value.isEmpty()) && parameterName != null) {
+                value = lookup(request, multipart, parameterName);
+            }
+
+            // 3 Sinon on regarde dans les path variables (par index de segment)
+            if ((value == null || value.isEmpty()) && pathIndex >= 0 && match != null
+                    && pathIndex < match.getRoute().getSegmentCount()) {
+                value = match.getSegment(pathIndex);
+            }
+
+            // 4 Conversion automatique
+            Object converted = converter.convert(value);
+            if (LOG.isTraceEnabled()) {
+                LOG.trace("[Param] Conversion {} → {} ({})", value, converted, typeName);
+            }
+            return converted;
+        }
+    }
+}
@@ -0,0 +1,428 @@
+package url;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import log.Logger;
+
+/**
+ * Scanner de classes au niveau bytecode.
+ *
+ * Lit les fichiers .class en parallèle (ForkJoinPool) et n'analyse que le
+ * constant pool et l'attribut RuntimeVisibleAnnotations: aucune classe n'est
+ * chargée ni initialisée. Seuls les noms des classes portant l'annotation
+ * recherchée sont retournés. Les jars sont lus via leur répertoire central,
+ * sans mappage mémoire (le jar n'est pas verrouillé après le scan).
+ */
+public class ClassFileScanner {
+
+    private static final Logger LOG = Logger.getLogger(ClassFileScanner.class);
+
+    private static final int MAGIC = 0xCAFEBABE;
+
+    private final String annotationDescriptor;   // ex: Lsprint2bis/Controller;
+    private final byte[] descriptorBytes;
+    private final ForkJoinPool pool;
+
+    public ClassFileScanner(Class<?> annotation, ForkJoinPool pool) {
+        this.annotationDescriptor = "L" + annotation.getName().replace('.', '/') + ";";
+        this.descriptorBytes = annotationDescriptor.getBytes(StandardCharsets.UTF_8);
+        this.pool = pool;
+    }
+
+    /**
+     * Noms des classes annotées dans un répertoire de classes (ex: /WEB-INF/classes)
+     */
+    public List<String> scanDirectory(File baseDir) {
+        if (baseDir == null || !baseDir.isDirectory()) return new ArrayList<>();
+        return pool.invoke(new DirectoryTask(baseDir, ""));
+    }
+
+    /**
+     * Noms des classes annotées dans tous les jars d'un répertoire (ex: /WEB-INF/lib)
+     */
+    public List<String> scanJars(File libDir) {
+        List<String> result = new ArrayList<>();
+        File[] jars = (libDir != null) ? libDir.listFiles((dir, name) -> name.endsWith(".jar")) : null;
+        if (jars == null) return result;
+
+        List<JarTask> tasks = new ArrayList<>();
+        for (File jar : jars) {
+            JarTask task = new JarTask(jar);
+            pool.execute(task);
+            tasks.add(task);
+        }
+        for (JarTask task : tasks) {
+            result.addAll(task.join());
+        }
+        return result;
+    }
+
+    /**
+     * Noms des classes annotées d'un seul jar
+     */
+    public List<String> scanJar(File jar) {
+        return new JarTask(jar).compute();
+    }
+
+    /**
+     * Vrai si le fichier .class donné porte l'annotation
+     */
+    public boolean isAnnotated(File classFile) throws IOException {
+        return isAnnotated(ByteBuffer.wrap(Files.readAllBytes(classFile.toPath())));
+    }
+
+    // ------------------------------
+    // Tâches parallèles
+    // ------------------------------
+    private final class DirectoryTask extends RecursiveTask<List<String>> {
+        private static final long serialVersionUID = 1L;
+
+        private final File directory;
+        private final String packageName;
+
+        DirectoryTask(File directory, String packageName) {
+            this.directory = directory;
+            this.packageName = packageName;
+        }
+
+        @Override
+        protected List<String> compute() {
+            List<String> result = new ArrayList<>();
+            File[] files = directory.listFiles();
+            if (files == null) return result;
+
+            List<DirectoryTask> subTasks = new ArrayList<>();
+            for (File file : files) {
+                if (file.isDirectory()) {
+                    DirectoryTask task = new DirectoryTask(file, packageName + file.getName() + ".");
+                    task.fork();
+                    subTasks.add(task);
+                } else if (file.getName().endsWith(".class")) {
+                    try {
+                        if (isAnnotated(file)) {
+                            result.add(packageName + file.getName().substring(0, file.getName().length() - 6));
+                        }
+                    } catch (IOException | RuntimeException e) {
+                        LOG.warn("[Scanner] Classe illisible: {} ({})", file, e.getMessage());
+                    }
+                }
+            }
+            for (DirectoryTask task : subTasks) {
+                result.addAll(task.join());
+            }
+            return result;
+        }
+    }
+
+    private final class JarTask extends RecursiveTask<List<String>> {
+        private static final long serialVersionUID = 1L;
+
+        private final File jar;
+
+        JarTask(File jar) {
+            this.jar = jar;
+        }
+
+        @Override
+        protected List<String> compute() {
+            try {
+                return scanJarChannel(jar);
+            } catch (IOException | RuntimeException | DataFormatException e) {
+                // Zip64, chiffrement ou format inattendu: lecture classique
+                try {
+                    return scanZipFile(jar);
+                } catch (IOException ex) {
+                    LOG.warn("[Scanner] Jar illisible: {} ({})", jar, ex.getMessage());
+                    return new ArrayList<>();
+                }
+            }
+        }
+    }
+
+    // ------------------------------
+    // Lecture des jars
+    // ------------------------------
+    // Lecture par FileChannel.read dans des tampons du tas: aucun mappage ne garde le jar verrouillé
+    // (sous Windows, un fichier mappé ne peut être ni supprimé ni remplacé avant le passage du GC).
+    private List<String> scanJarChannel(File jar) throws IOException, DataFormatException {
+        List<String> result = new ArrayList<>();
+        try (FileChannel channel = FileChannel.open(jar.toPath(), StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+
+            // Fin du répertoire central (EOCD), cherchée dans la fin du fichier (commentaire ≤ 64 Ko)
+            int tailLength = (int) Math.min(fileSize, 22 + 65535);
+            ByteBuffer tail = read(channel, fileSize - tailLength, tailLength);
+            int eocd = -1;
+            for (int i = tailLength - 22; i >= 0; i--) {
+                if (tail.getInt(i) == 0x06054b50) {
+                    eocd = i;
+                    break;
+                }
+            }
+            if (eocd < 0) throw new IOException("EOCD introuvable");
+
+            int entries = tail.getShort(eocd + 10) & 0xFFFF;
+            long cenSize = tail.getInt(eocd + 12) & 0xFFFFFFFFL;
+            long cenOffset = tail.getInt(eocd + 16) & 0xFFFFFFFFL;
+            if (entries == 0xFFFF || cenOffset == 0xFFFFFFFFL || cenSize == 0xFFFFFFFFL) {
+                throw new IOException("Zip64 non supporté");
+            }
+            if (cenOffset + cenSize > fileSize) throw new IOException("Répertoire central hors du fichier");
+
+            // Seul le répertoire central est lu d'un bloc; chaque classe est lue à sa position
+            ByteBuffer cen = read(channel, cenOffset, (int) cenSize);
+            ByteBuffer entry = ByteBuffer.allocate(8192).order(ByteOrder.LITTLE_ENDIAN);
+            Inflater inflater = new Inflater(true);
+            try {
+                int pos = 0;
+                for (int e = 0; e < entries; e++) {
+                    if (cen.getInt(pos) != 0x02014b50) throw new IOException("Répertoire central invalide");
+                    int flags = cen.getShort(pos + 8) & 0xFFFF;
+                    int method = cen.getShort(pos + 10) & 0xFFFF;
+                    int compressedSize = cen.getInt(pos + 20);
+                    int size = cen.getInt(pos + 24);
+                    int nameLength = cen.getShort(pos + 28) & 0xFFFF;
+                    int extraLength = cen.getShort(pos + 30) & 0xFFFF;
+                    int commentLength = cen.getShort(pos + 32) & 0xFFFF;
+                    long localOffset = cen.getInt(pos + 42) & 0xFFFFFFFFL;
+
+                    String name = decodeName(cen, pos + 46, nameLength);
+                    pos += 46 + nameLength + extraLength + commentLength;
+
+                    if (!name.endsWith(".class") || name.startsWith("META-INF/")) continue;
+                    if ((flags & 1) != 0) throw new IOException("Entrée chiffrée");
+                    if (compressedSize < 0 || size < 0) throw new IOException("Entrée trop grande: " + name);
+
+                    // En-tête local (30 octets + nom + extra variable), puis les données compressées
+                    ByteBuffer local = read(channel, localOffset, 30);
+                    if (local.getInt(0) != 0x04034b50) throw new IOException("En-tête local invalide: " + name);
+                    long dataOffset = localOffset + 30 + (local.getShort(26) & 0xFFFF) + (local.getShort(28) & 0xFFFF);
+                    if (entry.capacity() < compressedSize) {
+                        entry = ByteBuffer.allocate(compressedSize).order(ByteOrder.LITTLE_ENDIAN);
+                    }
+                    entry.clear().limit(compressedSize);
+                    readFully(channel, entry, dataOffset);
+                    entry.flip();
+
+                    ByteBuffer classBytes;
+                    if (method == 0) {
+                        classBytes = entry;
+                    } else if (method == 8) {
+                        byte[] out = new byte[size];
+                        inflater.reset();
+                        inflater.setInput(entry);
+                        int n = 0;
+                        while (n < size && !inflater.finished()) {
+                            int read = inflater.inflate(out, n, size - n);
+                            if (read == 0 && (inflater.needsInput() || inflater.needsDictionary())) break;
+                            n += read;
+                        }
+                        classBytes = ByteBuffer.wrap(out, 0, n);
+                    } else {
+                        throw new IOException("Méthode de compression non supportée: " + method);
+                    }
+
+                    if (isAnnotated(classBytes.order(ByteOrder.BIG_ENDIAN))) {
+                        result.add(name.substring(0, name.length() - 6).replace('/', '.'));
+                    }
+                }
+            } finally {
+                inflater.end();
+            }
+        }
+        return result;
+    }
+
+    // Bloc du fichier lu dans un tampon du tas, en petit-boutiste (format zip)
+    private static ByteBuffer read(FileChannel channel, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+        readFully(channel, buffer, position);
+        buffer.flip();
+        return buffer;
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position);
+            if (read < 0) throw new IOException("Fin de fichier inattendue");
+            position += read;
+        }
+    }
+
+    private List<String> scanZipFile(File jar) throws IOException {
+        List<String> result = new ArrayList<>();
+        try (ZipFile zipFile = new ZipFile(jar)) {
+            Enumeration<? extends ZipEntry> entries = zipFile.entries();
+            while (entries.hasMoreElements()) {
+                ZipEntry entry = entries.nextElement();
+                String name = entry.getName();
+                if (!name.endsWith(".class") || name.startsWith("META-INF/")) continue;
+                try (InputStream in = zipFile.getInputStream(entry)) {
+                    if (isAnnotated(ByteBuffer.wrap(in.readAllBytes()))) {
+                        result.add(name.substring(0, name.length() - 6).replace('/', '.'));
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    private static String decodeName(ByteBuffer zip, int offset, int length) {
+        byte[] bytes = new byte[length];
+        zip.duplicate().position(offset).get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // ------------------------------
+    // Analyse du bytecode
+    // ------------------------------
+
+    /**
+     * Vrai si le fichier .class porte l'annotation (RuntimeVisibleAnnotations de la classe)
+     */
+    public boolean isAnnotated(ByteBuffer b) {
+        if (b.remaining() < 10 || b.getInt(b.position()) != MAGIC) return false;
+        int base = b.position();
+        int pos = base + 8;
+        int cpCount = b.getShort(pos) & 0xFFFF;
+        pos += 2;
+
+        // Constant pool: on repère le descripteur de l'annotation et le nom d'attribut
+        int descriptorIndex = -1;
+        int attributeNameIndex = -1;
+        for (int i = 1; i < cpCount; i++) {
+            int tag = b.get(pos) & 0xFF;
+            switch (tag) {
+                case 1: { // Utf8
+                    int length = b.getShort(pos + 1) & 0xFFFF;
+                    if (equalsUtf8(b, pos + 3, length, descriptorBytes)) {
+                        descriptorIndex = i;
+                    } else if (equalsUtf8(b, pos + 3, length, RUNTIME_VISIBLE_ANNOTATIONS)) {
+                        attributeNameIndex = i;
+                    }
+                    pos += 3 + length;
+                    break;
+                }
+                case 3: case 4: case 9: case 10: case 11: case 12: case 17: case 18:
+                    pos += 5;
+                    break;
+                case 5: case 6: // Long, Double: occupent deux entrées
+                    pos += 9;
+                    i++;
+                    break;
+                case 7: case 8: case 16: case 19: case 20:
+                    pos += 3;
+                    break;
+                case 15:
+                    pos += 4;
+                    break;
+                default:
+                    throw new IllegalStateException("Tag de constant pool inconnu: " + tag);
+            }
+        }
+
+        // Rejet rapide: le descripteur n'apparaît nulle part
+        if (descriptorIndex < 0 || attributeNameIndex < 0) return false;
+
+        pos += 6; // access_flags, this_class, super_class
+        int interfaces = b.getShort(pos) & 0xFFFF;
+        pos += 2 + interfaces * 2;
+        pos = skipMembers(b, pos); // fields
+        pos = skipMembers(b, pos); // methods
+
+        int attributes = b.getShort(pos) & 0xFFFF;
+        pos += 2;
+        for (int a = 0; a < attributes; a++) {
+            int nameIndex = b.getShort(pos) & 0xFFFF;
+            int length = b.getInt(pos + 2);
+            if (nameIndex == attributeNameIndex) {
+                int annotations = b.getShort(pos + 6) & 0xFFFF;
+                int p = pos + 8;
+                for (int n = 0; n < annotations; n++) {
+                    int typeIndex = b.getShort(p) & 0xFFFF;
+                    if (typeIndex == descriptorIndex) return true;
+                    p = skipAnnotation(b, p);
+                }
+            }
+            pos += 6 + length;
+        }
+        return false;
+    }
+
+    private static final byte[] RUNTIME_VISIBLE_ANNOTATIONS =
+        "RuntimeVisibleAnnotations".getBytes(StandardCharsets.UTF_8);
+
+    private static boolean equalsUtf8(ByteBuffer b, int offset, int length, byte[] expected) {
+        if (length != expected.length) return false;
+        for (int i = 0; i < length; i++) {
+            if (b.get(offset + i) != expected[i]) return false;
+        }
+        return true;
+    }
+
+    private static int skipMembers(ByteBuffer b, int pos) {
+        int count = b.getShort(pos) & 0xFFFF;
+        pos += 2;
+        for (int i = 0; i < count; i++) {
+            pos += 6; // access_flags, name_index, descriptor_index
+            int attributes = b.getShort(pos) & 0xFFFF;
+            pos += 2;
+            for (int a = 0; a < attributes; a++) {
+                pos += 6 + b.getInt(pos + 2);
+            }
+        }
+        return pos;
+    }
+
+    // annotation { u2 type_index; u2 num_pairs; { u2 name; element_value }[] }
+    private static int skipAnnotation(ByteBuffer b, int pos) {
+        int pairs = b.getShort(pos + 2) & 0xFFFF;
+        pos += 4;
+        for (int i = 0; i < pairs; i++) {
+            pos = skipElementValue(b, pos + 2);
+        }
+        return pos;
+    }
+
+    private static int skipElementValue(ByteBuffer b, int pos) {
+        char tag = (char) (b.get(pos) & 0xFF);
+        pos += 1;
+        switch (tag) {
+            case 'e':
+                return pos + 4;
+            case '@':
+                return skipAnnotation(b, pos);
+            case '[': {
+                int values = b.getShort(pos) & 0xFFFF;
+                pos += 2;
+                for (int i = 0; i < values; i++) {
+                    pos = skipElementValue(b, pos);
+                }
+                return pos;
+            }
+            default: // B C D F I J S Z s c
+                return pos + 2;
+        }
+    }
+
+    public String getAnnotationDescriptor() {
+        return annotationDescriptor;
+    }
+}
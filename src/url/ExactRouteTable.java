@@ -0,0 +1,81 @@
+package url;
+
+import java.util.List;
+
+/**
+ * Table figée des routes statiques (sans {var}), indexée par chemin normalisé.
+ *
+ * Adressage ouvert à sondage linéaire avec un taux de remplissage ≤ 50%:
+ * une recherche coûte un hashCode() (mis en cache par String) et en général
+ * une seule comparaison.
+ */
+public class ExactRouteTable {
+
+    private final String[] keys;
+    private final int[] hashes;
+    private final RouteMatch[] matches;
+    private final int size;
+
+    public ExactRouteTable(List<Route> routes) {
+        int count = 0;
+        for (Route route : routes) {
+            if (route.isStatic()) count++;
+        }
+
+        int capacity = 2;
+        while (capacity < count * 2) {
+            capacity <<= 1;
+        }
+        keys = new String[capacity];
+        hashes = new int[capacity];
+        matches = new RouteMatch[capacity];
+
+        int inserted = 0;
+        for (Route route : routes) {
+            if (!route.isStatic()) continue;
+            String key = normalize(route.getPattern());
+            int h = key.hashCode();
+            int index = RouteTrie.spread(h) & (capacity - 1);
+            while (keys[index] != null) {
+                if (keys[index].equals(key)) break;
+                index = (index + 1) & (capacity - 1);
+            }
+            if (keys[index] != null) continue;   // Même chemin normalisé, le premier gagne (comme le trie)
+            keys[index] = key;
+            hashes[index] = h;
+            matches[index] = new RouteMatch(route, key, RouteTrie.segmentBounds(key));
+            inserted++;
+        }
+        size = inserted;
+    }
+
+    /**
+     * Retourne la route statique correspondant exactement au chemin, ou null
+     */
+    public RouteMatch get(String path) {
+        int h = path.hashCode();
+        int mask = keys.length - 1;
+        int index = RouteTrie.spread(h) & mask;
+        String key;
+        while ((key = keys[index]) != null) {
+            if (hashes[index] == h && key.equals(path)) {
+                return matches[index];
+            }
+            index = (index + 1) & mask;
+        }
+        return null;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // Même normalisation que FrontServlet: pas de slash final sauf pour "/"
+    static String normalize(String pattern) {
+        String key = pattern;
+        while (key.length() > 1 && key.endsWith("/")) {
+            key = key.substring(0, key.length() - 1);
+        }
+        return key;
+    }
+}
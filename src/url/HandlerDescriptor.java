@@ -0,0 +1,170 @@
+package url;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Semaphore;
+
+import annotation.Async;
+import annotation.Cached;
+import annotation.Json;
+import cache.ResponseCache;
+import view.ModelView;
+
+/**
+ * Handler d'une route, préparé une seule fois au scan:
+ * instance du contrôleur liée, MethodHandle prêt à l'appel, type de résultat déjà résolu
+ * et plan de liaison des arguments.
+ * Pour un handler @Async ou retournant un CompletionStage, porte aussi son délai
+ * et sa limite de concurrence; pour un handler @Cached, son cache de réponses.
+ */
+public class HandlerDescriptor {
+
+    /**
+     * Rendu à appliquer au résultat du handler
+     */
+    public enum ResultKind {
+        JSON,        // Méthode annotée @Json
+        MODEL_VIEW,  // Retourne un ModelView
+        STRING,      // Retourne un String
+        OTHER        // Type déclaré non spécifique: décidé à l'exécution
+    }
+
+    private final String pattern;
+    private final String httpMethod;
+    private final Method method;
+    private final Object controller;
+    private final MethodHandle invoker;   // (Object[]) -> Object, contrôleur déjà lié
+    private final ResultKind resultKind;
+    private final BindingPlan bindingPlan;
+    private final boolean async;                 // @Async: exécuté sur l'exécuteur du framework
+    private final boolean deferred;              // Retourne un CompletionStage
+    private final long asyncTimeout;             // ms, 0 = délai par défaut
+    private final Semaphore concurrencyLimit;    // null = illimité
+    private final ResponseCache responseCache;   // @Cached, null sinon
+
+    public HandlerDescriptor(String pattern, String httpMethod, Method method, Object controller)
+            throws IllegalAccessException {
+        this.pattern = pattern;
+        this.httpMethod = httpMethod;
+        this.method = method;
+        this.controller = controller;
+        this.invoker = createInvoker(method, controller);
+        this.resultKind = resolveResultKind(method);
+        this.bindingPlan = BindingPlan.compile(method, pattern);
+
+        Async asyncAnnotation = method.getAnnotation(Async.class);
+        this.async = asyncAnnotation != null;
+        this.deferred = CompletionStage.class.isAssignableFrom(method.getReturnType());
+        this.asyncTimeout = (asyncAnnotation != null) ? Math.max(0, asyncAnnotation.timeout()) : 0;
+        this.concurrencyLimit = (asyncAnnotation != null && asyncAnnotation.maxConcurrency() > 0)
+            ? new Semaphore(asyncAnnotation.maxConcurrency()) : null;
+
+        Cached cached = method.getAnnotation(Cached.class);
+        this.responseCache = (cached != null)
+            ? new ResponseCache(cached.ttl(), cached.key(), cached.maxSize(), cached.maxBytes()) : null;
+    }
+
+    private static MethodHandle createInvoker(Method method, Object controller) throws IllegalAccessException {
+        method.setAccessible(true);
+        MethodHandle handle = MethodHandles.lookup().unreflect(method);
+        if (!Modifier.isStatic(method.getModifiers())) {
+            handle = handle.bindTo(controller);
+        }
+        return handle
+            .asSpreader(Object[].class, method.getParameterCount())
+            .asType(MethodType.methodType(Object.class, Object[].class));
+    }
+
+    private static ResultKind resolveResultKind(Method method) {
+        if (method.isAnnotationPresent(Json.class)) return ResultKind.JSON;
+        Class<?> returnType = method.getReturnType();
+        if (CompletionStage.class.isAssignableFrom(returnType)) {
+            // CompletableFuture<ModelView>, CompletionStage<String>...: type de la valeur attendue
+            Type type = method.getGenericReturnType();
+            Type[] arguments = (type instanceof ParameterizedType)
+                ? ((ParameterizedType) type).getActualTypeArguments() : new Type[0];
+            returnType = (arguments.length == 1 && arguments[0] instanceof Class) ? (Class<?>) arguments[0] : Object.class;
+        }
+        if (ModelView.class.isAssignableFrom(returnType)) return ResultKind.MODEL_VIEW;
+        if (returnType == String.class) return ResultKind.STRING;
+        return ResultKind.OTHER;
+    }
+
+    /**
+     * Appelle le handler avec les arguments déjà liés.
+     * Les exceptions du contrôleur sont propagées telles quelles (pas d'InvocationTargetException).
+     */
+    public Object invoke(Object[] args) throws Exception {
+        try {
+            return invoker.invokeExact(args);
+        } catch (Exception | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new RuntimeException(t);
+        }
+    }
+
+    public String getPattern() {
+        return pattern;
+    }
+
+    public String getHttpMethod() {
+        return httpMethod;
+    }
+
+    public Method getMethod() {
+        return method;
+    }
+
+    public Object getController() {
+        return controller;
+    }
+
+    public ResultKind getResultKind() {
+        return resultKind;
+    }
+
+    public BindingPlan getBindingPlan() {
+        return bindingPlan;
+    }
+
+    public boolean isAsync() {
+        return async;
+    }
+
+    /**
+     * Vrai si le handler retourne un CompletionStage (rendu à sa complétion)
+     */
+    public boolean isDeferred() {
+        return deferred;
+    }
+
+    public long getAsyncTimeout() {
+        return asyncTimeout;
+    }
+
+    /**
+     * Sémaphore de la limite @Async(maxConcurrency), null si illimité
+     */
+    public Semaphore getConcurrencyLimit() {
+        return concurrencyLimit;
+    }
+
+    /**
+     * Cache des réponses @Cached, null si le handler n'est pas mis en cache
+     */
+    public ResponseCache getResponseCache() {
+        return responseCache;
+    }
+
+    @Override
+    public String toString() {
+        return httpMethod + " " + pattern + " → " + method.getDeclaringClass().getSimpleName() + "." + method.getName() + "()";
+    }
+}
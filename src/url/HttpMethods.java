@@ -0,0 +1,27 @@
+package url;
+
+/**
+ * Index compact des méthodes HTTP standard, pour les tables de handlers par route
+ */
+public final class HttpMethods {
+
+    public static final String[] STANDARD = {"GET", "POST", "PUT", "DELETE", "PATCH", "HEAD", "OPTIONS"};
+
+    private HttpMethods() {}
+
+    /**
+     * Retourne l'index de la méthode dans STANDARD, ou -1 pour une méthode non standard
+     */
+    public static int indexOf(String method) {
+        switch (method) {
+            case "GET": return 0;
+            case "POST": return 1;
+            case "PUT": return 2;
+            case "DELETE": return 3;
+            case "PATCH": return 4;
+            case "HEAD": return 5;
+            case "OPTIONS": return 6;
+            default: return -1;
+        }
+    }
+}
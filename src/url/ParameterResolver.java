@@ -0,0 +1,14 @@
+package url;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+import upload.MultipartParser;
+
+/**
+ * Résout la valeur d'un paramètre de handler pour une requête.
+ * Une instance spécialisée est compilée par paramètre au scan (voir BindingPlan).
+ */
+public interface ParameterResolver {
+
+    Object resolve(HttpServletRequest request, RouteMatch match, MultipartParser multipart);
+}
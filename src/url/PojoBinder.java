@@ -0,0 +1,237 @@
+package url;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+import upload.FileUpload;
+import upload.MultipartParser;
+import log.Logger;
+
+/**
+ * Liaison des paramètres de formulaire vers un objet personnalisé (POJO).
+ *
+ * Les métadonnées sont calculées une seule fois par classe (ClassValue):
+ * setters MethodHandle, convertisseur de chaque champ, champs fichiers,
+ * champs imbriqués. La liaison fait une seule passe sur les paramètres de la
+ * requête; une clé "address.city" remplit le champ city de l'objet address.
+ */
+public class PojoBinder {
+
+    private static final Logger LOG = Logger.getLogger(PojoBinder.class);
+
+    private static final ClassValue<PojoBinder> BINDERS = new ClassValue<PojoBinder>() {
+        @Override
+        protected PojoBinder computeValue(Class<?> type) {
+            return new PojoBinder(type);
+        }
+    };
+
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    private final Class<?> type;
+    private final Constructor<?> constructor;
+    private final Map<String, FieldBinding> fields = new HashMap<>();
+    private final List<FieldBinding> fileFields = new ArrayList<>();
+
+    /**
+     * Binder (mis en cache) de la classe donnée
+     */
+    public static PojoBinder of(Class<?> type) {
+        return BINDERS.get(type);
+    }
+
+    /**
+     * Vrai si la classe peut être liée comme POJO (constructeur sans argument, classe concrète)
+     */
+    public static boolean isBindable(Class<?> type) {
+        return findDefaultConstructor(type) != null;
+    }
+
+    private PojoBinder(Class<?> type) {
+        this.type = type;
+        this.constructor = findDefaultConstructor(type);
+        if (constructor != null) {
+            constructor.setAccessible(true);
+        }
+
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        for (Field field : type.getDeclaredFields()) {
+            int modifiers = field.getModifiers();
+            if (Modifier.isStatic(modifiers) || field.isSynthetic()) continue;
+            try {
+                field.setAccessible(true);
+                FieldBinding binding = new FieldBinding(field,
+                    lookup.unreflectSetter(field).asType(SETTER_TYPE),
+                    lookup.unreflectGetter(field).asType(GETTER_TYPE));
+                fields.put(field.getName(), binding);
+                if (binding.kind == FieldKind.FILE || binding.kind == FieldKind.FILE_ARRAY) {
+                    fileFields.add(binding);
+                }
+            } catch (Exception e) {
+                // Champ non modifiable (final d'un record, module fermé...): ignoré
+                LOG.warn("Champ ignoré pour la liaison: {}.{}", type.getSimpleName(), field.getName());
+            }
+        }
+    }
+
+    /**
+     * Crée et remplit une instance à partir de la requête (et du multipart s'il existe)
+     */
+    public Object bind(HttpServletRequest request, MultipartParser multipart) throws Exception {
+        Object obj = newInstance();
+
+        // Une seule passe: paramètres classiques, puis champs multipart (prioritaires)
+        for (Map.Entry<String, String[]> entry : request.getParameterMap().entrySet()) {
+            String[] values = entry.getValue();
+            if (values.length > 0 && values[0] != null) {
+                apply(obj, entry.getKey(), 0, values[0]);
+            }
+        }
+        if (multipart != null) {
+            for (Map.Entry<String, String> entry : multipart.getFormFields().entrySet()) {
+                if (entry.getValue() != null) {
+                    apply(obj, entry.getKey(), 0, entry.getValue());
+                }
+            }
+            bindFiles(obj, multipart, "");
+        }
+        return obj;
+    }
+
+    private Object newInstance() throws Exception {
+        if (constructor == null) {
+            throw new InstantiationException("Pas de constructeur sans argument: " + type.getName());
+        }
+        return constructor.newInstance();
+    }
+
+    // Applique la valeur du paramètre key (à partir de l'index from) sur obj
+    private void apply(Object obj, String key, int from, String value) throws Exception {
+        int dot = key.indexOf('.', from);
+        String name = (from == 0 && dot < 0) ? key : key.substring(from, dot < 0 ? key.length() : dot);
+        FieldBinding binding = fields.get(name);
+        if (binding == null) return;
+
+        if (dot < 0) {
+            if (binding.kind == FieldKind.VALUE) {
+                Object converted = binding.converter.convert(value);
+                // Valeur invalide pour un champ primitif: on garde la valeur par défaut
+                if (converted != null || !binding.type.isPrimitive()) {
+                    binding.set(obj, converted);
+                }
+            }
+            return;
+        }
+
+        // Champ imbriqué: instancié à la première clé qui le concerne
+        if (binding.kind != FieldKind.NESTED) return;
+        PojoBinder nested = of(binding.type);
+        Object child = binding.get(obj);
+        if (child == null) {
+            child = nested.newInstance();
+            binding.set(obj, child);
+        }
+        nested.apply(child, key, dot + 1, value);
+    }
+
+    private void bindFiles(Object obj, MultipartParser multipart, String prefix) throws Exception {
+        for (FieldBinding binding : fileFields) {
+            String name = prefix.isEmpty() ? binding.name : prefix + binding.name;
+            if (binding.kind == FieldKind.FILE) {
+                binding.set(obj, multipart.getFile(name));
+            } else {
+                binding.set(obj, multipart.getFiles(name).toArray(new FileUpload[0]));
+            }
+        }
+        for (FieldBinding binding : fields.values()) {
+            if (binding.kind != FieldKind.NESTED) continue;
+            Object child = binding.get(obj);
+            if (child != null) {
+                of(binding.type).bindFiles(child, multipart, prefix + binding.name + ".");
+            }
+        }
+    }
+
+    static Constructor<?> findDefaultConstructor(Class<?> type) {
+        if (type.isPrimitive() || type.isArray() || type.isInterface() || type.isEnum()
+                || Modifier.isAbstract(type.getModifiers())) {
+            return null;
+        }
+        try {
+            return type.getDeclaredConstructor();
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    // ------------------------------
+    // Métadonnées d'un champ
+    // ------------------------------
+    private enum FieldKind { VALUE, FILE, FILE_ARRAY, NESTED }
+
+    private static final class FieldBinding {
+        final String name;
+        final Class<?> type;
+        final FieldKind kind;
+        final ValueConverter converter;
+        final MethodHandle setter;   // (Object, Object) -> void
+        final MethodHandle getter;   // (Object) -> Object
+
+        FieldBinding(Field field, MethodHandle setter, MethodHandle getter) {
+            this.name = field.getName();
+            this.type = field.getType();
+            this.converter = ValueConverter.forType(type);
+            this.setter = setter;
+            this.getter = getter;
+            if (type == FileUpload.class) {
+                kind = FieldKind.FILE;
+            } else if (type.isArray() && type.getComponentType() == FileUpload.class) {
+                kind = FieldKind.FILE_ARRAY;
+            } else if (isNestedType(type)) {
+                kind = FieldKind.NESTED;
+            } else {
+                kind = FieldKind.VALUE;
+            }
+        }
+
+        private static boolean isNestedType(Class<?> type) {
+            if (type.getName().startsWith("java.") || Map.class.isAssignableFrom(type)
+                    || Collection.class.isAssignableFrom(type)) {
+                return false;
+            }
+            return findDefaultConstructor(type) != null;
+        }
+
+        void set(Object obj, Object value) throws Exception {
+            try {
+                setter.invokeExact(obj, value);
+            } catch (Exception | Error e) {
+                throw e;
+            } catch (Throwable t) {
+                throw new RuntimeException(t);
+            }
+        }
+
+        Object get(Object obj) throws Exception {
+            try {
+                return (Object) getter.invokeExact(obj);
+            } catch (Exception | Error e) {
+                throw e;
+            } catch (Throwable t) {
+                throw new RuntimeException(t);
+            }
+        }
+    }
+}
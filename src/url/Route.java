@@ -0,0 +1,72 @@
+package url;
+
+import java.util.Map;
+
+/**
+ * Route résolue: un pattern d'URL et ses handlers par méthode HTTP
+ */
+public class Route {
+    private final String pattern;
+    private final String[] variableNames;     // Nom de variable par index de segment (null si segment littéral)
+    private final Map<String, HandlerDescriptor> methods;
+    private final HandlerDescriptor[] handlers; // Handlers indexés par HttpMethods.indexOf
+    private final boolean isStatic;
+
+    Route(String pattern, String[] variableNames, Map<String, HandlerDescriptor> methods) {
+        this.pattern = pattern;
+        this.variableNames = variableNames;
+        this.methods = methods;
+        this.handlers = new HandlerDescriptor[HttpMethods.STANDARD.length];
+        for (Map.Entry<String, HandlerDescriptor> entry : methods.entrySet()) {
+            int index = HttpMethods.indexOf(entry.getKey());
+            if (index >= 0) handlers[index] = entry.getValue();
+        }
+        boolean noVariable = true;
+        for (String name : variableNames) {
+            if (name != null) noVariable = false;
+        }
+        this.isStatic = noVariable;
+    }
+
+    public String getPattern() {
+        return pattern;
+    }
+
+    public Map<String, HandlerDescriptor> getMethods() {
+        return methods;
+    }
+
+    /**
+     * Handler pour une méthode HTTP, null si la route ne la supporte pas
+     */
+    public HandlerDescriptor getHandler(String httpMethod) {
+        int index = HttpMethods.indexOf(httpMethod);
+        return (index >= 0) ? handlers[index] : methods.get(httpMethod);
+    }
+
+    /**
+     * Vrai si le pattern ne contient aucun segment {var}
+     */
+    public boolean isStatic() {
+        return isStatic;
+    }
+
+    /**
+     * Nombre de segments du pattern (au sens de pattern.split("/"))
+     */
+    public int getSegmentCount() {
+        return variableNames.length;
+    }
+
+    /**
+     * Nom de la variable {var} au segment donné, ou null pour un segment littéral
+     */
+    public String getVariableName(int segment) {
+        return variableNames[segment];
+    }
+
+    @Override
+    public String toString() {
+        return "Route{" + pattern + " " + methods.keySet() + "}";
+    }
+}
@@ -0,0 +1,78 @@
+package url;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Cache borné chemin concret → RouteMatch pour les routes à variables.
+ *
+ * Approximation LRU de type CLOCK: une lecture ne fait que poser un bit
+ * "référencé" (aucun verrou, aucune réorganisation). Quand la capacité est
+ * dépassée, un seul thread balaie les entrées: celles référencées depuis le
+ * dernier passage ont une seconde chance, les autres sont évincées.
+ */
+public class RouteCache {
+
+    private final int capacity;
+    private final ConcurrentHashMap<String, Entry> entries;
+    private final AtomicBoolean evicting = new AtomicBoolean();
+
+    public RouteCache(int capacity) {
+        this.capacity = capacity;
+        this.entries = new ConcurrentHashMap<>(capacity * 2);
+    }
+
+    public RouteMatch get(String path) {
+        Entry entry = entries.get(path);
+        if (entry == null) return null;
+        if (!entry.referenced) entry.referenced = true;
+        return entry.match;
+    }
+
+    public void put(String path, RouteMatch match) {
+        entries.putIfAbsent(path, new Entry(match));
+        if (entries.size() > capacity) {
+            evict();
+        }
+    }
+
+    private void evict() {
+        // Un seul balayage à la fois; les autres threads continuent sans attendre
+        if (!evicting.compareAndSet(false, true)) return;
+        try {
+            Iterator<Entry> it = entries.values().iterator();
+            while (entries.size() > capacity) {
+                if (!it.hasNext()) {
+                    it = entries.values().iterator();
+                    continue;
+                }
+                Entry entry = it.next();
+                if (entry.referenced) {
+                    entry.referenced = false;
+                } else {
+                    it.remove();
+                }
+            }
+        } finally {
+            evicting.set(false);
+        }
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    private static final class Entry {
+        final RouteMatch match;
+        volatile boolean referenced;
+
+        Entry(RouteMatch match) {
+            this.match = match;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package url;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Index des contrôleurs généré à la compilation par processor.RouteIndexProcessor.
+ *
+ * Format (une entrée par ligne, # pour les commentaires):
+ *   controller=com.app.UserController
+ *   route=GET /users/{id} com.app.UserController#show(int) json
+ */
+public final class RouteIndex {
+
+    public static final String RESOURCE = "META-INF/framework/routes.idx";
+    public static final String CONTROLLER_PREFIX = "controller=";
+    public static final String ROUTE_PREFIX = "route=";
+
+    private final Set<String> controllers;
+    private final List<String> routes;
+
+    private RouteIndex(Set<String> controllers, List<String> routes) {
+        this.controllers = controllers;
+        this.routes = routes;
+    }
+
+    /**
+     * Charge l'index de l'application (classesDir/META-INF/framework/routes.idx), null s'il n'existe pas.
+     * Les index des jars ne sont pas lus: ils ne décrivent pas les classes de l'application.
+     */
+    public static RouteIndex load(File classesDir) throws IOException {
+        File file = new File(classesDir, RESOURCE);
+        if (!file.isFile()) {
+            return null;
+        }
+        Set<String> controllers = new LinkedHashSet<>();
+        List<String> routes = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+            read(reader, controllers, routes);
+        }
+        return new RouteIndex(controllers, routes);
+    }
+
+    /**
+     * Lit uniquement les noms de contrôleurs d'un index
+     */
+    public static Set<String> parseControllers(BufferedReader reader) throws IOException {
+        Set<String> controllers = new LinkedHashSet<>();
+        read(reader, controllers, new ArrayList<>());
+        return controllers;
+    }
+
+    private static void read(BufferedReader reader, Set<String> controllers, List<String> routes) throws IOException {
+        String line;
+        while ((line = reader.readLine()) != null) {
+            line = line.trim();
+            if (line.startsWith(CONTROLLER_PREFIX)) {
+                controllers.add(line.substring(CONTROLLER_PREFIX.length()));
+            } else if (line.startsWith(ROUTE_PREFIX)) {
+                routes.add(line.substring(ROUTE_PREFIX.length()));
+            }
+        }
+    }
+
+    public Set<String> getControllers() {
+        return controllers;
+    }
+
+    /**
+     * Routes telles que vues par le processeur (informatif: les Method sont résolues au chargement)
+     */
+    public List<String> getRoutes() {
+        return routes;
+    }
+}
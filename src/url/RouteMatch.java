@@ -0,0 +1,79 @@
+package url;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Résultat d'une résolution dans le RouteTrie.
+ * Les valeurs des variables ne sont extraites du chemin qu'à la demande.
+ */
+public class RouteMatch {
+    private final Route route;
+    private final String path;
+    private final int[] bounds;   // [début, fin) de chaque segment du chemin
+
+    RouteMatch(Route route, String path, int[] bounds) {
+        this.route = route;
+        this.path = path;
+        this.bounds = bounds;
+    }
+
+    /**
+     * Associe un chemin à un pattern hors du trie, null si le nombre de segments diffère
+     */
+    static RouteMatch of(String pattern, String path) {
+        String[] segments = pattern.split("/");
+        int[] bounds = RouteTrie.segmentBounds(path);
+        if (bounds.length / 2 != segments.length) return null;
+
+        String[] variableNames = new String[segments.length];
+        for (int i = 0; i < segments.length; i++) {
+            if (RouteTrie.isVariable(segments[i])) {
+                variableNames[i] = segments[i].substring(1, segments[i].length() - 1);
+            }
+        }
+        return new RouteMatch(new Route(pattern, variableNames, Collections.emptyMap()), path, bounds);
+    }
+
+    public Route getRoute() {
+        return route;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    /**
+     * Valeur brute du segment à l'index donné
+     */
+    public String getSegment(int segment) {
+        return path.substring(bounds[segment * 2], bounds[segment * 2 + 1]);
+    }
+
+    /**
+     * Valeur d'une variable {var} par son nom, null si absente
+     */
+    public String getVariable(String name) {
+        for (int i = 0; i < route.getSegmentCount(); i++) {
+            if (name.equals(route.getVariableName(i))) {
+                return getSegment(i);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Équivalent de UrlPatternMatcher.extractVariables(pattern, path)
+     */
+    public Map<String, String> getPathVariables() {
+        Map<String, String> vars = new HashMap<>();
+        for (int i = 0; i < route.getSegmentCount(); i++) {
+            String name = route.getVariableName(i);
+            if (name != null) {
+                vars.put(name, getSegment(i));
+            }
+        }
+        return vars;
+    }
+}
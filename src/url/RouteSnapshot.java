@@ -0,0 +1,221 @@
+package url;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import log.Logger;
+
+/**
+ * Instantané persistant de la table de routes, pour les redémarrages à chaud.
+ *
+ * Contient l'empreinte (taille, date de modification) de chaque .class de
+ * /WEB-INF/classes et de chaque jar de /WEB-INF/lib, les contrôleurs trouvés
+ * dans chacun, et les routes résolues (pattern, méthode HTTP, signature Java,
+ * forme du plan de liaison). Au démarrage, seuls les fichiers dont l'empreinte
+ * a changé sont ré-analysés.
+ */
+public class RouteSnapshot {
+
+    private static final Logger LOG = Logger.getLogger(RouteSnapshot.class);
+
+    private static final int MAGIC = 0x46525453;   // "FRTS"
+    private static final int VERSION = 1;
+    static final String JAR_PREFIX = "lib/";
+
+    /**
+     * Empreinte d'un fichier source de classes (.class ou .jar)
+     */
+    public static final class Fingerprint {
+        final long size;
+        final long lastModified;
+
+        Fingerprint(long size, long lastModified) {
+            this.size = size;
+            this.lastModified = lastModified;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Fingerprint)) return false;
+            Fingerprint other = (Fingerprint) o;
+            return size == other.size && lastModified == other.lastModified;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(size) * 31 + Long.hashCode(lastModified);
+        }
+    }
+
+    /**
+     * Route telle que persistée
+     */
+    public static final class RouteEntry {
+        final String pattern;
+        final String httpMethod;
+        final String className;
+        final String methodName;
+        final String[] parameterTypes;
+        final String plan;
+
+        RouteEntry(String pattern, String httpMethod, String className, String methodName,
+                   String[] parameterTypes, String plan) {
+            this.pattern = pattern;
+            this.httpMethod = httpMethod;
+            this.className = className;
+            this.methodName = methodName;
+            this.parameterTypes = parameterTypes;
+            this.plan = plan;
+        }
+    }
+
+    final Map<String, Fingerprint> fingerprints;          // clé: "com/app/X.class" ou "lib/x.jar"
+    final Map<String, List<String>> controllersBySource;  // clé source → contrôleurs
+    final List<RouteEntry> routes;
+    final long fullScanMillis;                            // Durée du dernier scan complet
+
+    RouteSnapshot(Map<String, Fingerprint> fingerprints, Map<String, List<String>> controllersBySource,
+                  List<RouteEntry> routes, long fullScanMillis) {
+        this.fingerprints = fingerprints;
+        this.controllersBySource = controllersBySource;
+        this.routes = routes;
+        this.fullScanMillis = fullScanMillis;
+    }
+
+    /**
+     * Empreintes actuelles des .class et des jars (une lecture d'attributs par fichier, aucun contenu lu)
+     */
+    static Map<String, Fingerprint> fingerprint(File classesDir, File libDir) throws IOException {
+        Map<String, Fingerprint> result = new TreeMap<>();
+        if (classesDir != null && classesDir.isDirectory()) {
+            Path base = classesDir.toPath();
+            Files.walkFileTree(base, new SimpleFileVisitor<Path>() {
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                    if (file.getFileName().toString().endsWith(".class")) {
+                        String key = base.relativize(file).toString().replace(File.separatorChar, '/');
+                        result.put(key, new Fingerprint(attrs.size(), attrs.lastModifiedTime().toMillis()));
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        }
+        File[] jars = (libDir != null) ? libDir.listFiles((dir, name) -> name.endsWith(".jar")) : null;
+        if (jars != null) {
+            for (File jar : jars) {
+                result.put(JAR_PREFIX + jar.getName(), new Fingerprint(jar.length(), jar.lastModified()));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Lit un instantané, null s'il est absent, d'une autre version ou corrompu
+     */
+    static RouteSnapshot read(File file) {
+        if (file == null || !file.isFile()) return null;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file.toPath())))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) return null;
+            long fullScanMillis = in.readLong();
+
+            int count = in.readInt();
+            Map<String, Fingerprint> fingerprints = new HashMap<>(count * 2);
+            for (int i = 0; i < count; i++) {
+                fingerprints.put(in.readUTF(), new Fingerprint(in.readLong(), in.readLong()));
+            }
+
+            count = in.readInt();
+            Map<String, List<String>> controllersBySource = new HashMap<>();
+            for (int i = 0; i < count; i++) {
+                String source = in.readUTF();
+                int n = in.readInt();
+                List<String> controllers = new ArrayList<>(n);
+                for (int j = 0; j < n; j++) {
+                    controllers.add(in.readUTF());
+                }
+                controllersBySource.put(source, controllers);
+            }
+
+            count = in.readInt();
+            List<RouteEntry> routes = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                String pattern = in.readUTF();
+                String httpMethod = in.readUTF();
+                String className = in.readUTF();
+                String methodName = in.readUTF();
+                String[] parameterTypes = new String[in.readInt()];
+                for (int j = 0; j < parameterTypes.length; j++) {
+                    parameterTypes[j] = in.readUTF();
+                }
+                routes.add(new RouteEntry(pattern, httpMethod, className, methodName, parameterTypes, in.readUTF()));
+            }
+            return new RouteSnapshot(fingerprints, controllersBySource, routes, fullScanMillis);
+        } catch (IOException | RuntimeException e) {
+            LOG.warn("[Snapshot] Instantané illisible, scan complet: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Écrit l'instantané (fichier temporaire puis renommage atomique)
+     */
+    void write(File file) throws IOException {
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (parent != null) parent.mkdirs();
+        Path tmp = Files.createTempFile(parent != null ? parent.toPath() : null, "routes", ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(fullScanMillis);
+
+            out.writeInt(fingerprints.size());
+            for (Map.Entry<String, Fingerprint> entry : fingerprints.entrySet()) {
+                out.writeUTF(entry.getKey());
+                out.writeLong(entry.getValue().size);
+                out.writeLong(entry.getValue().lastModified);
+            }
+
+            out.writeInt(controllersBySource.size());
+            for (Map.Entry<String, List<String>> entry : controllersBySource.entrySet()) {
+                out.writeUTF(entry.getKey());
+                out.writeInt(entry.getValue().size());
+                for (String controller : entry.getValue()) {
+                    out.writeUTF(controller);
+                }
+            }
+
+            out.writeInt(routes.size());
+            for (RouteEntry route : routes) {
+                out.writeUTF(route.pattern);
+                out.writeUTF(route.httpMethod);
+                out.writeUTF(route.className);
+                out.writeUTF(route.methodName);
+                out.writeInt(route.parameterTypes.length);
+                for (String type : route.parameterTypes) {
+                    out.writeUTF(type);
+                }
+                out.writeUTF(route.plan);
+            }
+        }
+        try {
+            Files.move(tmp, file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            Files.move(tmp, file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package url;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import log.Logger;
+
+/**
+ * Arbre de routage immuable, construit une seule fois à la fin du scan.
+ *
+ * Chaque nœud indexe ses enfants littéraux par segment et possède au plus un
+ * enfant "variable" pour les segments {var}. Un segment littéral est toujours
+ * prioritaire sur une variable: /users/new gagne sur /users/{id}. Si la branche
+ * littérale n'aboutit pas, on revient sur la variable.
+ *
+ * La résolution parcourt le chemin une seule fois, sans split() ni substring().
+ */
+public class RouteTrie {
+
+    private static final Logger LOG = Logger.getLogger(RouteTrie.class);
+
+    private final Node root;
+    private final int routeCount;
+
+    private RouteTrie(Node root, int routeCount) {
+        this.root = root;
+        this.routeCount = routeCount;
+    }
+
+    /**
+     * Construit l'arbre à partir des mappings pattern → (méthode HTTP → HandlerDescriptor)
+     */
+    public static RouteTrie build(Map<String, Map<String, HandlerDescriptor>> handlerMappings) {
+        Builder rootBuilder = new Builder();
+        int count = 0;
+
+        // Ordre trié: construction déterministe quel que soit l'ordre du HashMap
+        for (Map.Entry<String, Map<String, HandlerDescriptor>> entry : new TreeMap<>(handlerMappings).entrySet()) {
+            String pattern = entry.getKey();
+            String[] segments = pattern.split("/");
+            String[] variableNames = new String[segments.length];
+
+            Builder node = rootBuilder;
+            for (int i = 0; i < segments.length; i++) {
+                String segment = segments[i];
+                if (isVariable(segment)) {
+                    variableNames[i] = segment.substring(1, segment.length() - 1);
+                    if (node.variable == null) {
+                        node.variable = new Builder();
+                    }
+                    node = node.variable;
+                } else {
+                    node = node.literals.computeIfAbsent(segment, k -> new Builder());
+                }
+            }
+
+            if (node.route != null) {
+                LOG.warn("[Routing] Conflit: {} masqué par {}", pattern, node.route.getPattern());
+                continue;
+            }
+            node.route = new Route(pattern, variableNames, entry.getValue());
+            count++;
+        }
+        return new RouteTrie(rootBuilder.freeze(), count);
+    }
+
+    static boolean isVariable(String segment) {
+        return segment.startsWith("{") && segment.endsWith("}");
+    }
+
+    /**
+     * Résout un chemin normalisé. Retourne null si aucune route ne correspond.
+     */
+    public RouteMatch match(String path) {
+        int[] bounds = segmentBounds(path);
+        Route route = find(root, path, bounds, 0, bounds.length / 2);
+        return route != null ? new RouteMatch(route, path, bounds) : null;
+    }
+
+    /**
+     * Bornes [début, fin) de chaque segment, même découpage que path.split("/"):
+     * les segments vides en fin sont ignorés
+     */
+    static int[] segmentBounds(String path) {
+        int end = path.length();
+        while (end > 0 && path.charAt(end - 1) == '/') {
+            end--;
+        }
+
+        int segmentCount;
+        if (path.isEmpty()) {
+            segmentCount = 1;
+        } else if (end == 0) {
+            segmentCount = 0;
+        } else {
+            segmentCount = 1;
+            for (int i = 0; i < end; i++) {
+                if (path.charAt(i) == '/') segmentCount++;
+            }
+        }
+
+        int[] bounds = new int[segmentCount * 2];
+        int start = 0;
+        for (int s = 0; s < segmentCount; s++) {
+            int slash = path.indexOf('/', start);
+            int segEnd = (slash < 0 || slash > end) ? end : slash;
+            bounds[s * 2] = start;
+            bounds[s * 2 + 1] = segEnd;
+            start = segEnd + 1;
+        }
+        return bounds;
+    }
+
+    private static Route find(Node node, String path, int[] bounds, int segment, int segmentCount) {
+        if (segment == segmentCount) {
+            return node.route;
+        }
+        int from = bounds[segment * 2];
+        int to = bounds[segment * 2 + 1];
+
+        Node literal = node.literal(path, from, to);
+        if (literal != null) {
+            Route route = find(literal, path, bounds, segment + 1, segmentCount);
+            if (route != null) return route;
+        }
+        if (node.variable != null) {
+            return find(node.variable, path, bounds, segment + 1, segmentCount);
+        }
+        return null;
+    }
+
+    public int getRouteCount() {
+        return routeCount;
+    }
+
+    /**
+     * Liste des routes dans l'ordre de l'arbre (utile pour les logs)
+     */
+    public List<Route> getRoutes() {
+        List<Route> routes = new ArrayList<>();
+        collect(root, routes);
+        return routes;
+    }
+
+    private static void collect(Node node, List<Route> routes) {
+        if (node.route != null) routes.add(node.route);
+        for (Node child : node.children) {
+            if (child != null) collect(child, routes);
+        }
+        if (node.variable != null) collect(node.variable, routes);
+    }
+
+    // ------------------------------
+    // Nœuds figés: table à adressage ouvert indexée par le hash du segment
+    // ------------------------------
+    private static final class Node {
+        final String[] keys;
+        final Node[] children;
+        final Node variable;
+        final Route route;
+
+        Node(String[] keys, Node[] children, Node variable, Route route) {
+            this.keys = keys;
+            this.children = children;
+            this.variable = variable;
+            this.route = route;
+        }
+
+        Node literal(String path, int from, int to) {
+            if (keys.length == 0) return null;
+            int mask = keys.length - 1;
+            int index = spread(hash(path, from, to)) & mask;
+            int length = to - from;
+            while (keys[index] != null) {
+                String key = keys[index];
+                if (key.length() == length && key.regionMatches(0, path, from, length)) {
+                    return children[index];
+                }
+                index = (index + 1) & mask;
+            }
+            return null;
+        }
+    }
+
+    // Même valeur que String.hashCode() sur path.substring(from, to)
+    static int hash(String s, int from, int to) {
+        int h = 0;
+        for (int i = from; i < to; i++) {
+            h = 31 * h + s.charAt(i);
+        }
+        return h;
+    }
+
+    static int spread(int h) {
+        return h ^ (h >>> 16);
+    }
+
+    private static final class Builder {
+        final Map<String, Builder> literals = new HashMap<>();
+        Builder variable;
+        Route route;
+
+        Node freeze() {
+            int capacity = 1;
+            while (capacity < literals.size() * 2) {
+                capacity <<= 1;
+            }
+            if (literals.isEmpty()) capacity = 0;
+
+            String[] keys = new String[capacity];
+            Node[] children = new Node[capacity];
+            for (Map.Entry<String, Builder> entry : literals.entrySet()) {
+                int index = spread(entry.getKey().hashCode()) & (capacity - 1);
+                while (keys[index] != null) {
+                    index = (index + 1) & (capacity - 1);
+                }
+                keys[index] = entry.getKey();
+                children[index] = entry.getValue().freeze();
+            }
+            return new Node(keys, children, variable != null ? variable.freeze() : null, route);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package url;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Point d'entrée de la résolution d'URL:
+ * 1. table exacte des routes statiques
+ * 2. cache borné des chemins concrets déjà résolus (optionnel)
+ * 3. parcours du RouteTrie
+ */
+public class Router {
+
+    private final RouteTrie trie;
+    private final ExactRouteTable exactRoutes;
+    private final RouteCache cache;
+
+    private final LongAdder exactHits = new LongAdder();
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder cacheMisses = new LongAdder();
+    private final LongAdder notFound = new LongAdder();
+
+    /**
+     * @param cacheSize nombre maximal de chemins mis en cache, 0 pour désactiver le cache
+     */
+    public Router(RouteTrie trie, int cacheSize) {
+        this.trie = trie;
+        this.exactRoutes = new ExactRouteTable(trie.getRoutes());
+        this.cache = (cacheSize > 0) ? new RouteCache(cacheSize) : null;
+    }
+
+    /**
+     * Résout un chemin normalisé, null si aucune route ne correspond
+     */
+    public RouteMatch resolve(String path) {
+        RouteMatch match = exactRoutes.get(path);
+        if (match != null) {
+            exactHits.increment();
+            return match;
+        }
+
+        if (cache != null) {
+            match = cache.get(path);
+            if (match != null) {
+                cacheHits.increment();
+                return match;
+            }
+        }
+
+        cacheMisses.increment();
+        match = trie.match(path);
+        if (match == null) {
+            notFound.increment();
+        } else if (cache != null) {
+            cache.put(path, match);
+        }
+        return match;
+    }
+
+    public RouteTrie getTrie() {
+        return trie;
+    }
+
+    public int getStaticRouteCount() {
+        return exactRoutes.size();
+    }
+
+    public int getCacheSize() {
+        return (cache != null) ? cache.size() : 0;
+    }
+
+    // Compteurs
+    public long getExactHits() {
+        return exactHits.sum();
+    }
+
+    public long getCacheHits() {
+        return cacheHits.sum();
+    }
+
+    /**
+     * Résolutions qui ont nécessité un parcours du trie
+     */
+    public long getCacheMisses() {
+        return cacheMisses.sum();
+    }
+
+    public long getNotFound() {
+        return notFound.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "Router{exactHits=" + getExactHits() +
+                ", cacheHits=" + getCacheHits() +
+                ", cacheMisses=" + getCacheMisses() +
+                ", notFound=" + getNotFound() +
+                ", cacheSize=" + getCacheSize() +
+                '}';
+    }
+}
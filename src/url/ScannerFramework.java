@@ -1,14 +1,20 @@
 package url;
 
 import java.io.File;
+import java.io.IOException;
 import java.lang.reflect.Array;
-import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.lang.reflect.Parameter;
 import java.lang.reflect.ParameterizedType;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
 
 import jakarta.servlet.http.HttpServletRequest;
 
@@ -19,13 +25,28 @@ import annotation.UrlPost;
 import framework.annotation.Param;
 import url.UrlMapping;
 import url.UrlPatternMatcher;
-import upload.FileUpload;
 import upload.MultipartParser;
+import log.Logger;
 
 public class ScannerFramework {
 
+    private static final Logger LOG = Logger.getLogger(ScannerFramework.class);
+
     private Map<String, Map<String, Method>> urlMappings = new HashMap<>();
+    private Map<String, Map<String, HandlerDescriptor>> handlerMappings = new HashMap<>();
     private Map<String, Object> controllers = new HashMap<>();
+    private RouteTrie routeTrie;
+
+    // Plans compilés pour les appels directs à mapFormParametersToMethodArgs, par (méthode, pattern).
+    // Rangés par classe du contrôleur (ClassValue, comme PojoBinder): rien ne retient le classloader
+    // d'une application redéployée.
+    private static final ClassValue<Map<Method, Map<String, BindingPlan>>> BINDING_PLANS =
+        new ClassValue<Map<Method, Map<String, BindingPlan>>>() {
+            @Override
+            protected Map<Method, Map<String, BindingPlan>> computeValue(Class<?> type) {
+                return new ConcurrentHashMap<>();
+            }
+        };
 
     // Lance le scan à partir du chemin du répertoire /WEB-INF/classes
     public void scan(String basePath) {
@@ -33,15 +54,261 @@ public class ScannerFramework {
         if (baseDir.exists()) {
             try {
                 scanPackage(baseDir, "");
-                System.out.println("=== Scan terminé ===");
+                LOG.info("=== Scan terminé ===");
+                buildRouteTrie();
             } catch (Exception e) {
-                e.printStackTrace();
+                LOG.error("Erreur pendant le scan de {}", basePath, e);
             }
         } else {
-            System.out.println("Dossier /WEB-INF/classes introuvable !");
+            LOG.warn("Dossier /WEB-INF/classes introuvable !");
         }
     }
 
+    /**
+     * Scan au niveau bytecode: les .class de basePath et les jars de libPath sont lus en
+     * parallèle sans être chargés; seules les classes annotées @Controller passent par Class.forName.
+     */
+    public void scanBytecode(String basePath, String libPath) {
+        ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+        try {
+            ClassFileScanner classFileScanner = new ClassFileScanner(Controller.class, pool);
+            List<String> controllerNames = new ArrayList<>();
+            if (basePath != null && new File(basePath).exists()) {
+                controllerNames.addAll(classFileScanner.scanDirectory(new File(basePath)));
+            } else {
+                LOG.warn("Dossier /WEB-INF/classes introuvable !");
+            }
+            if (libPath != null) {
+                controllerNames.addAll(classFileScanner.scanJars(new File(libPath)));
+            }
+
+            // Ordre stable pour des logs et un routage reproductibles
+            Collections.sort(controllerNames);
+            for (String className : controllerNames) {
+                processClass(className);
+            }
+            LOG.info("=== Scan bytecode terminé: {} contrôleurs ===", controllerNames.size());
+            buildRouteTrie();
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Scan incrémental appuyé sur un instantané persistant (RouteSnapshot).
+     * Les fichiers dont l'empreinte n'a pas changé reprennent les routes de l'instantané
+     * (seuls leurs contrôleurs sont chargés); les autres passent par le scan bytecode.
+     */
+    public void scanIncremental(String basePath, String libPath, File snapshotFile) {
+        long start = System.nanoTime();
+        File classesDir = (basePath != null) ? new File(basePath) : null;
+        File libDir = (libPath != null) ? new File(libPath) : null;
+
+        Map<String, RouteSnapshot.Fingerprint> current;
+        try {
+            current = RouteSnapshot.fingerprint(classesDir, libDir);
+        } catch (IOException e) {
+            LOG.warn("[Snapshot] Empreintes impossibles, scan bytecode complet", e);
+            scanBytecode(basePath, libPath);
+            return;
+        }
+        RouteSnapshot previous = RouteSnapshot.read(snapshotFile);
+
+        // Sources inchangées: contrôleurs repris de l'instantané; les autres sont à ré-analyser
+        Map<String, List<String>> controllersBySource = new TreeMap<>();
+        List<String> changed = new ArrayList<>();
+        for (Map.Entry<String, RouteSnapshot.Fingerprint> entry : current.entrySet()) {
+            String source = entry.getKey();
+            if (previous != null && entry.getValue().equals(previous.fingerprints.get(source))) {
+                List<String> known = previous.controllersBySource.get(source);
+                if (known != null) controllersBySource.put(source, known);
+            } else {
+                changed.add(source);
+            }
+        }
+
+        Map<String, List<RouteSnapshot.RouteEntry>> snapshotRoutes = new HashMap<>();
+        if (previous != null) {
+            for (RouteSnapshot.RouteEntry route : previous.routes) {
+                snapshotRoutes.computeIfAbsent(route.className, k -> new ArrayList<>()).add(route);
+            }
+        }
+        for (List<String> controllerNames : controllersBySource.values()) {
+            for (String className : controllerNames) {
+                if (!restoreController(className, snapshotRoutes.getOrDefault(className, Collections.emptyList()))) {
+                    processClass(className);
+                }
+            }
+        }
+
+        // Fichiers nouveaux ou modifiés: détection @Controller au niveau bytecode, en parallèle
+        ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+        try {
+            ClassFileScanner classFileScanner = new ClassFileScanner(Controller.class, pool);
+            Map<String, List<String>> found = pool.submit(() -> changed.parallelStream()
+                .collect(Collectors.toMap(source -> source,
+                    source -> detectControllers(classFileScanner, source, classesDir, libDir)))).join();
+            for (Map.Entry<String, List<String>> entry : new TreeMap<>(found).entrySet()) {
+                if (entry.getValue().isEmpty()) continue;
+                controllersBySource.put(entry.getKey(), entry.getValue());
+                for (String className : entry.getValue()) {
+                    processClass(className);
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+        buildRouteTrie();
+
+        long elapsed = (System.nanoTime() - start) / 1_000_000;
+        if (previous == null) {
+            LOG.info("[Snapshot] Scan complet en {} ms ({} fichiers)", elapsed, current.size());
+        } else {
+            LOG.info("[Snapshot] Instantané chargé en {} ms: {} fichiers inchangés, {} ré-analysés "
+                + "(dernier scan complet: {} ms)",
+                elapsed, current.size() - changed.size(), changed.size(), previous.fullScanMillis);
+        }
+
+        if (previous == null || !changed.isEmpty() || previous.fingerprints.size() != current.size()) {
+            try {
+                long fullScanMillis = (previous == null) ? elapsed : previous.fullScanMillis;
+                new RouteSnapshot(current, controllersBySource, snapshotEntries(), fullScanMillis).write(snapshotFile);
+            } catch (IOException e) {
+                LOG.warn("[Snapshot] Écriture impossible: {}", e.getMessage());
+            }
+        }
+    }
+
+    private List<String> detectControllers(ClassFileScanner classFileScanner, String source, File classesDir, File libDir) {
+        if (source.startsWith(RouteSnapshot.JAR_PREFIX)) {
+            return classFileScanner.scanJar(new File(libDir, source.substring(RouteSnapshot.JAR_PREFIX.length())));
+        }
+        try {
+            if (classFileScanner.isAnnotated(new File(classesDir, source))) {
+                return Collections.singletonList(source.substring(0, source.length() - 6).replace('/', '.'));
+            }
+        } catch (IOException | RuntimeException e) {
+            LOG.warn("[Scanner] Classe illisible: {} ({})", source, e.getMessage());
+        }
+        return Collections.emptyList();
+    }
+
+    // Recrée un contrôleur et ses routes depuis l'instantané, sans relire ses annotations
+    private boolean restoreController(String className, List<RouteSnapshot.RouteEntry> routes) {
+        try {
+            Class<?> clazz = Class.forName(className);
+            List<Method> methods = new ArrayList<>();
+            for (RouteSnapshot.RouteEntry route : routes) {
+                Class<?>[] parameterTypes = new Class<?>[route.parameterTypes.length];
+                for (int i = 0; i < parameterTypes.length; i++) {
+                    parameterTypes[i] = loadType(route.parameterTypes[i]);
+                }
+                Method method = clazz.getDeclaredMethod(route.methodName, parameterTypes);
+                // Le plan doit avoir la même forme qu'au moment de l'instantané
+                if (!BindingPlan.compile(method, route.pattern).describe().equals(route.plan)) {
+                    return false;
+                }
+                methods.add(method);
+            }
+
+            Object controllerInstance = clazz.getDeclaredConstructor().newInstance();
+            controllers.put(clazz.getName(), controllerInstance);
+            for (int i = 0; i < routes.size(); i++) {
+                register(routes.get(i).pattern, routes.get(i).httpMethod, methods.get(i), controllerInstance);
+            }
+            return true;
+        } catch (Exception e) {
+            LOG.debug("[Snapshot] Contrôleur {} ré-analysé: {}", className, e.toString());
+            return false;
+        }
+    }
+
+    private List<RouteSnapshot.RouteEntry> snapshotEntries() {
+        List<RouteSnapshot.RouteEntry> entries = new ArrayList<>();
+        for (Map<String, HandlerDescriptor> methods : handlerMappings.values()) {
+            for (HandlerDescriptor handler : methods.values()) {
+                Method method = handler.getMethod();
+                Class<?>[] types = method.getParameterTypes();
+                String[] typeNames = new String[types.length];
+                for (int i = 0; i < types.length; i++) {
+                    typeNames[i] = types[i].getName();
+                }
+                entries.add(new RouteSnapshot.RouteEntry(handler.getPattern(), handler.getHttpMethod(),
+                    method.getDeclaringClass().getName(), method.getName(), typeNames,
+                    handler.getBindingPlan().describe()));
+            }
+        }
+        return entries;
+    }
+
+    private static Class<?> loadType(String name) throws ClassNotFoundException {
+        switch (name) {
+            case "int": return int.class;
+            case "long": return long.class;
+            case "double": return double.class;
+            case "float": return float.class;
+            case "boolean": return boolean.class;
+            case "short": return short.class;
+            case "byte": return byte.class;
+            case "char": return char.class;
+            default: return Class.forName(name);
+        }
+    }
+
+    /**
+     * Charge les contrôleurs de /WEB-INF/classes depuis l'index généré à la compilation (RouteIndexProcessor);
+     * seules les classes listées sont chargées. Les jars de libPath, que l'index ne couvre pas, passent
+     * par le scan bytecode. Retourne false si l'application n'a pas d'index ou s'il est inutilisable:
+     * l'appelant repart alors d'un scanner neuf (mappings éventuellement remplis à moitié).
+     */
+    public boolean scanIndex(String basePath, String libPath) {
+        try {
+            RouteIndex index = (basePath != null) ? RouteIndex.load(new File(basePath)) : null;
+            if (index == null) {
+                return false;
+            }
+            for (String className : index.getControllers()) {
+                processClass(className);
+            }
+            LOG.info("=== Index chargé: {} contrôleurs ===", index.getControllers().size());
+
+            int registered = 0;
+            for (Map<String, HandlerDescriptor> methods : handlerMappings.values()) {
+                registered += methods.size();
+            }
+            if (registered != index.getRoutes().size()) {
+                LOG.warn("[Routing] Index obsolète? {} routes indexées, {} enregistrées",
+                    index.getRoutes().size(), registered);
+            }
+
+            if (libPath != null) {
+                ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+                try {
+                    List<String> jarControllers = new ArrayList<>(
+                        new ClassFileScanner(Controller.class, pool).scanJars(new File(libPath)));
+                    Collections.sort(jarControllers);
+                    for (String className : jarControllers) {
+                        processClass(className);
+                    }
+                    LOG.info("[Routing] {} contrôleurs dans WEB-INF/lib (hors index)", jarControllers.size());
+                } finally {
+                    pool.shutdown();
+                }
+            }
+            buildRouteTrie();
+            return true;
+        } catch (Exception e) {
+            LOG.error("Index des routes inutilisable", e);
+            return false;
+        }
+    }
+
+    // Compile les mappings en arbre de routage immuable
+    private void buildRouteTrie() {
+        routeTrie = RouteTrie.build(handlerMappings);
+        LOG.info("[Routing] {} routes compilées", routeTrie.getRouteCount());
+    }
+
     private void scanPackage(File directory, String packageName) throws Exception {
         for (File file : directory.listFiles()) {
             if (file.isDirectory()) {
@@ -65,52 +332,33 @@ public class ScannerFramework {
                 for (Method method : clazz.getDeclaredMethods()) {
                     if (method.isAnnotationPresent(UrlMapping.class)) {
                         UrlMapping mapping = method.getAnnotation(UrlMapping.class);
-                        urlMappings.computeIfAbsent(mapping.value(), k -> new HashMap<>()).put(mapping.method(), method);
+                        register(mapping.value(), mapping.method(), method, controllerInstance);
 
                         // Affichage lisible
-                        String pkg = clazz.getPackage().getName();
-                        System.out.printf("[Mapping] %-20s → %s.%s()  (HTTP %s)%n",
-                                mapping.value(),
-                                pkg + "." + clazz.getSimpleName(),
-                                method.getName(),
-                                mapping.method());
+                        LOG.info("[Mapping] {} → {}.{}()  (HTTP {})",
+                                mapping.value(), clazz.getName(), method.getName(), mapping.method());
                     } else if (method.isAnnotationPresent(UrlGet.class)) {
                         UrlGet mapping = method.getAnnotation(UrlGet.class);
-                        urlMappings.computeIfAbsent(mapping.value(), k -> new HashMap<>()).put("GET", method);
+                        register(mapping.value(), "GET", method, controllerInstance);
 
                         // Affichage lisible
-                        String pkg = clazz.getPackage().getName();
-                        System.out.printf("[Mapping] %-20s → %s.%s()  (HTTP GET)%n",
-                                mapping.value(),
-                                pkg + "." + clazz.getSimpleName(),
-                                method.getName());
+                        LOG.info("[Mapping] {} → {}.{}()  (HTTP GET)", mapping.value(), clazz.getName(), method.getName());
                     } else if (method.isAnnotationPresent(UrlPost.class)) {
                         UrlPost mapping = method.getAnnotation(UrlPost.class);
-                        urlMappings.computeIfAbsent(mapping.value(), k -> new HashMap<>()).put("POST", method);
+                        register(mapping.value(), "POST", method, controllerInstance);
 
                         // Affichage lisible
-                        String pkg = clazz.getPackage().getName();
-                        System.out.printf("[Mapping] %-20s → %s.%s()  (HTTP POST)%n",
-                                mapping.value(),
-                                pkg + "." + clazz.getSimpleName(),
-                                method.getName());
+                        LOG.info("[Mapping] {} → {}.{}()  (HTTP POST)", mapping.value(), clazz.getName(), method.getName());
                     } else if (method.isAnnotationPresent(Json.class)) {
                         // @Json is a marker annotation (no path). Route is provided by @UrlGet/@UrlPost/@UrlMapping.
-                        String pkg = clazz.getPackage().getName();
-                        System.out.printf("[Mapping] %-20s → %s.%s()  (JSON API marker)%n",
-                                "(uses @UrlGet/@UrlPost/@UrlMapping)",
-                                pkg + "." + clazz.getSimpleName(),
-                                method.getName());
+                        LOG.debug("[Mapping] (uses @UrlGet/@UrlPost/@UrlMapping) → {}.{}()  (JSON API marker)",
+                                clazz.getName(), method.getName());
                     } else if (method.isAnnotationPresent(UrlMapping.class)) {
                         UrlMapping mapping = method.getAnnotation(UrlMapping.class);
-                        urlMappings.computeIfAbsent(mapping.value(), k -> new HashMap<>()).put("GET", method);
+                        register(mapping.value(), "GET", method, controllerInstance);
 
                         // Affichage lisible
-                        String pkg = clazz.getPackage().getName();
-                        System.out.printf("[Mapping] %-20s → %s.%s()  (HTTP GET)%n",
-                                mapping.value(),
-                                pkg + "." + clazz.getSimpleName(),
-                                method.getName());
+                        LOG.info("[Mapping] {} → {}.{}()  (HTTP GET)", mapping.value(), clazz.getName(), method.getName());
                     }
                 }
             }
@@ -118,10 +366,18 @@ public class ScannerFramework {
         } catch (ClassNotFoundException e) {
             // Classe inutile, on ignore
         } catch (Exception e) {
-            e.printStackTrace();
+            LOG.error("Contrôleur {} ignoré", className, e);
         }
     }
 
+    // Enregistre la route et prépare son handler (MethodHandle lié, type de résultat)
+    private void register(String pattern, String httpMethod, Method method, Object controllerInstance)
+            throws IllegalAccessException {
+        urlMappings.computeIfAbsent(pattern, k -> new HashMap<>()).put(httpMethod, method);
+        handlerMappings.computeIfAbsent(pattern, k -> new HashMap<>())
+            .put(httpMethod, new HandlerDescriptor(pattern, httpMethod, method, controllerInstance));
+    }
+
     // 🔹 MAPPING DES PARAMÈTRES DE FORMULAIRE
     // ------------------------------
     public static Object[] mapFormParametersToMethodArgs(Method method, HttpServletRequest request) {
@@ -152,7 +408,7 @@ public class ScannerFramework {
                         paramMap.put(entry.getKey(), entry.getValue().length > 0 ? entry.getValue()[0] : null);
                     }
                     args[i] = paramMap;
-                    System.out.printf("[Param] Map<String, Object> populated with %d parameters%n", paramMap.size());
+                    LOG.trace("[Param] Map<String, Object> populated with {} parameters", paramMap.size());
                     continue;
                 }
             }
@@ -160,22 +416,13 @@ public class ScannerFramework {
             // Check if parameter is a custom object (not primitive, not String, not Map)
             if (!p.getType().isPrimitive() && p.getType() != String.class && p.getType() != Map.class) {
                 try {
-                    Object obj = p.getType().getDeclaredConstructor().newInstance();
-                    for (Field field : p.getType().getDeclaredFields()) {
-                        field.setAccessible(true);
-                        String fieldName = field.getName();
-                        String paramValue = request.getParameter(fieldName);
-                        if (paramValue != null) {
-                            Object convertedValue = convertValue(paramValue, field.getType());
-                            field.set(obj, convertedValue);
-                        }
-                    }
+                    // Métadonnées des champs mises en cache par classe
+                    Object obj = PojoBinder.of(p.getType()).bind(request, null);
                     args[i] = obj;
-                    System.out.printf("[Param] Custom object %s instantiated and populated%n", p.getType().getSimpleName());
+                    LOG.trace("[Param] Custom object {} instantiated and populated", p.getType().getSimpleName());
                     continue;
                 } catch (Exception e) {
-                    System.err.println("Erreur lors de l'instanciation de l'objet personnalisé: " + p.getType().getSimpleName());
-                    e.printStackTrace();
+                    LOG.error("Erreur lors de l'instanciation de l'objet personnalisé: {}", p.getType().getSimpleName(), e);
                 }
             }
 
@@ -184,23 +431,13 @@ public class ScannerFramework {
                 try {
                     // For simplicity, assume single object in array for now (can be extended)
                     Object[] array = (Object[]) Array.newInstance(p.getType().getComponentType(), 1);
-                    Object obj = p.getType().getComponentType().getDeclaredConstructor().newInstance();
-                    for (Field field : p.getType().getComponentType().getDeclaredFields()) {
-                        field.setAccessible(true);
-                        String fieldName = field.getName();
-                        String paramValue = request.getParameter(fieldName);
-                        if (paramValue != null) {
-                            Object convertedValue = convertValue(paramValue, field.getType());
-                            field.set(obj, convertedValue);
-                        }
-                    }
+                    Object obj = PojoBinder.of(p.getType().getComponentType()).bind(request, null);
                     array[0] = obj;
                     args[i] = array;
-                    System.out.printf("[Param] Array of custom objects %s[] instantiated and populated%n", p.getType().getComponentType().getSimpleName());
+                    LOG.trace("[Param] Array of custom objects {}[] instantiated and populated", p.getType().getComponentType().getSimpleName());
                     continue;
                 } catch (Exception e) {
-                    System.err.println("Erreur lors de l'instanciation du tableau d'objets personnalisés: " + p.getType().getSimpleName());
-                    e.printStackTrace();
+                    LOG.error("Erreur lors de l'instanciation du tableau d'objets personnalisés: {}", p.getType().getSimpleName(), e);
                 }
             }
 
@@ -210,206 +447,44 @@ public class ScannerFramework {
             if (p.isAnnotationPresent(Param.class)) {
                 String name = p.getAnnotation(Param.class).value();
                 value = request.getParameter(name);
-                System.out.printf("[Param] Annotation @Param('%s') → valeur: %s%n", name, value);
+                LOG.trace("[Param] Annotation @Param('{}') → valeur: {}", name, value);
             }
 
             // 2 Sinon on essaie par nom de paramètre
             if ((value == null || value.isEmpty()) && p.isNamePresent()) {
                 value = request.getParameter(p.getName());
-                System.out.printf("[Param] Nom paramètre '%s' → valeur: %s%n", p.getName(), value);
+                LOG.trace("[Param] Nom paramètre '{}' → valeur: {}", p.getName(), value);
             }
 
             // 3 Sinon on regarde dans les path variables
             if ((value == null || value.isEmpty()) && pathVars.containsKey(p.getName())) {
                 value = pathVars.get(p.getName());
-                System.out.printf("[Param] Path variable '%s' → valeur: %s%n", p.getName(), value);
+                LOG.trace("[Param] Path variable '{}' → valeur: {}", p.getName(), value);
             }
 
             // 4 Conversion automatique
             args[i] = convertValue(value, p.getType());
-            System.out.printf("[Param] Conversion %s → %s (%s)%n", value, args[i], p.getType().getSimpleName());
+            if (LOG.isTraceEnabled()) {
+                // Formaté plus tard par le thread d'écriture: la valeur liée est convertie en chaîne ici
+                LOG.trace("[Param] Conversion {} → {} ({})", value, String.valueOf(args[i]), p.getType().getSimpleName());
+            }
         }
         return args;
     }
 
-    // Surcharge de la méthode pour supporter multipart
+    // Surcharge de la méthode pour supporter multipart.
+    // Le handler courant passe par HandlerDescriptor.getBindingPlan(); ici le plan est compilé au premier appel.
     public static Object[] mapFormParametersToMethodArgs(Method method, HttpServletRequest request,
                                                          String urlPattern, String actualPath,
                                                          MultipartParser multipartParser) {
-        Parameter[] parameters = method.getParameters();
-        Object[] args = new Object[parameters.length];
-
-        Map<String, String> pathVars = (urlPattern != null && actualPath != null)
-            ? UrlPatternMatcher.extractVariables(urlPattern, actualPath)
-            : new HashMap<>();
-
-        // Si multipart, utiliser les champs du parser au lieu de request.getParameter
-        Map<String, String> formFields = (multipartParser != null) 
-            ? multipartParser.getFormFields() 
-            : new HashMap<>();
-
-        for (int i = 0; i < parameters.length; i++) {
-            Parameter p = parameters[i];
-            Class<?> paramType = p.getType();
-
-            // NOUVEAU: Support pour FileUpload (fichier unique)
-            if (paramType == FileUpload.class) {
-                if (multipartParser != null) {
-                    String fieldName = getParamName(p);
-                    FileUpload file = multipartParser.getFile(fieldName);
-                    args[i] = file;
-                    System.out.printf("[Param] FileUpload '%s' → %s%n", fieldName, file);
-                } else {
-                    args[i] = null;
-                }
-                continue;
-            }
-
-            // NOUVEAU: Support pour FileUpload[] (fichiers multiples)
-            if (paramType.isArray() && paramType.getComponentType() == FileUpload.class) {
-                if (multipartParser != null) {
-                    String fieldName = getParamName(p);
-                    List<FileUpload> files = multipartParser.getFiles(fieldName);
-                    args[i] = files.toArray(new FileUpload[0]);
-                    System.out.printf("[Param] FileUpload[] '%s' → %d fichiers%n", fieldName, files.size());
-                } else {
-                    args[i] = new FileUpload[0];
-                }
-                continue;
-            }
-
-            // NOUVEAU: Support pour List<FileUpload> (fichiers multiples)
-            if (paramType == List.class && p.getParameterizedType() instanceof ParameterizedType) {
-                ParameterizedType genericType = (ParameterizedType) p.getParameterizedType();
-                if (genericType.getActualTypeArguments().length > 0 
-                    && genericType.getActualTypeArguments()[0] == FileUpload.class) {
-                    if (multipartParser != null) {
-                        String fieldName = getParamName(p);
-                        List<FileUpload> files = multipartParser.getFiles(fieldName);
-                        args[i] = files;
-                        System.out.printf("[Param] List<FileUpload> '%s' → %d fichiers%n", fieldName, files.size());
-                    } else {
-                        args[i] = new java.util.ArrayList<FileUpload>();
-                    }
-                    continue;
-                }
-            }
-
-            // Check if parameter is Map<String, Object>
-            if (paramType == Map.class && p.getParameterizedType() instanceof ParameterizedType) {
-                ParameterizedType paramTypePt = (ParameterizedType) p.getParameterizedType();
-                if (paramTypePt.getActualTypeArguments().length == 2 &&
-                    paramTypePt.getActualTypeArguments()[0] == String.class &&
-                    paramTypePt.getActualTypeArguments()[1] == Object.class) {
-                    // Create Map<String, Object> from request parameters
-                    Map<String, Object> paramMap = new HashMap<>();
-                    
-                    // D'abord les paramètres de la requête classique
-                    for (Map.Entry<String, String[]> entry : request.getParameterMap().entrySet()) {
-                        paramMap.put(entry.getKey(), entry.getValue().length > 0 ? entry.getValue()[0] : null);
-                    }
-                    
-                    // NOUVEAU: Ajouter les champs du multipart
-                    if (multipartParser != null) {
-                        paramMap.putAll(multipartParser.getFormFields());
-                        // Ajouter les fichiers aussi dans la Map
-                        for (Map.Entry<String, FileUpload> entry : multipartParser.getSingleFiles().entrySet()) {
-                            paramMap.put(entry.getKey(), entry.getValue());
-                        }
-                    }
-                    
-                    args[i] = paramMap;
-                    System.out.printf("[Param] Map<String, Object> populated with %d parameters%n", paramMap.size());
-                    continue;
-                }
-            }
-
-            // Check if parameter is a custom object (not primitive, not String, not Map, not FileUpload)
-            if (!paramType.isPrimitive() && paramType != String.class && paramType != Map.class 
-                && paramType != FileUpload.class) {
-                try {
-                    Object obj = paramType.getDeclaredConstructor().newInstance();
-                    for (Field field : paramType.getDeclaredFields()) {
-                        field.setAccessible(true);
-                        String fieldName = field.getName();
-                        
-                        // NOUVEAU: Support pour FileUpload dans les objets personnalisés
-                        if (field.getType() == FileUpload.class && multipartParser != null) {
-                            FileUpload file = multipartParser.getFile(fieldName);
-                            field.set(obj, file);
-                            continue;
-                        }
-                        
-                        // NOUVEAU: Support pour FileUpload[] dans les objets
-                        if (field.getType().isArray() && field.getType().getComponentType() == FileUpload.class 
-                            && multipartParser != null) {
-                            List<FileUpload> files = multipartParser.getFiles(fieldName);
-                            field.set(obj, files.toArray(new FileUpload[0]));
-                            continue;
-                        }
-                        
-                        // Champ texte: d'abord multipart, sinon request.getParameter
-                        String paramValue = (multipartParser != null) 
-                            ? formFields.get(fieldName) 
-                            : request.getParameter(fieldName);
-                        
-                        if (paramValue == null) {
-                            paramValue = request.getParameter(fieldName);
-                        }
-                        
-                        if (paramValue != null) {
-                            Object convertedValue = convertValue(paramValue, field.getType());
-                            field.set(obj, convertedValue);
-                        }
-                    }
-                    args[i] = obj;
-                    System.out.printf("[Param] Custom object %s instantiated and populated%n", paramType.getSimpleName());
-                    continue;
-                } catch (Exception e) {
-                    System.err.println("Erreur lors de l'instanciation de l'objet personnalisé: " + paramType.getSimpleName());
-                    e.printStackTrace();
-                }
-            }
-
-            // CORRECTION: Déclarer la variable value ici
-            String value = null;
-
-            // 1 Si annotation @Param
-            if (p.isAnnotationPresent(Param.class)) {
-                String name = p.getAnnotation(Param.class).value();
-                value = (multipartParser != null) ? formFields.get(name) : request.getParameter(name);
-                if (value == null) value = request.getParameter(name);
-                System.out.printf("[Param] Annotation @Param('%s') → valeur: %s%n", name, value);
-            }
-
-            // 2 Sinon on essaie par nom de paramètre
-            if ((value == null || value.isEmpty()) && p.isNamePresent()) {
-                value = (multipartParser != null) ? formFields.get(p.getName()) : request.getParameter(p.getName());
-                if (value == null) value = request.getParameter(p.getName());
-                System.out.printf("[Param] Nom paramètre '%s' → valeur: %s%n", p.getName(), value);
-            }
-
-            // 3 Sinon on regarde dans les path variables
-            if ((value == null || value.isEmpty()) && pathVars.containsKey(p.getName())) {
-                value = pathVars.get(p.getName());
-                System.out.printf("[Param] Path variable '%s' → valeur: %s%n", p.getName(), value);
-            }
-
-            // 4 Conversion automatique
-            args[i] = convertValue(value, paramType);
-            System.out.printf("[Param] Conversion %s → %s (%s)%n", value, args[i], paramType.getSimpleName());
-        }
-        return args;
-    }
-
-    /**
-     * Utilitaire pour obtenir le nom du paramètre (via @Param ou nom réel)
-     */
-    private static String getParamName(Parameter p) {
-        if (p.isAnnotationPresent(Param.class)) {
-            return p.getAnnotation(Param.class).value();
-        }
-        return p.getName();
+        // "" pour l'absence de pattern (un pattern de route commence toujours par /)
+        BindingPlan plan = BINDING_PLANS.get(method.getDeclaringClass())
+            .computeIfAbsent(method, m -> new ConcurrentHashMap<>())
+            .computeIfAbsent(urlPattern != null ? urlPattern : "", pattern -> BindingPlan.compile(method, urlPattern));
+        RouteMatch match = (urlPattern != null && actualPath != null)
+            ? RouteMatch.of(urlPattern, actualPath)
+            : null;
+        return plan.bind(request, match, multipartParser);
     }
 
     private static Object convertValue(String value, Class<?> type) {
@@ -431,7 +506,7 @@ public class ScannerFramework {
             if (type == float.class || type == Float.class) return Float.parseFloat(value);
             if (type == boolean.class || type == Boolean.class) return Boolean.parseBoolean(value);
         } catch (Exception e) {
-            System.err.println("Erreur conversion: " + value + " vers " + type.getSimpleName());
+            LOG.warn("Erreur conversion: {} vers {}", value, type.getSimpleName());
         }
         return null;
     }
@@ -440,7 +515,18 @@ public class ScannerFramework {
         return urlMappings;
     }
 
+    public Map<String, Map<String, HandlerDescriptor>> getHandlerMappings() {
+        return handlerMappings;
+    }
+
     public Map<String, Object> getControllers() {
         return controllers;
     }
+
+    public RouteTrie getRouteTrie() {
+        if (routeTrie == null) {
+            buildRouteTrie();
+        }
+        return routeTrie;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,39 @@
+package url;
+
+import log.Logger;
+
+/**
+ * Conversion String → type cible, choisie une fois par paramètre ou par champ
+ */
+public interface ValueConverter {
+
+    Object convert(String value);
+
+    /**
+     * Sélectionne le convertisseur pour un type (mêmes règles que l'ancien convertValue)
+     */
+    static ValueConverter forType(Class<?> type) {
+        if (type == String.class) return value -> value;
+        if (type == int.class) return value -> value == null ? 0 : parse(value, type, Integer::valueOf);
+        if (type == Integer.class) return value -> value == null ? null : parse(value, type, Integer::valueOf);
+        if (type == long.class) return value -> value == null ? 0L : parse(value, type, Long::valueOf);
+        if (type == Long.class) return value -> value == null ? null : parse(value, type, Long::valueOf);
+        if (type == double.class) return value -> value == null ? 0.0 : parse(value, type, Double::valueOf);
+        if (type == Double.class) return value -> value == null ? null : parse(value, type, Double::valueOf);
+        if (type == float.class) return value -> value == null ? 0.0f : parse(value, type, Float::valueOf);
+        if (type == Float.class) return value -> value == null ? null : parse(value, type, Float::valueOf);
+        if (type == boolean.class) return value -> value == null ? false : Boolean.valueOf(value);
+        if (type == Boolean.class) return value -> value == null ? null : Boolean.valueOf(value);
+        // Type non supporté: toujours null
+        return value -> null;
+    }
+
+    private static Object parse(String value, Class<?> type, java.util.function.Function<String, Object> parser) {
+        try {
+            return parser.apply(value);
+        } catch (Exception e) {
+            Logger.getLogger(ValueConverter.class).warn("Erreur conversion: {} vers {}", value, type.getSimpleName());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package view;
+
+/**
+ * Résultat dont la version est connue avant le rendu: le FrontServlet en tire l'ETag
+ * (et Last-Modified) et répond 304 sans sérialiser si le client a déjà cette version.
+ */
+public interface Versioned {
+
+    /** Version de la ressource (ETag fort), null si seule la date est connue */
+    String getVersion();
+
+    /** Date de dernière modification en millisecondes, -1 si inconnue */
+    default long getLastModified() {
+        return -1;
+    }
+}
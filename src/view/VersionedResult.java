@@ -0,0 +1,33 @@
+package view;
+
+/**
+ * Enveloppe un résultat quelconque (liste, objet, ModelView...) avec sa version,
+ * pour un handler dont le type de retour ne peut pas implémenter Versioned.
+ */
+public class VersionedResult<T> implements Versioned {
+    private final String version;
+    private final long lastModified;
+    private final T body;
+
+    public VersionedResult(String version, long lastModified, T body) {
+        this.version = version;
+        this.lastModified = lastModified;
+        this.body = body;
+    }
+
+    public static <T> VersionedResult<T> of(String version, T body) {
+        return new VersionedResult<>(version, -1, body);
+    }
+
+    public static <T> VersionedResult<T> lastModified(long lastModified, T body) {
+        return new VersionedResult<>(null, lastModified, body);
+    }
+
+    @Override
+    public String getVersion() { return version; }
+
+    @Override
+    public long getLastModified() { return lastModified; }
+
+    public T getBody() { return body; }
+}